@@ -0,0 +1,232 @@
+package client.benchmarks;
+
+import client.benchmarks.server.MockGame;
+import client.benchmarks.server.RuleViolationException;
+import client.converter.DirectionConverter;
+import client.converter.IncrementalGameStateConverter;
+import client.main.MapGenerator;
+import client.model.Direction;
+import client.model.GameState;
+import client.model.RandomSource;
+import client.strategy.MovementStrategy;
+import messagesbase.messagesfromclient.PlayerMove;
+import messagesbase.messagesfromclient.PlayerRegistration;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Plays games between two instances of our strategy without any network:
+ * {@link MockGame} applies the server's rules, and each side calls
+ * {@link MovementStrategy#calculateNextMove} directly on the state it would
+ * have polled. Games run in parallel, one per thread, and game {@code i} is
+ * seeded from the base seed alone, so a single game can be replayed. The
+ * strategy's time budgets and cooldowns still read the wall clock, so with
+ * more threads than cores a game can play out differently.
+ *
+ * Reports how many games were won, and the distributions of moves until the
+ * treasure is found and from the treasure into the enemy fort.
+ *
+ * Arguments, all optional: games, threads, seed, move budget in ms.
+ */
+public class GameSimulator {
+    // The course server's move limit, without the turn timeout: planning time
+    // is not what is being measured here.
+    private static final MockGame.Settings SETTINGS = new MockGame.Settings(0, 320, 16);
+    private static final int LISTED_SEEDS = 10;
+
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42;
+        long moveBudgetMillis = args.length > 3 ? Long.parseLong(args[3]) : 1000;
+
+        PrintStream out = System.out;
+        out.printf("Simulating %d games on %d threads (seed %d)...%n", games, threads, seed);
+        SilentConsole.install();
+        long start = System.nanoTime();
+        List<GameResult> results = new ArrayList<>(games);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            RandomSource seeds = new RandomSource(seed);
+            List<Future<GameResult>> pending = new ArrayList<>(games);
+            for (int i = 0; i < games; i++) {
+                long gameSeed = seeds.nextLong();
+                pending.add(executor.submit(() -> play(gameSeed, moveBudgetMillis)));
+            }
+            for (Future<GameResult> result : pending) {
+                results.add(result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+            SilentConsole.restore();
+        }
+        report(out, results, (System.nanoTime() - start) / 1e9);
+    }
+
+    /**
+     * Plays one game to the end. Both sides use the same strategy, each with
+     * its own random stream split from {@code seed}.
+     */
+    public static GameResult play(long seed, long moveBudgetMillis) {
+        RandomSource random = new RandomSource(seed);
+        MockGame game = new MockGame("sim", SETTINGS, random.split());
+        Bot[] bots = { new Bot(game, random.split(), "first"), new Bot(game, random.split(), "second") };
+        GameResult result = new GameResult(seed);
+
+        try {
+            while (!game.isFinished()) {
+                Bot bot = game.isTurnOf(bots[0].playerId) ? bots[0] : bots[1];
+                bot.act(moveBudgetMillis);
+            }
+        } catch (RuleViolationException e) {
+            result.violation = e.getMessage();
+        } catch (RuntimeException e) {
+            result.error = e.toString();
+        }
+
+        for (int seat = 0; seat < 2; seat++) {
+            String playerId = bots[seat].playerId;
+            if (game.getWinner().filter(playerId::equals).isPresent()) {
+                result.winningSeat = seat;
+            }
+            int seatIndex = seat;
+            game.getMovesToTreasure(playerId).ifPresent(moves -> result.movesToTreasure[seatIndex] = moves);
+            game.getMovesToEnemyFort(playerId).ifPresent(moves -> result.movesToEnemyFort[seatIndex] = moves);
+        }
+        result.moves = game.getMoves();
+        return result;
+    }
+
+    private static void report(PrintStream out, List<GameResult> results, double elapsedSeconds) {
+        int won = 0;
+        int violations = 0;
+        int errors = 0;
+        int[] winsBySeat = new int[2];
+        List<Integer> toTreasure = new ArrayList<>();
+        List<Integer> treasureToFort = new ArrayList<>();
+        List<Long> failedSeeds = new ArrayList<>();
+        for (GameResult result : results) {
+            if (result.winningSeat >= 0) {
+                won++;
+                winsBySeat[result.winningSeat]++;
+            }
+            if (result.violation != null) {
+                violations++;
+            }
+            if (result.error != null) {
+                errors++;
+            }
+            if ((result.violation != null || result.error != null) && failedSeeds.size() < LISTED_SEEDS) {
+                failedSeeds.add(result.seed);
+            }
+            for (int seat = 0; seat < 2; seat++) {
+                if (result.movesToTreasure[seat] >= 0) {
+                    toTreasure.add(result.movesToTreasure[seat]);
+                }
+                if (result.movesToEnemyFort[seat] >= 0) {
+                    treasureToFort.add(result.movesToEnemyFort[seat] - result.movesToTreasure[seat]);
+                }
+            }
+        }
+
+        int games = results.size();
+        out.printf("Games: %d, won %d (%.1f%%; first player %d, second %d), rule violations %d, strategy errors %d,"
+                + " move limit %d%n", games, won, 100.0 * won / Math.max(1, games), winsBySeat[0], winsBySeat[1],
+                violations, errors, games - won - violations - errors);
+        out.printf("Treasure found by %d of %d players%n", toTreasure.size(), 2 * games);
+        out.println(describe("Moves to treasure", toTreasure));
+        out.println(describe("Moves from treasure to enemy fort", treasureToFort));
+        out.printf("Throughput: %.1f games/min over %.1f s%n", games * 60.0 / elapsedSeconds, elapsedSeconds);
+        if (!failedSeeds.isEmpty()) {
+            out.println("Seeds of games ending in a violation or error: " + failedSeeds);
+        }
+    }
+
+    private static String describe(String label, List<Integer> values) {
+        if (values.isEmpty()) {
+            return label + ": none";
+        }
+        List<Integer> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        double mean = sorted.stream().mapToInt(Integer::intValue).average().orElse(0);
+        return String.format("%s: mean %.1f, min %d, p10 %d, p50 %d, p90 %d, max %d (n=%d)", label, mean,
+                sorted.get(0), percentile(sorted, 10), percentile(sorted, 50), percentile(sorted, 90),
+                sorted.get(sorted.size() - 1), sorted.size());
+    }
+
+    private static int percentile(List<Integer> sorted, int percentile) {
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.size());
+        return sorted.get(Math.max(0, rank - 1));
+    }
+
+    /**
+     * Outcome of one simulated game. Move counts are per player and -1 where
+     * the player never got there.
+     */
+    public static final class GameResult {
+        final long seed;
+        int winningSeat = -1;
+        int moves = 0;
+        final int[] movesToTreasure = { -1, -1 };
+        final int[] movesToEnemyFort = { -1, -1 };
+        String violation = null;
+        String error = null;
+
+        GameResult(long seed) {
+            this.seed = seed;
+        }
+
+        public long getSeed() {
+            return seed;
+        }
+
+        public int getWinningSeat() {
+            return winningSeat;
+        }
+
+        public int getMoves() {
+            return moves;
+        }
+    }
+
+    /**
+     * One side of the game, acting the way {@code GameController} does on its
+     * turn, minus the network.
+     */
+    private static final class Bot {
+        private final MockGame game;
+        private final String playerId;
+        private final MapGenerator mapGenerator;
+        private final MovementStrategy strategy;
+        private final IncrementalGameStateConverter converter = new IncrementalGameStateConverter();
+        private boolean halfMapSent = false;
+
+        Bot(MockGame game, RandomSource random, String name) {
+            this.game = game;
+            this.playerId = game.register(new PlayerRegistration("Sim", name, "sim" + name)).getUniquePlayerID();
+            this.mapGenerator = new MapGenerator(random.split());
+            this.strategy = new MovementStrategy(random.split());
+        }
+
+        void act(long moveBudgetMillis) {
+            if (!halfMapSent) {
+                game.receiveHalfMap(mapGenerator.generateHalfMap(playerId));
+                halfMapSent = true;
+                return;
+            }
+
+            GameState state = converter.convert(game.getState(playerId));
+            state.getMap().getEnemyPosition()
+                    .ifPresent(enemy -> strategy.trackOpponentPosition(enemy.getPosition(), state.getMap()));
+            Direction direction = strategy.calculateNextMove(state, playerId, moveBudgetMillis);
+            game.receiveMove(PlayerMove.of(playerId, DirectionConverter.toEMove(direction)));
+        }
+    }
+}
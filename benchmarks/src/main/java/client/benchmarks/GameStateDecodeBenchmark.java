@@ -0,0 +1,140 @@
+package client.benchmarks;
+
+import client.converter.DecodedGameState;
+import client.converter.GameStateXmlDecoder;
+import client.converter.IncrementalGameStateConverter;
+import client.converter.TerrainConverter;
+import client.model.*;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import messagesbase.ResponseEnvelope;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.xml.Jaxb2XmlDecoder;
+
+/**
+ * Decoding a polled game state envelope into the client model: JAXB binding
+ * followed by conversion, against the StAX decoder writing into flat arrays.
+ * The "changed" benchmarks alternate between two states in which the enemy
+ * stands on different cells, so every poll is patched into the map. The
+ * "unchanged" ones repeat the same state, which is what most polls return.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class GameStateDecodeBenchmark {
+    private static final ResolvableType GAME_STATE_ENVELOPE = ResolvableType.forType(
+            new ParameterizedTypeReference<ResponseEnvelope<messagesbase.messagesfromserver.GameState>>() {
+            });
+    private static final String MY_PLAYER_ID = "my-player";
+    private static final String ENEMY_PLAYER_ID = "enemy-player";
+
+    @Param({"ALL_GRASS", "WATER_MAZE"})
+    public MapFixtures.Layout layout;
+
+    @Param({"42"})
+    public long seed;
+
+    private byte[][] documents;
+    private String[] stateIds;
+    private int next = 0;
+    private Jaxb2XmlDecoder jaxbDecoder;
+    private IncrementalGameStateConverter jaxbConverter;
+    private IncrementalGameStateConverter streamingConverter;
+
+    @Setup
+    public void setUp() {
+        MapFixtures.Fixture fixture = MapFixtures.create(layout, seed);
+        GameMap map = fixture.map;
+        int lastCell = map.indexOf(map.getMaxX(), map.getMaxY());
+        stateIds = new String[] { "state-a", "state-b" };
+        documents = new byte[][] { envelope(map, stateIds[0], lastCell), envelope(map, stateIds[1], lastCell - 1) };
+        jaxbDecoder = new Jaxb2XmlDecoder();
+        jaxbConverter = new IncrementalGameStateConverter();
+        streamingConverter = new IncrementalGameStateConverter();
+
+        GameState bound = jaxbConverter.convert(bindJaxb(documents[0]).getData().orElse(null));
+        GameState streamed = streamingConverter.convert(GameStateXmlDecoder.decode(
+                new ByteArrayInputStream(documents[0]), null));
+        if (bound == null || streamed == null || bound.getMap().getNodeCount() != streamed.getMap().getNodeCount()) {
+            throw new IllegalStateException("Fixture XML does not decode the same way on both paths");
+        }
+    }
+
+    @Benchmark
+    public GameState changedJaxb() {
+        byte[] document = documents[next ^= 1];
+        return jaxbConverter.convert(bindJaxb(document).getData().orElse(null));
+    }
+
+    @Benchmark
+    public GameState changedStreaming() {
+        byte[] document = documents[next ^= 1];
+        return streamingConverter.convert(GameStateXmlDecoder.decode(new ByteArrayInputStream(document), null));
+    }
+
+    @Benchmark
+    public GameState unchangedJaxb() {
+        return jaxbConverter.convert(bindJaxb(documents[0]).getData().orElse(null));
+    }
+
+    @Benchmark
+    public GameState unchangedStreaming() {
+        DecodedGameState decoded = GameStateXmlDecoder.decode(new ByteArrayInputStream(documents[0]),
+                streamingConverter.getLastGameStateId());
+        return streamingConverter.convert(decoded);
+    }
+
+    @SuppressWarnings("unchecked")
+    private ResponseEnvelope<messagesbase.messagesfromserver.GameState> bindJaxb(byte[] document) {
+        return (ResponseEnvelope<messagesbase.messagesfromserver.GameState>) jaxbDecoder.decode(
+                DefaultDataBufferFactory.sharedInstance.wrap(document), GAME_STATE_ENVELOPE,
+                MediaType.APPLICATION_XML, null);
+    }
+
+    /**
+     * The fixture as the server would send it, with my player on my fort and
+     * the enemy on {@code enemyCell}. Element names follow the JAXB defaults
+     * for the messagesbase classes.
+     */
+    private static byte[] envelope(GameMap map, String stateId, int enemyCell) {
+        StringBuilder xml = new StringBuilder(16 * 1024);
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>")
+                .append("<responseEnvelope><data xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"")
+                .append(" xsi:type=\"gameState\"><map>");
+        for (int index = 0; index < map.getCellCount(); index++) {
+            if (!map.hasNode(index)) {
+                continue;
+            }
+            MapNode node = map.getNodeAt(index);
+            String playerPosition = node.hasMyPlayer() ? "MyPlayerPosition"
+                    : index == enemyCell ? "EnemyPlayerPosition" : "NoPlayerPresent";
+            xml.append("<mapNodes>")
+                    .append("<x>").append(map.getCellX(index)).append("</x>")
+                    .append("<y>").append(map.getCellY(index)).append("</y>")
+                    .append("<fortState>").append(node.hasMyFort() ? "MyFortPresent" : "NoOrUnknownFortState")
+                    .append("</fortState>")
+                    .append("<playerPositionState>").append(playerPosition).append("</playerPositionState>")
+                    .append("<terrain>").append(TerrainConverter.toETerrain(node.getTerrain()).name())
+                    .append("</terrain>")
+                    .append("<treasureState>NoOrUnknownTreasureState</treasureState>")
+                    .append("</mapNodes>");
+        }
+        xml.append("</map>");
+        player(xml, MY_PLAYER_ID, "MustAct");
+        player(xml, ENEMY_PLAYER_ID, "MustWait");
+        xml.append("<gameStateId>").append(stateId).append("</gameStateId></data>")
+                .append("<state>Okay</state></responseEnvelope>");
+        return xml.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void player(StringBuilder xml, String playerId, String state) {
+        xml.append("<players><uniquePlayerID>").append(playerId).append("</uniquePlayerID>")
+                .append("<state>").append(state).append("</state>")
+                .append("<collectedTreasure>false</collectedTreasure></players>");
+    }
+}
@@ -0,0 +1,147 @@
+package client.benchmarks;
+
+import client.benchmarks.server.MockGame;
+import client.benchmarks.server.MockGameServer;
+import client.main.GameServerTransport;
+import client.main.MultiGameRunner;
+import client.main.NetworkHandler;
+import messagesbase.ResponseEnvelope;
+import messagesbase.messagesfromclient.PlayerMove;
+import reactor.core.publisher.Mono;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Plays many complete games between pairs of our own clients against an
+ * in-process {@link MockGameServer}, and reports the latency of move requests
+ * (p50/p99, measured around the HTTP call) and the game throughput. The games
+ * run through {@link MultiGameRunner}, so this measures the real client stack:
+ * polling, decoding, planning, retries and the shared connection pool.
+ *
+ * Arguments, all optional: games, concurrent games, server latency in ms,
+ * latency jitter in ms, seed.
+ */
+public class LoadHarness {
+    private static final long TURN_TIMEOUT_MILLIS = 5000;
+    private static final int MAX_MOVES = 320;
+    private static final int FAKE_ENEMY_ROUNDS = 16;
+    // Held here because java.util.logging only keeps loggers weakly.
+    private static final Logger CLIENT_LOGGER = Logger.getLogger(NetworkHandler.class.getName());
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int concurrentGames = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        long latencyMillis = args.length > 2 ? Long.parseLong(args[2]) : 5;
+        long jitterMillis = args.length > 3 ? Long.parseLong(args[3]) : 5;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 42;
+
+        PrintStream out = System.out;
+        // Each client logs every request; two per game would drown the report.
+        CLIENT_LOGGER.setLevel(Level.OFF);
+
+        MockGame.Settings settings = new MockGame.Settings(TURN_TIMEOUT_MILLIS, MAX_MOVES, FAKE_ENEMY_ROUNDS);
+        LatencyRecorder moveLatency = new LatencyRecorder();
+        try (MockGameServer server = new MockGameServer(settings, latencyMillis, jitterMillis, seed);
+                TimedTransport transport = new TimedTransport(server.start(), moveLatency)) {
+            List<String> gameIds = new ArrayList<>(2 * games);
+            for (int i = 0; i < games; i++) {
+                String gameId = server.newGameId();
+                gameIds.add(gameId);
+                gameIds.add(gameId);
+            }
+
+            out.printf("Playing %d games, %d at a time, server latency %d+%d ms...%n", games, concurrentGames,
+                    latencyMillis, jitterMillis);
+            long start = System.nanoTime();
+            // Stays silenced until exit: game loops may still print while the
+            // runner returns.
+            SilentConsole.install();
+            // Both players of a game are adjacent in the list, so a slot pair
+            // is always filled by the same game.
+            new MultiGameRunner(transport, "Load", "Harness", "loadharness", 2 * concurrentGames).run(gameIds);
+            double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+            report(out, server, gameIds, moveLatency, elapsedSeconds);
+        }
+        // Reactor Netty's event loop threads are not daemons.
+        System.exit(0);
+    }
+
+    private static void report(PrintStream out, MockGameServer server, List<String> gameIds,
+            LatencyRecorder moveLatency, double elapsedSeconds) {
+        int finished = 0;
+        int won = 0;
+        long moves = 0;
+        for (int i = 0; i < gameIds.size(); i += 2) {
+            MockGame game = server.getGame(gameIds.get(i));
+            if (game == null) {
+                continue;
+            }
+            finished += game.isFinished() ? 1 : 0;
+            won += game.getWinner().isPresent() ? 1 : 0;
+            moves += game.getMoves();
+        }
+        int games = gameIds.size() / 2;
+
+        out.printf("Games: %d played, %d finished, %d with a winner, %d without%n", games, finished, won,
+                finished - won);
+        out.printf("Moves: %d in total, %.1f per game%n", moves, moves / (double) Math.max(1, games));
+        out.printf("Move latency: p50 %.2f ms, p99 %.2f ms, max %.2f ms (%d requests)%n",
+                moveLatency.percentileMillis(50), moveLatency.percentileMillis(99), moveLatency.percentileMillis(100),
+                moveLatency.count());
+        out.printf("Throughput: %.1f games/min, %.1f moves/sec over %.1f s%n", games * 60.0 / elapsedSeconds,
+                moves / elapsedSeconds, elapsedSeconds);
+    }
+
+    /**
+     * Times every move request from subscription to the decoded answer.
+     */
+    private static final class TimedTransport extends GameServerTransport {
+        private final LatencyRecorder moveLatency;
+
+        TimedTransport(String serverBaseUrl, LatencyRecorder moveLatency) {
+            super(serverBaseUrl);
+            this.moveLatency = moveLatency;
+        }
+
+        @Override
+        public Mono<ResponseEnvelope<Void>> sendMove(String gameId, PlayerMove move) {
+            return Mono.defer(() -> {
+                long start = System.nanoTime();
+                return super.sendMove(gameId, move)
+                        .doOnSuccess(envelope -> moveLatency.record(System.nanoTime() - start));
+            });
+        }
+    }
+
+    private static final class LatencyRecorder {
+        private long[] nanos = new long[1024];
+        private int count = 0;
+
+        synchronized void record(long elapsedNanos) {
+            if (count == nanos.length) {
+                nanos = Arrays.copyOf(nanos, 2 * count);
+            }
+            nanos[count++] = elapsedNanos;
+        }
+
+        synchronized int count() {
+            return count;
+        }
+
+        synchronized double percentileMillis(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(nanos, count);
+            Arrays.sort(sorted);
+            int rank = (int) Math.ceil(percentile / 100 * count);
+            return sorted[Math.max(0, rank - 1)] / 1e6;
+        }
+    }
+}
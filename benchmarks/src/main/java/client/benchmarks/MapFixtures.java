@@ -0,0 +1,154 @@
+package client.benchmarks;
+
+import client.model.*;
+import client.pathfinding.DistanceOracle;
+import java.util.*;
+
+/**
+ * Seeded full-map layouts for the benchmarks. Every fixture places my player
+ * on my fort at {@link Fixture#start} and guarantees that
+ * {@link Fixture#target} is reachable from it.
+ */
+public final class MapFixtures {
+    public enum Layout {
+        /** 10x10, grass only. */
+        ALL_GRASS,
+        /** 10x10, roughly 60% mountains. */
+        MOUNTAIN_HEAVY,
+        /** 20x5, serpentine water walls with one gap per wall. */
+        WATER_MAZE,
+        /** 10x10 split horizontally, halves joined by a single crossing at the far edge. */
+        SPLIT_WORST_CASE
+    }
+
+    public static final class Fixture {
+        public final GameMap map;
+        public final Point start;
+        public final Point target;
+        public final Set<Point> visited;
+
+        Fixture(GameMap map, Point start, Point target, Set<Point> visited) {
+            this.map = map;
+            this.start = start;
+            this.target = target;
+            this.visited = visited;
+        }
+    }
+
+    private static final int MAX_ASTAR_DISTANCE = 10;
+
+    private MapFixtures() {
+    }
+
+    public static Fixture create(Layout layout, long seed) {
+        Random random = new Random(seed);
+        Terrain[][] terrain;
+        Point start;
+        switch (layout) {
+            case ALL_GRASS:
+                terrain = filled(10, 10, Terrain.GRASS);
+                start = Point.of(0, 0);
+                break;
+            case MOUNTAIN_HEAVY:
+                terrain = filled(10, 10, Terrain.GRASS);
+                scatter(terrain, random, Terrain.MOUNTAIN, 0.6);
+                start = Point.of(0, 0);
+                break;
+            case WATER_MAZE:
+                terrain = waterMaze(random);
+                start = Point.of(0, 0);
+                break;
+            case SPLIT_WORST_CASE:
+                terrain = splitWorstCase(random);
+                start = Point.of(0, 0);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown layout: " + layout);
+        }
+        terrain[start.y][start.x] = Terrain.GRASS;
+
+        GameMap map = toMap(terrain, start);
+        Point target = hardestAStarTarget(map, start);
+        Set<Point> visited = new HashSet<>();
+        for (int i = 0; i < 10; i++) {
+            visited.add(Point.of(random.nextInt(map.getMapWidth()), random.nextInt(map.getMapHeight())));
+        }
+        return new Fixture(map, start, target, visited);
+    }
+
+    private static Terrain[][] filled(int width, int height, Terrain value) {
+        Terrain[][] terrain = new Terrain[height][width];
+        for (Terrain[] row : terrain) {
+            Arrays.fill(row, value);
+        }
+        return terrain;
+    }
+
+    private static void scatter(Terrain[][] terrain, Random random, Terrain value, double probability) {
+        for (Terrain[] row : terrain) {
+            for (int x = 0; x < row.length; x++) {
+                if (row[x] == Terrain.GRASS && random.nextDouble() < probability) {
+                    row[x] = value;
+                }
+            }
+        }
+    }
+
+    private static Terrain[][] waterMaze(Random random) {
+        Terrain[][] terrain = filled(20, 5, Terrain.GRASS);
+        scatter(terrain, random, Terrain.MOUNTAIN, 0.25);
+        boolean gapAtBottom = true;
+        for (int x = 2; x < 20; x += 3) {
+            int gap = gapAtBottom ? 4 : 0;
+            for (int y = 0; y < 5; y++) {
+                terrain[y][x] = y == gap ? Terrain.GRASS : Terrain.WATER;
+            }
+            gapAtBottom = !gapAtBottom;
+        }
+        return terrain;
+    }
+
+    private static Terrain[][] splitWorstCase(Random random) {
+        Terrain[][] terrain = filled(10, 10, Terrain.GRASS);
+        scatter(terrain, random, Terrain.MOUNTAIN, 0.3);
+        for (int x = 0; x < 9; x++) {
+            terrain[4][x] = Terrain.WATER;
+        }
+        terrain[4][9] = Terrain.GRASS;
+        return terrain;
+    }
+
+    private static GameMap toMap(Terrain[][] terrain, Point start) {
+        List<MapNode> nodes = new ArrayList<>();
+        for (int y = 0; y < terrain.length; y++) {
+            for (int x = 0; x < terrain[y].length; x++) {
+                boolean isStart = x == start.x && y == start.y;
+                nodes.add(new MapNode(Point.of(x, y), terrain[y][x], TreasureState.NO_TREASURE,
+                        isStart ? FortState.MY_FORT : FortState.NO_FORT,
+                        isStart ? PlayerPositionState.MY_PLAYER : PlayerPositionState.NO_PLAYER));
+            }
+        }
+        return new GameMap(nodes);
+    }
+
+    /**
+     * Reachable cell within A* range (manhattan distance of at most 10) with
+     * the highest terrain cost from {@code start}.
+     */
+    private static Point hardestAStarTarget(GameMap map, Point start) {
+        DistanceOracle oracle = DistanceOracle.build(map);
+        int startIndex = map.indexOf(start);
+        Point best = start;
+        int bestDistance = 0;
+        for (int index = 0; index < map.getCellCount(); index++) {
+            Point candidate = map.getCellPosition(index);
+            int distance = oracle.distance(startIndex, index);
+            if (distance != DistanceOracle.UNREACHABLE && distance > bestDistance
+                    && start.manhattanDistance(candidate) <= MAX_ASTAR_DISTANCE) {
+                best = candidate;
+                bestDistance = distance;
+            }
+        }
+        return best;
+    }
+}
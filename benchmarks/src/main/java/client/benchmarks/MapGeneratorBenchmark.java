@@ -0,0 +1,35 @@
+package client.benchmarks;
+
+import client.main.MapGenerator;
+import client.model.RandomSource;
+import java.util.concurrent.TimeUnit;
+import messagesbase.messagesfromclient.PlayerHalfMap;
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MapGeneratorBenchmark {
+    private static final String PLAYER_ID = "benchmark-player";
+
+    @Param({"42"})
+    public long seed;
+
+    private MapGenerator mapGenerator;
+
+    @Setup
+    public void setUp() {
+        SilentConsole.install();
+        mapGenerator = new MapGenerator(new RandomSource(seed));
+    }
+
+    @TearDown
+    public void tearDown() {
+        SilentConsole.restore();
+    }
+
+    @Benchmark
+    public PlayerHalfMap generateHalfMap() {
+        return mapGenerator.generateHalfMap(PLAYER_ID);
+    }
+}
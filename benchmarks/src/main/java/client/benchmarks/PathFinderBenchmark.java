@@ -0,0 +1,60 @@
+package client.benchmarks;
+
+import client.model.*;
+import client.pathfinding.PathFinder;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PathFinderBenchmark {
+    private static final long TIME_BUDGET_MILLIS = 1000;
+
+    @Param({"ALL_GRASS", "MOUNTAIN_HEAVY", "WATER_MAZE", "SPLIT_WORST_CASE"})
+    public MapFixtures.Layout layout;
+
+    @Param({"42"})
+    public long seed;
+
+    private MapFixtures.Fixture fixture;
+    private PathFinder indexedPathFinder;
+    private PathFinder legacyPathFinder;
+
+    @Setup
+    public void setUp() {
+        SilentConsole.install();
+        fixture = MapFixtures.create(layout, seed);
+        indexedPathFinder = new PathFinder(true);
+        legacyPathFinder = new PathFinder(false);
+    }
+
+    @TearDown
+    public void tearDown() {
+        SilentConsole.restore();
+    }
+
+    @Benchmark
+    public List<Direction> findPathIndexed() {
+        return indexedPathFinder.findPath(fixture.map, fixture.start, fixture.target, TIME_BUDGET_MILLIS,
+                fixture.visited);
+    }
+
+    @Benchmark
+    public List<Direction> findPathLegacy() {
+        return legacyPathFinder.findPath(fixture.map, fixture.start, fixture.target, TIME_BUDGET_MILLIS,
+                fixture.visited);
+    }
+
+    @Benchmark
+    public List<Direction> findDirectPath() {
+        return indexedPathFinder.findDirectPath(fixture.map, fixture.start, fixture.target);
+    }
+
+    @Benchmark
+    public List<Direction> findDirectPathWithTimeout() {
+        return indexedPathFinder.findDirectPathWithTimeout(fixture.map, fixture.start, fixture.target,
+                TIME_BUDGET_MILLIS);
+    }
+}
@@ -0,0 +1,29 @@
+package client.benchmarks;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+/**
+ * The strategy classes print progress to System.out on every call; this
+ * swaps stdout for a discarding stream while a benchmark runs.
+ */
+final class SilentConsole {
+    private static PrintStream original = null;
+
+    private SilentConsole() {
+    }
+
+    static synchronized void install() {
+        if (original == null) {
+            original = System.out;
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        }
+    }
+
+    static synchronized void restore() {
+        if (original != null) {
+            System.setOut(original);
+            original = null;
+        }
+    }
+}
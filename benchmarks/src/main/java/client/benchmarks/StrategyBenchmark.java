@@ -0,0 +1,87 @@
+package client.benchmarks;
+
+import client.model.*;
+import client.pathfinding.FortBacktracker;
+import client.pathfinding.PathFinder;
+import client.strategy.ExplorationStrategy;
+import client.strategy.PathCoverageCalculator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StrategyBenchmark {
+    private static final long TIME_BUDGET_MILLIS = 1000;
+    private static final int TRACKED_ENEMY_POSITIONS = 8;
+
+    @Param({"ALL_GRASS", "MOUNTAIN_HEAVY", "WATER_MAZE", "SPLIT_WORST_CASE"})
+    public MapFixtures.Layout layout;
+
+    @Param({"42"})
+    public long seed;
+
+    private MapFixtures.Fixture fixture;
+    private PathFinder pathFinder;
+    private List<Direction> samplePath;
+    private List<Point> enemyTrail;
+    private ExplorationStrategy explored;
+
+    @Setup
+    public void setUp() {
+        SilentConsole.install();
+        fixture = MapFixtures.create(layout, seed);
+        pathFinder = new PathFinder(true);
+        samplePath = pathFinder.getDistanceOracle(fixture.map).path(fixture.map, fixture.start, fixture.target);
+
+        enemyTrail = new ArrayList<>();
+        Point position = fixture.target;
+        List<Direction> trailPath = pathFinder.getDistanceOracle(fixture.map).path(fixture.map, fixture.target,
+                fixture.start);
+        enemyTrail.add(position);
+        for (int i = 0; i < trailPath.size() && enemyTrail.size() < TRACKED_ENEMY_POSITIONS; i++) {
+            position = trailPath.get(i).move(position);
+            enemyTrail.add(position);
+        }
+
+        explored = new ExplorationStrategy(new RandomSource(seed));
+        explored.initializeHalfInfo(fixture.map, fixture.start);
+        for (Point visited : fixture.visited) {
+            explored.markVisited(visited);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        SilentConsole.restore();
+    }
+
+    @Benchmark
+    public List<Direction> generateCoveragePath() {
+        ExplorationStrategy explorationStrategy = new ExplorationStrategy(new RandomSource(seed));
+        explorationStrategy.initializeHalfInfo(fixture.map, fixture.start);
+        return explorationStrategy.generateCoveragePath(fixture.map, fixture.start, pathFinder, TIME_BUDGET_MILLIS);
+    }
+
+    @Benchmark
+    public List<MapNode> prioritizedExplorationTargets() {
+        return explored.getPrioritizedExplorationTargets(fixture.map, fixture.start, true);
+    }
+
+    @Benchmark
+    public PathCoverageCalculator.PathCoverageStats calculateCoverage() {
+        return new PathCoverageCalculator(fixture.map, fixture.visited).calculateCoverage(samplePath);
+    }
+
+    @Benchmark
+    public Optional<Point> trackEnemyPosition() {
+        FortBacktracker fortBacktracker = new FortBacktracker(pathFinder);
+        for (Point enemyPosition : enemyTrail) {
+            fortBacktracker.trackEnemyPosition(enemyPosition, fixture.map);
+        }
+        return fortBacktracker.getPredictedFortPosition();
+    }
+}
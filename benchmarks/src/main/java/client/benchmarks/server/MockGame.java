@@ -0,0 +1,556 @@
+package client.benchmarks.server;
+
+import client.model.RandomSource;
+import messagesbase.UniquePlayerIdentifier;
+import messagesbase.messagesfromclient.EMove;
+import messagesbase.messagesfromclient.ETerrain;
+import messagesbase.messagesfromclient.PlayerHalfMap;
+import messagesbase.messagesfromclient.PlayerHalfMapNode;
+import messagesbase.messagesfromclient.PlayerMove;
+import messagesbase.messagesfromclient.PlayerRegistration;
+import messagesbase.messagesfromserver.EFortState;
+import messagesbase.messagesfromserver.EPlayerGameState;
+import messagesbase.messagesfromserver.EPlayerPositionState;
+import messagesbase.messagesfromserver.ETreasureState;
+import messagesbase.messagesfromserver.FullMap;
+import messagesbase.messagesfromserver.FullMapNode;
+import messagesbase.messagesfromserver.GameState;
+import messagesbase.messagesfromserver.PlayerState;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+
+/**
+ * One game under the course server's rules, without any HTTP. Two players
+ * register and take turns, and the first to act is drawn at random. Each
+ * sends a 10x5 half map, and the halves are joined into a 20x5 or 10x10 map
+ * in random order. A step from one field to the next takes cost(from) +
+ * cost(to) identical move commands, where grass costs 1 and mountain 2. Every
+ * command is one turn. Walking into water or off the map loses the game, as
+ * does any other rule violation. On a mountain a player sees the eight
+ * surrounding fields, on grass only its own. Within sight, the player's
+ * treasure and the enemy fort are revealed. Stepping on the treasure collects
+ * it, and entering the enemy fort while carrying it wins. For the first
+ * rounds the enemy is shown on a random field. A player who does not act
+ * within the turn timeout loses. When the action limit is reached, both
+ * players lose.
+ *
+ * All methods are synchronized, so one game can serve both players'
+ * requests concurrently.
+ */
+public class MockGame {
+    public static final int HALF_WIDTH = 10;
+    public static final int HALF_HEIGHT = 5;
+
+    private static final int HALF_FIELDS = HALF_WIDTH * HALF_HEIGHT;
+    private static final int MIN_GRASS = 24;
+    private static final int MIN_MOUNTAINS = 5;
+    private static final int MIN_WATER = 7;
+    private static final int NO_CELL = -1;
+    private static final int NOT_YET = -1;
+
+    /**
+     * Limits that the course server enforces per game.
+     */
+    public static final class Settings {
+        public static final Settings DEFAULT = new Settings(5000, 320, 16);
+
+        private final long turnTimeoutMillis;
+        private final int maxMoves;
+        private final int fakeEnemyRounds;
+
+        /**
+         * @param turnTimeoutMillis time a player has for each action, or 0
+         *                          for no limit
+         * @param maxMoves          move commands of both players together
+         *                          before the game ends without a winner
+         * @param fakeEnemyRounds   rounds (one move of each player) during
+         *                          which the enemy is shown on a random field
+         */
+        public Settings(long turnTimeoutMillis, int maxMoves, int fakeEnemyRounds) {
+            this.turnTimeoutMillis = turnTimeoutMillis;
+            this.maxMoves = maxMoves;
+            this.fakeEnemyRounds = fakeEnemyRounds;
+        }
+    }
+
+    private final String gameId;
+    private final Settings settings;
+    private final RandomSource random;
+    private final List<Player> players = new ArrayList<>(2);
+    private ETerrain[] terrain = new ETerrain[0];
+    private int width = 0;
+    private int height = 0;
+    private int turn = 0;
+    private int moves = 0;
+    private boolean finished = false;
+    private long turnStartedNanos = System.nanoTime();
+    private String gameStateId;
+
+    public MockGame(String gameId, Settings settings, RandomSource random) {
+        this.gameId = gameId;
+        this.settings = settings;
+        this.random = random;
+        newGameState();
+    }
+
+    public String getGameId() {
+        return gameId;
+    }
+
+    public synchronized UniquePlayerIdentifier register(PlayerRegistration registration) {
+        if (players.size() == 2) {
+            throw new RuleViolationException("GameFullException", "Game " + gameId + " already has two players",
+                    false);
+        }
+        Player player = new Player(new UniquePlayerIdentifier(gameId + "-p" + players.size() + "-"
+                + Long.toHexString(random.nextLong())), registration);
+        players.add(player);
+        if (players.size() == 2) {
+            turn = random.nextInt(2);
+            startTurn();
+        }
+        newGameState();
+        return player.id;
+    }
+
+    public synchronized void receiveHalfMap(PlayerHalfMap halfMap) {
+        Player player = actingPlayer(halfMap.getUniquePlayerID());
+        if (player.halfMap != null) {
+            throw lose(player, "HalfMapAlreadySentException", "Player already sent a half map");
+        }
+        validateHalfMap(player, halfMap);
+        player.halfMap = halfMap;
+        if (players.get(0).halfMap != null && players.get(1).halfMap != null) {
+            buildFullMap();
+        }
+        endTurn();
+    }
+
+    public synchronized void receiveMove(PlayerMove move) {
+        Player player = actingPlayer(move.getUniquePlayerID());
+        if (terrain.length == 0) {
+            throw lose(player, "NoMapException", "Moves are only allowed once both half maps were sent");
+        }
+
+        EMove direction = move.getMove();
+        if (direction == null) {
+            throw lose(player, "InvalidMoveException", "Move without a direction");
+        }
+        if (player.pendingMove != direction) {
+            player.pendingMove = direction;
+            player.pendingCommands = 0;
+        }
+        player.pendingCommands++;
+        player.moveCommands++;
+
+        int target = neighbour(player.position, direction);
+        if (target == NO_CELL) {
+            throw lose(player, "MovedOffMapException", "Player moved off the map");
+        }
+        if (terrain[target] == ETerrain.Water) {
+            throw lose(player, "DrownedException", "Player walked into water");
+        }
+        if (player.pendingCommands >= cost(terrain[player.position]) + cost(terrain[target])) {
+            player.position = target;
+            player.pendingMove = null;
+            player.pendingCommands = 0;
+            arrive(player);
+        }
+        moves++;
+        if (!finished && moves >= settings.maxMoves) {
+            finish(null);
+        }
+        endTurn();
+    }
+
+    public synchronized GameState getState(String playerId) {
+        Player viewer = findPlayer(playerId);
+        checkTurnTimeout();
+
+        List<FullMapNode> nodes = new ArrayList<>(terrain.length);
+        if (terrain.length > 0) {
+            Player enemy = opponentOf(viewer);
+            for (int cell = 0; cell < terrain.length; cell++) {
+                nodes.add(new FullMapNode(terrain[cell], playerPositionAt(cell, viewer), treasureAt(cell, viewer),
+                        fortAt(cell, viewer, enemy), cell % width, cell / width));
+            }
+        }
+
+        List<PlayerState> playerStates = new ArrayList<>(players.size());
+        for (Player player : players) {
+            PlayerRegistration registration = player.registration;
+            playerStates.add(new PlayerState(registration.getStudentFirstName(), registration.getStudentLastName(),
+                    registration.getStudentUAccount(), gameStateOf(player), player.id, player.collectedTreasure));
+        }
+        return new GameState(new FullMap(nodes), playerStates, gameStateId);
+    }
+
+    /**
+     * Whether the game runs and waits for this player's action.
+     */
+    public synchronized boolean isTurnOf(String playerId) {
+        Player player = findPlayer(playerId);
+        checkTurnTimeout();
+        return !finished && players.size() == 2 && players.get(turn) == player;
+    }
+
+    public synchronized boolean isFinished() {
+        checkTurnTimeout();
+        return finished;
+    }
+
+    /**
+     * Id of the winner, or empty while the game runs or if nobody won.
+     */
+    public synchronized Optional<String> getWinner() {
+        for (Player player : players) {
+            if (player.result == EPlayerGameState.Won) {
+                return Optional.of(player.id.getUniquePlayerID());
+            }
+        }
+        return Optional.empty();
+    }
+
+    public synchronized int getMoves() {
+        return moves;
+    }
+
+    /**
+     * Move commands this player sent so far.
+     */
+    public synchronized int getMoves(String playerId) {
+        return findPlayer(playerId).moveCommands;
+    }
+
+    /**
+     * The player's move command count when it picked up its treasure, or
+     * empty if it has not.
+     */
+    public synchronized OptionalInt getMovesToTreasure(String playerId) {
+        int moves = findPlayer(playerId).movesToTreasure;
+        return moves == NOT_YET ? OptionalInt.empty() : OptionalInt.of(moves);
+    }
+
+    /**
+     * The player's move command count when it entered the enemy fort with
+     * its treasure, or empty if it has not.
+     */
+    public synchronized OptionalInt getMovesToEnemyFort(String playerId) {
+        int moves = findPlayer(playerId).movesToEnemyFort;
+        return moves == NOT_YET ? OptionalInt.empty() : OptionalInt.of(moves);
+    }
+
+    private Player actingPlayer(String playerId) {
+        Player player = findPlayer(playerId);
+        checkTurnTimeout();
+        if (finished) {
+            throw new RuleViolationException("GameOverException", "The game has ended, it was won or lost", false);
+        }
+        if (players.size() < 2 || players.get(turn) != player) {
+            throw lose(player, "NotYourTurnException", "Player tried to act, but it wasn't the client's turn");
+        }
+        return player;
+    }
+
+    private Player findPlayer(String playerId) {
+        for (Player player : players) {
+            if (player.id.getUniquePlayerID().equals(playerId)) {
+                return player;
+            }
+        }
+        throw new RuleViolationException("NoSuchPlayerException",
+                "Player " + playerId + " is not registered in game " + gameId, false);
+    }
+
+    private Player opponentOf(Player player) {
+        return players.get(0) == player ? players.get(1) : players.get(0);
+    }
+
+    private void validateHalfMap(Player player, PlayerHalfMap halfMap) {
+        ETerrain[] half = new ETerrain[HALF_FIELDS];
+        int forts = 0;
+        int fortCell = NO_CELL;
+        for (PlayerHalfMapNode node : halfMap.getMapNodes()) {
+            int x = node.getX();
+            int y = node.getY();
+            if (x < 0 || y < 0 || x >= HALF_WIDTH || y >= HALF_HEIGHT || half[y * HALF_WIDTH + x] != null) {
+                throw lose(player, "InvalidHalfMapException", "Half map field out of range or repeated: " + x + "," + y);
+            }
+            half[y * HALF_WIDTH + x] = node.getTerrain();
+            if (node.isFortPresent()) {
+                forts++;
+                fortCell = y * HALF_WIDTH + x;
+            }
+        }
+        if (halfMap.getMapNodes().size() != HALF_FIELDS) {
+            throw lose(player, "InvalidHalfMapException", "Half map must have " + HALF_FIELDS + " fields");
+        }
+        if (forts != 1 || half[fortCell] != ETerrain.Grass) {
+            throw lose(player, "InvalidHalfMapException", "Half map needs exactly one fort, placed on grass");
+        }
+        if (count(half, ETerrain.Grass) < MIN_GRASS || count(half, ETerrain.Mountain) < MIN_MOUNTAINS
+                || count(half, ETerrain.Water) < MIN_WATER) {
+            throw lose(player, "InvalidHalfMapException", "Half map has too little grass, mountains or water");
+        }
+        if (!edgeMostlyTraversable(half, 0, 0, 1, 0, HALF_WIDTH)
+                || !edgeMostlyTraversable(half, 0, HALF_HEIGHT - 1, 1, 0, HALF_WIDTH)
+                || !edgeMostlyTraversable(half, 0, 0, 0, 1, HALF_HEIGHT)
+                || !edgeMostlyTraversable(half, HALF_WIDTH - 1, 0, 0, 1, HALF_HEIGHT)) {
+            throw lose(player, "InvalidHalfMapException", "More than half of a map edge is water");
+        }
+        if (!allLandConnected(half)) {
+            throw lose(player, "InvalidHalfMapException", "Half map has fields that cannot be reached");
+        }
+        player.halfTerrain = half;
+        player.halfFortCell = fortCell;
+    }
+
+    private static int count(ETerrain[] half, ETerrain kind) {
+        int count = 0;
+        for (ETerrain field : half) {
+            if (field == kind) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static boolean edgeMostlyTraversable(ETerrain[] half, int x, int y, int dx, int dy, int length) {
+        int water = 0;
+        for (int i = 0; i < length; i++) {
+            if (half[(y + i * dy) * HALF_WIDTH + x + i * dx] == ETerrain.Water) {
+                water++;
+            }
+        }
+        return water * 2 < length;
+    }
+
+    private static boolean allLandConnected(ETerrain[] half) {
+        int land = HALF_FIELDS - count(half, ETerrain.Water);
+        boolean[] seen = new boolean[HALF_FIELDS];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int cell = 0; cell < HALF_FIELDS && queue.isEmpty(); cell++) {
+            if (half[cell] != ETerrain.Water) {
+                seen[cell] = true;
+                queue.add(cell);
+            }
+        }
+        int reached = 0;
+        while (!queue.isEmpty()) {
+            int cell = queue.poll();
+            reached++;
+            int x = cell % HALF_WIDTH;
+            int y = cell / HALF_WIDTH;
+            int[] neighbours = { x > 0 ? cell - 1 : NO_CELL, x < HALF_WIDTH - 1 ? cell + 1 : NO_CELL,
+                    y > 0 ? cell - HALF_WIDTH : NO_CELL, y < HALF_HEIGHT - 1 ? cell + HALF_WIDTH : NO_CELL };
+            for (int next : neighbours) {
+                if (next != NO_CELL && !seen[next] && half[next] != ETerrain.Water) {
+                    seen[next] = true;
+                    queue.add(next);
+                }
+            }
+        }
+        return reached == land;
+    }
+
+    /**
+     * Joins both halves side by side or on top of each other, in random
+     * order, and places each player on its fort and its treasure on a random
+     * grass field of its own half.
+     */
+    private void buildFullMap() {
+        boolean sideBySide = random.nextBoolean();
+        int first = random.nextInt(2);
+        width = sideBySide ? 2 * HALF_WIDTH : HALF_WIDTH;
+        height = sideBySide ? HALF_HEIGHT : 2 * HALF_HEIGHT;
+        terrain = new ETerrain[width * height];
+
+        for (int order = 0; order < 2; order++) {
+            Player player = players.get((first + order) % 2);
+            int offsetX = sideBySide ? order * HALF_WIDTH : 0;
+            int offsetY = sideBySide ? 0 : order * HALF_HEIGHT;
+            List<Integer> grass = new ArrayList<>();
+            for (int halfCell = 0; halfCell < HALF_FIELDS; halfCell++) {
+                int cell = (halfCell / HALF_WIDTH + offsetY) * width + halfCell % HALF_WIDTH + offsetX;
+                terrain[cell] = player.halfTerrain[halfCell];
+                if (halfCell == player.halfFortCell) {
+                    player.fortCell = cell;
+                } else if (terrain[cell] == ETerrain.Grass) {
+                    grass.add(cell);
+                }
+            }
+            player.treasureCell = grass.get(random.nextInt(grass.size()));
+            player.position = player.fortCell;
+        }
+        for (Player player : players) {
+            arrive(player);
+        }
+    }
+
+    private void arrive(Player player) {
+        Player enemy = opponentOf(player);
+        int x = player.position % width;
+        int y = player.position / width;
+        int sight = terrain[player.position] == ETerrain.Mountain ? 1 : 0;
+        for (int dy = -sight; dy <= sight; dy++) {
+            for (int dx = -sight; dx <= sight; dx++) {
+                int seenX = x + dx;
+                int seenY = y + dy;
+                if (seenX < 0 || seenY < 0 || seenX >= width || seenY >= height) {
+                    continue;
+                }
+                int cell = seenY * width + seenX;
+                player.treasureRevealed |= cell == player.treasureCell;
+                player.enemyFortRevealed |= cell == enemy.fortCell;
+            }
+        }
+
+        if (player.position == player.treasureCell && !player.collectedTreasure) {
+            player.collectedTreasure = true;
+            player.movesToTreasure = player.moveCommands;
+        }
+        if (player.collectedTreasure && player.position == enemy.fortCell) {
+            player.movesToEnemyFort = player.moveCommands;
+            finish(player);
+        }
+    }
+
+    private int neighbour(int cell, EMove direction) {
+        int x = cell % width;
+        int y = cell / width;
+        switch (direction) {
+            case Up: y--; break;
+            case Down: y++; break;
+            case Left: x--; break;
+            case Right: x++; break;
+            default: return NO_CELL;
+        }
+        return x < 0 || y < 0 || x >= width || y >= height ? NO_CELL : y * width + x;
+    }
+
+    private static int cost(ETerrain field) {
+        return field == ETerrain.Mountain ? 2 : 1;
+    }
+
+    private EPlayerPositionState playerPositionAt(int cell, Player viewer) {
+        boolean mine = viewer.position == cell;
+        boolean enemy = viewer.shownEnemyCell == cell;
+        if (mine && enemy) {
+            return EPlayerPositionState.BothPlayerPosition;
+        }
+        if (mine) {
+            return EPlayerPositionState.MyPlayerPosition;
+        }
+        return enemy ? EPlayerPositionState.EnemyPlayerPosition : EPlayerPositionState.NoPlayerPresent;
+    }
+
+    private ETreasureState treasureAt(int cell, Player viewer) {
+        return cell == viewer.treasureCell && viewer.treasureRevealed && !viewer.collectedTreasure
+                ? ETreasureState.MyTreasureIsPresent
+                : ETreasureState.NoOrUnknownTreasureState;
+    }
+
+    private EFortState fortAt(int cell, Player viewer, Player enemy) {
+        if (cell == viewer.fortCell) {
+            return EFortState.MyFortPresent;
+        }
+        return cell == enemy.fortCell && viewer.enemyFortRevealed ? EFortState.EnemyFortPresent
+                : EFortState.NoOrUnknownFortState;
+    }
+
+    private EPlayerGameState gameStateOf(Player player) {
+        if (player.result != null) {
+            return player.result;
+        }
+        return players.size() == 2 && players.get(turn) == player ? EPlayerGameState.MustAct
+                : EPlayerGameState.MustWait;
+    }
+
+    private RuleViolationException lose(Player player, String exceptionName, String message) {
+        if (!finished) {
+            finish(opponentOf(player));
+        }
+        return new RuleViolationException(exceptionName, message, true);
+    }
+
+    /**
+     * Ends the game. A null winner means both players lose.
+     */
+    private void finish(Player winner) {
+        finished = true;
+        for (Player player : players) {
+            player.result = player == winner ? EPlayerGameState.Won : EPlayerGameState.Lost;
+        }
+        newGameState();
+    }
+
+    private void endTurn() {
+        turn = 1 - turn;
+        startTurn();
+        newGameState();
+    }
+
+    private void startTurn() {
+        turnStartedNanos = System.nanoTime();
+    }
+
+    private void checkTurnTimeout() {
+        if (!finished && players.size() == 2 && settings.turnTimeoutMillis > 0
+                && System.nanoTime() - turnStartedNanos > settings.turnTimeoutMillis * 1_000_000L) {
+            finish(opponentOf(players.get(turn)));
+        }
+    }
+
+    /**
+     * Gives the game a new state id and fixes where each player sees the enemy
+     * until the next change.
+     */
+    private void newGameState() {
+        gameStateId = Long.toHexString(random.nextLong());
+        if (terrain.length == 0) {
+            return;
+        }
+        boolean fake = moves < 2 * settings.fakeEnemyRounds;
+        for (Player player : players) {
+            player.shownEnemyCell = fake ? randomLandCell() : opponentOf(player).position;
+        }
+    }
+
+    private int randomLandCell() {
+        int cell;
+        do {
+            cell = random.nextInt(terrain.length);
+        } while (terrain[cell] == ETerrain.Water);
+        return cell;
+    }
+
+    private static final class Player {
+        final UniquePlayerIdentifier id;
+        final PlayerRegistration registration;
+        PlayerHalfMap halfMap = null;
+        ETerrain[] halfTerrain = null;
+        int halfFortCell = NO_CELL;
+        int fortCell = NO_CELL;
+        int treasureCell = NO_CELL;
+        int position = NO_CELL;
+        int shownEnemyCell = NO_CELL;
+        boolean treasureRevealed = false;
+        boolean enemyFortRevealed = false;
+        boolean collectedTreasure = false;
+        EMove pendingMove = null;
+        int pendingCommands = 0;
+        int moveCommands = 0;
+        int movesToTreasure = NOT_YET;
+        int movesToEnemyFort = NOT_YET;
+        EPlayerGameState result = null;
+
+        Player(UniquePlayerIdentifier id, PlayerRegistration registration) {
+            this.id = id;
+            this.registration = registration;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package client.benchmarks.server;
+
+import client.model.RandomSource;
+import messagesbase.ResponseEnvelope;
+import messagesbase.messagesfromclient.PlayerHalfMap;
+import messagesbase.messagesfromclient.PlayerMove;
+import messagesbase.messagesfromclient.PlayerRegistration;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.xml.Jaxb2XmlDecoder;
+import org.springframework.http.codec.xml.Jaxb2XmlEncoder;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiFunction;
+
+/**
+ * In-process stand-in for the course game server, serving the same four
+ * endpoints with the same XML envelopes. Games are created when the first
+ * player registers under a new game id; the rules live in {@link MockGame}.
+ * Every answer can be delayed by a fixed latency plus uniform jitter, to
+ * mimic the network between client and server.
+ */
+public class MockGameServer implements AutoCloseable {
+    private static final ResolvableType ENVELOPE = ResolvableType.forClass(ResponseEnvelope.class);
+
+    private final Map<String, MockGame> games = new ConcurrentHashMap<>();
+    private final MockGame.Settings settings;
+    private final long latencyMillis;
+    private final long jitterMillis;
+    private final RandomSource seeds;
+    private final Jaxb2XmlDecoder decoder = new Jaxb2XmlDecoder();
+    private final Jaxb2XmlEncoder encoder = new Jaxb2XmlEncoder();
+    private DisposableServer server = null;
+
+    public MockGameServer() {
+        this(MockGame.Settings.DEFAULT, 0, 0, RandomSource.create().getSeed());
+    }
+
+    /**
+     * @param latencyMillis delay added to every answer
+     * @param jitterMillis  upper bound of a uniformly drawn extra delay
+     * @param seed          seeds the games' maps, turn order and state ids
+     */
+    public MockGameServer(MockGame.Settings settings, long latencyMillis, long jitterMillis, long seed) {
+        this.settings = settings;
+        this.latencyMillis = latencyMillis;
+        this.jitterMillis = jitterMillis;
+        this.seeds = new RandomSource(seed);
+    }
+
+    /**
+     * Binds to a free local port and returns the base URL to hand to the
+     * client, e.g. {@code http://127.0.0.1:41234}.
+     */
+    public synchronized String start() {
+        if (server == null) {
+            server = HttpServer.create()
+                    .host("127.0.0.1")
+                    .port(0)
+                    .route(routes -> routes
+                            .post("/games/{gameId}/players", (request, response) -> respond(request, response,
+                                    PlayerRegistration.class, (game, registration) -> game.register(registration)))
+                            .post("/games/{gameId}/halfmaps", (request, response) -> respond(request, response,
+                                    PlayerHalfMap.class, (game, halfMap) -> {
+                                        game.receiveHalfMap(halfMap);
+                                        return null;
+                                    }))
+                            .post("/games/{gameId}/moves", (request, response) -> respond(request, response,
+                                    PlayerMove.class, (game, move) -> {
+                                        game.receiveMove(move);
+                                        return null;
+                                    }))
+                            .get("/games/{gameId}/states/{playerId}", (request, response) -> respond(request,
+                                    response, null, (game, none) -> game.getState(request.param("playerId")))))
+                    .bindNow();
+        }
+        return "http://127.0.0.1:" + server.port();
+    }
+
+    /**
+     * A fresh game id. Registering under any unused id creates a game as well;
+     * this only avoids collisions.
+     */
+    public String newGameId() {
+        String gameId;
+        do {
+            synchronized (seeds) {
+                gameId = Long.toHexString(seeds.nextLong()).substring(0, 5);
+            }
+        } while (games.containsKey(gameId));
+        return gameId;
+    }
+
+    /**
+     * The game with this id, or null if nobody registered for it yet.
+     */
+    public MockGame getGame(String gameId) {
+        return games.get(gameId);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (server != null) {
+            server.disposeNow();
+            server = null;
+        }
+    }
+
+    private <T> Publisher<Void> respond(HttpServerRequest request, HttpServerResponse response, Class<T> bodyType,
+            BiFunction<MockGame, T, Object> action) {
+        String gameId = request.param("gameId");
+        Mono<byte[]> answer = request.receive().aggregate().asByteArray().defaultIfEmpty(new byte[0])
+                .map(body -> encode(handle(gameId, request.uri().endsWith("/players"), bodyType, body, action)));
+
+        long jitter = jitterMillis > 0 ? ThreadLocalRandom.current().nextLong(jitterMillis + 1) : 0;
+        if (latencyMillis + jitter > 0) {
+            answer = answer.delayElement(Duration.ofMillis(latencyMillis + jitter));
+        }
+        return response.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_XML_VALUE).sendByteArray(answer);
+    }
+
+    private <T> ResponseEnvelope<?> handle(String gameId, boolean registration, Class<T> bodyType, byte[] body,
+            BiFunction<MockGame, T, Object> action) {
+        try {
+            MockGame game = registration ? games.computeIfAbsent(gameId, this::newGame) : games.get(gameId);
+            if (game == null) {
+                throw new RuleViolationException("NoSuchGameException", "No game with id " + gameId, false);
+            }
+            Object data = action.apply(game, bodyType == null ? null : decode(body, bodyType));
+            return data == null ? new ResponseEnvelope<>() : new ResponseEnvelope<>(data);
+        } catch (RuleViolationException e) {
+            return new ResponseEnvelope<>(e.getExceptionName(), e.getMessage());
+        }
+    }
+
+    private MockGame newGame(String gameId) {
+        synchronized (seeds) {
+            return new MockGame(gameId, settings, new RandomSource(seeds.nextLong()));
+        }
+    }
+
+    private <T> T decode(byte[] body, Class<T> type) {
+        try {
+            return type.cast(decoder.decode(DefaultDataBufferFactory.sharedInstance.wrap(body),
+                    ResolvableType.forClass(type), MediaType.APPLICATION_XML, null));
+        } catch (RuntimeException e) {
+            throw new RuleViolationException("InvalidRequestException", "Request body could not be read", false);
+        }
+    }
+
+    private byte[] encode(ResponseEnvelope<?> envelope) {
+        DataBuffer buffer = encoder.encodeValue(envelope, DefaultDataBufferFactory.sharedInstance, ENVELOPE,
+                MediaType.APPLICATION_XML, null);
+        try {
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            return bytes;
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package client.benchmarks.server;
+
+/**
+ * A request the game rules do not allow. The server answers it with an error
+ * envelope carrying {@link #getExceptionName()} and the message. If
+ * {@link #isPlayerLoses()} is set, the offending player has already lost.
+ */
+public class RuleViolationException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final String exceptionName;
+    private final boolean playerLoses;
+
+    public RuleViolationException(String exceptionName, String message, boolean playerLoses) {
+        super(message);
+        this.exceptionName = exceptionName;
+        this.playerLoses = playerLoses;
+    }
+
+    public String getExceptionName() {
+        return exceptionName;
+    }
+
+    public boolean isPlayerLoses() {
+        return playerLoses;
+    }
+}
@@ -0,0 +1,165 @@
+package client.converter;
+
+import client.model.*;
+import messagesbase.ResponseEnvelope;
+import messagesbase.messagesfromclient.ERequestState;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A game state response in flat form: envelope status, state id, players, and
+ * one array slot per map node in document order. {@link GameStateXmlDecoder}
+ * fills it straight from the XML. {@link IncrementalGameStateConverter}
+ * applies it to a {@link GameMap}, so no intermediate node objects are built
+ * for cells that did not change.
+ */
+public final class DecodedGameState {
+    /** Marker for a response whose state id matched the one already known. */
+    public static final DecodedGameState UNCHANGED = new DecodedGameState(0);
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private boolean error = false;
+    private String exceptionMessage = null;
+    private String gameStateId = null;
+    private final List<PlayerState> players = new ArrayList<>(2);
+    private int nodeCount = 0;
+    private int[] xs;
+    private int[] ys;
+    private Terrain[] terrain;
+    private FortState[] fortStates;
+    private TreasureState[] treasureStates;
+    private PlayerPositionState[] playerStates;
+
+    DecodedGameState() {
+        this(INITIAL_CAPACITY);
+    }
+
+    private DecodedGameState(int capacity) {
+        xs = new int[capacity];
+        ys = new int[capacity];
+        terrain = new Terrain[capacity];
+        fortStates = new FortState[capacity];
+        treasureStates = new TreasureState[capacity];
+        playerStates = new PlayerPositionState[capacity];
+    }
+
+    /**
+     * Copies a state that was bound by JAXB, so both decoding paths end up in
+     * the same converter.
+     */
+    public static DecodedGameState of(ResponseEnvelope<messagesbase.messagesfromserver.GameState> envelope) {
+        if (envelope.getState() == ERequestState.Error) {
+            DecodedGameState decoded = new DecodedGameState(0);
+            decoded.setError(envelope.getExceptionMessage());
+            return decoded;
+        }
+        return envelope.getData().map(DecodedGameState::of).orElse(null);
+    }
+
+    public static DecodedGameState of(messagesbase.messagesfromserver.GameState serverGameState) {
+        DecodedGameState decoded = new DecodedGameState(serverGameState.getMap() != null
+                ? serverGameState.getMap().getMapNodes().size()
+                : 0);
+        decoded.gameStateId = serverGameState.getGameStateId();
+        decoded.players.addAll(GameStateConverter.convertPlayers(new ArrayList<>(serverGameState.getPlayers())));
+        if (serverGameState.getMap() != null) {
+            for (messagesbase.messagesfromserver.FullMapNode node : serverGameState.getMap().getMapNodes()) {
+                decoded.addNode(node.getX(), node.getY(), TerrainConverter.fromETerrain(node.getTerrain()),
+                        FortStateConverter.fromEFortState(node.getFortState()),
+                        TreasureStateConverter.fromETreasureState(node.getTreasureState()),
+                        PlayerPositionStateConverter.fromEPlayerPositionState(node.getPlayerPositionState()));
+            }
+        }
+        return decoded;
+    }
+
+    void setError(String exceptionMessage) {
+        this.error = true;
+        this.exceptionMessage = exceptionMessage;
+    }
+
+    void setGameStateId(String gameStateId) {
+        this.gameStateId = gameStateId;
+    }
+
+    void addPlayer(PlayerState player) {
+        players.add(player);
+    }
+
+    void addNode(int x, int y, Terrain nodeTerrain, FortState fortState, TreasureState treasureState,
+            PlayerPositionState playerState) {
+        if (nodeCount == xs.length) {
+            int capacity = Math.max(INITIAL_CAPACITY, nodeCount * 2);
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            terrain = Arrays.copyOf(terrain, capacity);
+            fortStates = Arrays.copyOf(fortStates, capacity);
+            treasureStates = Arrays.copyOf(treasureStates, capacity);
+            playerStates = Arrays.copyOf(playerStates, capacity);
+        }
+        xs[nodeCount] = x;
+        ys[nodeCount] = y;
+        terrain[nodeCount] = nodeTerrain;
+        fortStates[nodeCount] = fortState;
+        treasureStates[nodeCount] = treasureState;
+        playerStates[nodeCount] = playerState;
+        nodeCount++;
+    }
+
+    public boolean isUnchanged() {
+        return this == UNCHANGED;
+    }
+
+    public boolean isError() {
+        return error;
+    }
+
+    public String getExceptionMessage() {
+        return exceptionMessage;
+    }
+
+    public String getGameStateId() {
+        return gameStateId;
+    }
+
+    public List<PlayerState> getPlayers() {
+        return Collections.unmodifiableList(players);
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public int getX(int node) {
+        return xs[node];
+    }
+
+    public int getY(int node) {
+        return ys[node];
+    }
+
+    public Terrain getTerrain(int node) {
+        return terrain[node];
+    }
+
+    public FortState getFortState(int node) {
+        return fortStates[node];
+    }
+
+    public TreasureState getTreasureState(int node) {
+        return treasureStates[node];
+    }
+
+    public PlayerPositionState getPlayerPositionState(int node) {
+        return playerStates[node];
+    }
+
+    public MapNode toMapNode(int node) {
+        return new MapNode(Point.of(xs[node], ys[node]), terrain[node], treasureStates[node], fortStates[node],
+                playerStates[node]);
+    }
+}
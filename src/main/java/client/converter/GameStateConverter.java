@@ -24,7 +24,7 @@ public class GameStateConverter {
        throw new UnsupportedOperationException("Converting to server GameState is not supported");
    }
 
-   private static GameMap convertMap(messagesbase.messagesfromserver.FullMap serverMap) {
+   static GameMap convertMap(messagesbase.messagesfromserver.FullMap serverMap) {
        if (serverMap == null || serverMap.getMapNodes().isEmpty()) {
            return new GameMap();
        }
@@ -32,7 +32,7 @@ public class GameStateConverter {
        List<MapNode> nodes = new ArrayList<>();
        
        for (messagesbase.messagesfromserver.FullMapNode serverNode : serverMap.getMapNodes()) {
-           Point position = new Point(serverNode.getX(), serverNode.getY());
+           Point position = Point.of(serverNode.getX(), serverNode.getY());
            Terrain terrain = TerrainConverter.fromETerrain(serverNode.getTerrain());
            TreasureState treasureState = TreasureStateConverter.fromETreasureState(serverNode.getTreasureState());
            FortState fortState = FortStateConverter.fromEFortState(serverNode.getFortState());
@@ -44,7 +44,7 @@ public class GameStateConverter {
        
        return new GameMap(nodes);
    }
-   private static List<PlayerState> convertPlayers(List<messagesbase.messagesfromserver.PlayerState> serverPlayers) {
+   static List<PlayerState> convertPlayers(List<messagesbase.messagesfromserver.PlayerState> serverPlayers) {
        List<PlayerState> players = new ArrayList<>();
        
        for (messagesbase.messagesfromserver.PlayerState serverPlayer : serverPlayers) {
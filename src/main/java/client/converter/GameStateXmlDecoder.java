@@ -0,0 +1,252 @@
+package client.converter;
+
+import client.model.*;
+import messagesbase.messagesfromclient.ERequestState;
+import messagesbase.messagesfromclient.ETerrain;
+import messagesbase.messagesfromserver.EFortState;
+import messagesbase.messagesfromserver.EPlayerGameState;
+import messagesbase.messagesfromserver.EPlayerPositionState;
+import messagesbase.messagesfromserver.ETreasureState;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+
+/**
+ * Streams a game state response envelope with StAX into a
+ * {@link DecodedGameState}, without building the JAXB object graph. Leaf
+ * elements are recognised by name, case-insensitively and at any depth. The
+ * element around a group of node fields becomes one map node, and the element
+ * around a group of player fields becomes one player, so wrapper element
+ * names do not matter. Documents that do not look like a game state envelope
+ * yield null, and the caller falls back to JAXB.
+ */
+public final class GameStateXmlDecoder {
+    private static final XMLInputFactory XML_INPUT_FACTORY = createInputFactory();
+    private static final int NONE = -1;
+    private static final FortState NO_FORT = FortStateConverter.fromEFortState(EFortState.NoOrUnknownFortState);
+    private static final TreasureState NO_TREASURE = TreasureStateConverter
+            .fromETreasureState(ETreasureState.NoOrUnknownTreasureState);
+    private static final PlayerPositionState NO_PLAYER = PlayerPositionStateConverter
+            .fromEPlayerPositionState(EPlayerPositionState.NoPlayerPresent);
+
+    private GameStateXmlDecoder() {
+    }
+
+    /**
+     * Decodes {@code xml}. Returns {@link DecodedGameState#UNCHANGED} as soon as
+     * the state id turns out to equal {@code knownStateId} (which may be null),
+     * and null if the document is not recognised.
+     */
+    public static DecodedGameState decode(InputStream xml, String knownStateId) {
+        XMLStreamReader reader = null;
+        try {
+            reader = XML_INPUT_FACTORY.createXMLStreamReader(xml);
+            return new Decoding(knownStateId).run(reader);
+        } catch (XMLStreamException | IllegalArgumentException e) {
+            return null;
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException ignored) {
+                    // nothing left to release
+                }
+            }
+        }
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+
+    private enum Field {
+        STATE("state"), EXCEPTION_MESSAGE("exceptionMessage"), GAME_STATE_ID("gameStateId"),
+        X("x"), Y("y"), TERRAIN("terrain"), FORT_STATE("fortState"), TREASURE_STATE("treasureState"),
+        PLAYER_POSITION_STATE("playerPositionState"),
+        PLAYER_ID("uniquePlayerID"), COLLECTED_TREASURE("collectedTreasure");
+
+        private static final Field[] FIELDS = values();
+
+        private final String elementName;
+
+        Field(String elementName) {
+            this.elementName = elementName;
+        }
+
+        static Field of(String localName) {
+            for (Field field : FIELDS) {
+                if (field.elementName.equalsIgnoreCase(localName)) {
+                    return field;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * State of one decoding run. Depth counts open elements, with the
+     * envelope root at depth 1.
+     */
+    private static final class Decoding {
+        private final String knownStateId;
+        private final DecodedGameState decoded = new DecodedGameState();
+        private boolean envelopeStateSeen = false;
+        private boolean error = false;
+        private String exceptionMessage = null;
+        private int depth = 0;
+
+        private int nodeDepth = NONE;
+        private int x;
+        private int y;
+        private boolean hasX;
+        private boolean hasY;
+        private Terrain terrain;
+        private FortState fortState;
+        private TreasureState treasureState;
+        private PlayerPositionState playerState;
+
+        private int playerDepth = NONE;
+        private String playerId;
+        private PlayerGameState playerGameState;
+        private boolean collectedTreasure;
+
+        Decoding(String knownStateId) {
+            this.knownStateId = knownStateId;
+            clearNode();
+            clearPlayer();
+        }
+
+        DecodedGameState run(XMLStreamReader reader) throws XMLStreamException {
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    depth++;
+                    Field field = Field.of(reader.getLocalName());
+                    if (field != null) {
+                        String text = reader.getElementText().trim();
+                        depth--;
+                        if (readField(field, text)) {
+                            return DecodedGameState.UNCHANGED;
+                        }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    if (depth == nodeDepth && !flushNode()) {
+                        return null;
+                    }
+                    if (depth == playerDepth && playerId != null && playerGameState != null) {
+                        decoded.addPlayer(new PlayerState(playerId, playerGameState, collectedTreasure));
+                        clearPlayer();
+                    }
+                    depth--;
+                }
+            }
+
+            if (!envelopeStateSeen || nodeDepth != NONE || playerDepth != NONE
+                    || (!error && decoded.getGameStateId() == null)) {
+                return null;
+            }
+            if (error) {
+                decoded.setError(exceptionMessage);
+            }
+            return decoded;
+        }
+
+        /**
+         * Stores one leaf value. The current depth is that of the leaf's parent.
+         * Returns true if the state is known to be unchanged.
+         */
+        private boolean readField(Field field, String text) {
+            switch (field) {
+                case STATE:
+                    if (depth == 1) {
+                        envelopeStateSeen = true;
+                        error = ERequestState.valueOf(text) == ERequestState.Error;
+                    } else {
+                        playerGameState = PlayerGameStateConverter.fromEPlayerGameState(EPlayerGameState.valueOf(text));
+                        markPlayer();
+                    }
+                    return false;
+                case EXCEPTION_MESSAGE:
+                    exceptionMessage = text;
+                    return false;
+                case GAME_STATE_ID:
+                    decoded.setGameStateId(text);
+                    return text.equals(knownStateId);
+                case X:
+                    x = Integer.parseInt(text);
+                    hasX = true;
+                    break;
+                case Y:
+                    y = Integer.parseInt(text);
+                    hasY = true;
+                    break;
+                case TERRAIN:
+                    terrain = TerrainConverter.fromETerrain(ETerrain.valueOf(text));
+                    break;
+                case FORT_STATE:
+                    fortState = FortStateConverter.fromEFortState(EFortState.valueOf(text));
+                    break;
+                case TREASURE_STATE:
+                    treasureState = TreasureStateConverter.fromETreasureState(ETreasureState.valueOf(text));
+                    break;
+                case PLAYER_POSITION_STATE:
+                    playerState = PlayerPositionStateConverter
+                            .fromEPlayerPositionState(EPlayerPositionState.valueOf(text));
+                    break;
+                case PLAYER_ID:
+                    playerId = text;
+                    markPlayer();
+                    return false;
+                case COLLECTED_TREASURE:
+                    collectedTreasure = Boolean.parseBoolean(text);
+                    markPlayer();
+                    return false;
+                default:
+                    return false;
+            }
+            nodeDepth = depth;
+            return false;
+        }
+
+        /**
+         * A player's fields may sit at different depths (the id can be wrapped),
+         * so the player ends with the outermost element holding any of them.
+         */
+        private void markPlayer() {
+            playerDepth = playerDepth == NONE ? depth : Math.min(playerDepth, depth);
+        }
+
+        private boolean flushNode() {
+            if (!hasX || !hasY || terrain == null) {
+                return false;
+            }
+            decoded.addNode(x, y, terrain, fortState, treasureState, playerState);
+            clearNode();
+            return true;
+        }
+
+        private void clearNode() {
+            nodeDepth = NONE;
+            hasX = false;
+            hasY = false;
+            terrain = null;
+            fortState = NO_FORT;
+            treasureState = NO_TREASURE;
+            playerState = NO_PLAYER;
+        }
+
+        private void clearPlayer() {
+            playerDepth = NONE;
+            playerId = null;
+            playerGameState = null;
+            collectedTreasure = false;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package client.converter;
+
+import client.model.*;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Stateful variant of {@link GameStateConverter} for polling. The previous
+ * GameMap is kept and only cells whose state differs from the incoming
+ * map are replaced, so the map instance is shared between consecutive
+ * states. States with an unchanged game state id are not converted again.
+ * Input is a {@link DecodedGameState}, either streamed from the XML or copied
+ * from a JAXB-bound FullMap.
+ */
+public class IncrementalGameStateConverter {
+    private GameState lastState = null;
+
+    public GameState convert(messagesbase.messagesfromserver.GameState serverGameState) {
+        if (serverGameState == null) {
+            return null;
+        }
+
+        String gameStateId = serverGameState.getGameStateId();
+        if (lastState != null && gameStateId != null && gameStateId.equals(lastState.getGameStateId())) {
+            return repeatLast();
+        }
+        return convert(DecodedGameState.of(serverGameState));
+    }
+
+    public GameState convert(DecodedGameState decoded) {
+        if (decoded == null || decoded.isError()) {
+            return null;
+        }
+        if (decoded.isUnchanged()) {
+            return repeatLast();
+        }
+
+        String gameStateId = decoded.getGameStateId();
+        if (lastState != null && gameStateId != null && gameStateId.equals(lastState.getGameStateId())) {
+            return repeatLast();
+        }
+
+        List<PlayerState> players = new ArrayList<>(decoded.getPlayers());
+        Set<MapChange> changes = EnumSet.noneOf(MapChange.class);
+        GameMap map = lastState != null ? lastState.getMap() : null;
+        if (map == null || !patchMap(map, decoded, changes)) {
+            map = buildMap(decoded);
+            changes = EnumSet.of(MapChange.FULL_REFRESH);
+        }
+
+        lastState = new GameState(gameStateId, map, players, changes);
+        return lastState;
+    }
+
+    /**
+     * The last converted state again, with no changes. Used when the server
+     * says the state has not changed, so nothing needs converting. Null
+     * before the first conversion.
+     */
+    public GameState repeatLast() {
+        if (lastState == null) {
+            return null;
+        }
+        return new GameState(lastState.getGameStateId(), lastState.getMap(), lastState.getPlayers(),
+                EnumSet.noneOf(MapChange.class));
+    }
+
+    /**
+     * Id of the last converted state, or null before the first conversion.
+     */
+    public String getLastGameStateId() {
+        return lastState != null ? lastState.getGameStateId() : null;
+    }
+
+    public void reset() {
+        lastState = null;
+    }
+
+    private static GameMap buildMap(DecodedGameState decoded) {
+        int nodeCount = decoded.getNodeCount();
+        if (nodeCount == 0) {
+            return new GameMap();
+        }
+
+        int extentX = 0;
+        int extentY = 0;
+        for (int node = 0; node < nodeCount; node++) {
+            extentX = Math.max(extentX, decoded.getX(node));
+            extentY = Math.max(extentY, decoded.getY(node));
+        }
+        GameMap map = new GameMap(extentX + 1, extentY + 1);
+        for (int node = 0; node < nodeCount; node++) {
+            map.addNode(decoded.toMapNode(node));
+        }
+        return map;
+    }
+
+    /**
+     * Applies the differences between {@code map} and {@code decoded} in
+     * place. Returns false without touching the map if the layout or terrain
+     * differs, in which case the caller has to rebuild it.
+     */
+    private boolean patchMap(GameMap map, DecodedGameState decoded, Set<MapChange> changes) {
+        int nodeCount = decoded.getNodeCount();
+        if (nodeCount == 0 || nodeCount != map.getNodeCount()) {
+            return false;
+        }
+
+        for (int node = 0; node < nodeCount; node++) {
+            int index = map.indexOf(decoded.getX(node), decoded.getY(node));
+            if (!map.hasNode(index) || map.getTerrainAt(index) != decoded.getTerrain(node)) {
+                return false;
+            }
+        }
+
+        for (int node = 0; node < nodeCount; node++) {
+            int index = map.indexOf(decoded.getX(node), decoded.getY(node));
+            TreasureState treasureState = decoded.getTreasureState(node);
+            FortState fortState = decoded.getFortState(node);
+            PlayerPositionState playerPositionState = decoded.getPlayerPositionState(node);
+
+            MapNode previous = map.getNodeAt(index);
+            if (previous.getTreasureState() == treasureState && previous.getFortState() == fortState
+                    && previous.getPlayerPositionState() == playerPositionState) {
+                continue;
+            }
+
+            MapNode updated = new MapNode(previous.getPosition(), previous.getTerrain(), treasureState, fortState,
+                    playerPositionState);
+            collectChanges(previous, updated, changes);
+            map.addNode(updated);
+        }
+        return true;
+    }
+
+    private static void collectChanges(MapNode previous, MapNode node, Set<MapChange> changes) {
+        if (previous.hasMyPlayer() != node.hasMyPlayer()) {
+            changes.add(MapChange.PLAYER_MOVED);
+        }
+        if (previous.hasEnemyPlayer() != node.hasEnemyPlayer()) {
+            changes.add(MapChange.ENEMY_MOVED);
+        }
+        if (!previous.hasTreasure() && node.hasTreasure()) {
+            changes.add(MapChange.TREASURE_REVEALED);
+        } else if (previous.hasTreasure() && !node.hasTreasure()) {
+            changes.add(MapChange.TREASURE_COLLECTED);
+        }
+        if (previous.getFortState() != node.getFortState()) {
+            changes.add(!previous.hasEnemyFort() && node.hasEnemyFort() ? MapChange.ENEMY_FORT_REVEALED
+                    : MapChange.FORT_CHANGED);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package client.main;
+
+/**
+ * Per-game circuit breaker. After {@code failureThreshold} transient failures
+ * in a row it opens, and requests fail at once without reaching the server.
+ * Once {@code openMillis} have passed, a single trial request is let through.
+ * It closes the breaker if it succeeds and reopens it if it fails.
+ */
+public final class CircuitBreaker {
+    public static final int DEFAULT_FAILURE_THRESHOLD = 5;
+    public static final long DEFAULT_OPEN_MILLIS = 2000;
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private int consecutiveFailures = 0;
+    private boolean open = false;
+    private long openedAt = 0;
+
+    public CircuitBreaker() {
+        this(DEFAULT_FAILURE_THRESHOLD, DEFAULT_OPEN_MILLIS);
+    }
+
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("failureThreshold must be at least 1: " + failureThreshold);
+        }
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openMillis * 1_000_000L;
+    }
+
+    /**
+     * Whether a request may be sent now. While the breaker is open, this lets one
+     * trial through per open period.
+     */
+    public synchronized boolean allowRequest() {
+        if (!open) {
+            return true;
+        }
+        long now = System.nanoTime();
+        if (now - openedAt < openNanos) {
+            return false;
+        }
+        openedAt = now;
+        return true;
+    }
+
+    public synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        open = false;
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        if (consecutiveFailures >= failureThreshold) {
+            open = true;
+            openedAt = System.nanoTime();
+        }
+    }
+
+    public synchronized boolean isOpen() {
+        return open;
+    }
+}
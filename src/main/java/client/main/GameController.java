@@ -6,7 +6,7 @@ import messagesbase.messagesfromclient.PlayerMove;
 import messagesbase.messagesfromclient.EMove;
 import messagesbase.messagesfromclient.ETerrain;
 
-import java.util.Random;
+import java.time.Duration;
 import java.util.Objects;
 import java.util.List;
 import java.util.Optional;
@@ -14,227 +14,272 @@ import java.util.Optional;
 // Import our model classes
 import client.model.*;
 import client.converter.*;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 public class GameController {
   private final NetworkHandler networkHandler;
   private final String gameId;
   private final UniquePlayerIdentifier playerId;
   private final MapGenerator mapGenerator;
+  private HalfMapPool halfMapPool = null;
+  private final RandomSource random;
   private final MovementStrategyAdapter movementStrategy;
+  private final SpeculativePlanner speculativePlanner;
   private boolean halfMapSent = false;
   private boolean waitingForOpponent = false;
-  private int moveCount = 0;
+  private volatile int moveCount = 0;
   private Point lastPosition = null;
   private EMove lastAttemptedMove = null;
-  private final long pollingInterval = 400;
+  private static final long MIN_POLL_DELAY_MILLIS = 50;
+  private static final long MAX_POLL_DELAY_MILLIS = 400;
+  private static final int MAX_CONSECUTIVE_ERRORS = 3;
+  private static final int MAX_MOVES_LIMIT = 150;
+  private long nextPollDelay = 0;
+  private volatile boolean gameRunning = false;
   private boolean gameOver = false;
+  private String lastGameStateId = "";
+  private int consecutiveErrors = 0;
   private final long moveBudgetMillis = 1000L; 
   private static final boolean DEBUG = false;
   
  GameController(NetworkHandler networkHandler, String gameId, UniquePlayerIdentifier playerId) {
+      this(networkHandler, gameId, playerId, RandomSource.create());
+  }
+
+  GameController(NetworkHandler networkHandler, String gameId, UniquePlayerIdentifier playerId, RandomSource random) {
       this.networkHandler = networkHandler;
       this.gameId = gameId;
       this.playerId = playerId;
-      this.mapGenerator = new MapGenerator();
-      this.movementStrategy = new MovementStrategyAdapter();
+      this.random = random;
+      this.mapGenerator = new MapGenerator(random.split());
+      this.movementStrategy = new MovementStrategyAdapter(random.split());
+      this.speculativePlanner = new SpeculativePlanner(movementStrategy, playerId.getUniquePlayerID(), moveBudgetMillis);
   }
   
   public GameController(NetworkHandler networkHandler, String gameId, UniquePlayerIdentifier playerId, boolean isTreasureHuntMode) {
-      this.networkHandler = networkHandler;
-      this.gameId = gameId;
-      this.playerId = playerId;
-      this.mapGenerator = new MapGenerator();
-      this.movementStrategy = new MovementStrategyAdapter();
-      
+      this(networkHandler, gameId, playerId, RandomSource.create());
   }
   
+/**
+ * Plays the game and blocks until it is over. The turns themselves run on
+ * Reactor threads, see {@link #play()}.
+ */
 public void startGame() {
-    System.out.println("Starting game...");
+    play().block();
+}
 
-    boolean gameRunning = true;
-    String lastGameStateId = "";
-    int consecutiveErrors = 0;
-    int maxConsecutiveErrors = 3;
-    
-    final int MAX_MOVES_LIMIT = 150;
-    
-    GameState lastKnownGameState = null; 
-    
-    while (gameRunning) {
-        try {
-            Thread.sleep(pollingInterval); 
-            
-            if (gameOver || networkHandler.isGameEnded()) {
-                System.out.println("Game is already over. Exiting game loop.");
-                gameOver = true;
-                networkHandler.setGameEnded(true);
-                gameRunning = false;
-                break;
+/**
+ * The game loop as one reactive pipeline. Each turn fetches the state and,
+ * when it is our turn, computes the action and sends it, without holding a
+ * thread while a request is in flight. The next poll fires as soon as our
+ * action is acknowledged and backs off up to {@value #MAX_POLL_DELAY_MILLIS}ms
+ * while the opponent acts.
+ */
+public Mono<Void> play() {
+    return Mono.defer(() -> {
+        System.out.println("Starting game (seed " + random.getSeed() + ")...");
+        gameRunning = true;
+        return Mono.defer(() -> Mono.delay(Duration.ofMillis(nextPollDelay)).then(Mono.defer(this::playTurn)))
+                .repeat(() -> gameRunning)
+                .then();
+    }).doFinally(signal -> System.out.println("Game loop ended. Total moves made: " + moveCount));
+}
+
+private Mono<Void> playTurn() {
+    if (gameOver || networkHandler.isGameEnded()) {
+        endGame("Game is already over. Exiting game loop.");
+        return Mono.empty();
+    }
+
+    return networkHandler.fetchGameStateModel(gameId, playerId)
+            .switchIfEmpty(Mono.fromRunnable(this::onGameStateUnavailable))
+            .flatMap(this::onGameState)
+            .onErrorResume(e -> {
+                onTurnError(e);
+                return Mono.empty();
+            })
+            .then(Mono.fromRunnable(this::checkMoveLimit));
+}
+
+private Mono<Void> onGameState(GameState gameState) {
+    if (isGameOver(gameState)) {
+        endGame("Game is over. Exiting game loop.");
+        return Mono.empty();
+    }
+
+    if (gameState.getGameStateId().equals(lastGameStateId) && halfMapSent) {
+        backOffPolling();
+        return Mono.empty();
+    }
+    lastGameStateId = gameState.getGameStateId();
+
+    displayGameState(gameState);
+
+    if (!gameState.isMyTurn(playerId.getUniquePlayerID())) {
+        if (!waitingForOpponent) {
+            waitingForOpponent = true;
+            System.out.println("Waiting for opponent to act...");
+            if (halfMapSent && gameState.getMap().getPlayerPosition().isPresent()) {
+                speculativePlanner.start(gameState);
             }
-            
-            GameState gameState = networkHandler.getGameStateModel(gameId, playerId);
-            
-            if (gameState != null) {
-                lastKnownGameState = gameState;
-
-                if (isGameOver(gameState)) {
-                    System.out.println("Game is over. Exiting game loop.");
-                    gameOver = true;
-                    networkHandler.setGameEnded(true);
-                    gameRunning = false;
+        }
+        backOffPolling();
+        return Mono.empty();
+    }
+
+    waitingForOpponent = false;
+    if (gameOver || networkHandler.isGameEnded()) {
+        endGame("Game ended while processing. Exiting game loop.");
+        return Mono.empty();
+    }
+
+    return halfMapSent ? sendNextMove(gameState) : sendHalfMap();
+}
+
+private Mono<Void> sendHalfMap() {
+    System.out.println("Generating half map...");
+    return Mono.fromCallable(() -> {
+                long mapStart = System.currentTimeMillis();
+                PlayerHalfMap halfMap = halfMapPool != null ? halfMapPool.take(playerId.getUniquePlayerID())
+                        : mapGenerator.generateHalfMap(playerId.getUniquePlayerID());
+                long mapDur = System.currentTimeMillis() - mapStart;
+                if (DEBUG) System.out.println("generateHalfMap() took " + mapDur + "ms");
+                return halfMap;
+            })
+            .subscribeOn(Schedulers.boundedElastic())
+            .flatMap(halfMap -> {
+                if (gameOver || networkHandler.isGameEnded()) {
+                    endGame("Game ended before sending half map. Exiting game loop.");
+                    return Mono.empty();
+                }
+
+                System.out.println("Half map generated, sending to server...");
+                return networkHandler.sendHalfMapAsync(gameId, halfMap);
+            })
+            .doOnNext(outcome -> {
+                switch (outcome) {
+                case OK:
+                    halfMapSent = true;
+                    System.out.println("Half map sent successfully!");
+                    pollImmediately();
+                    break;
+                case GAME_OVER:
+                    endGame("Game is over, half map not accepted. Exiting game loop.");
+                    break;
+                default:
+                    System.err.println("Failed to send half map (" + outcome + ").");
+                    backOffPolling();
                     break;
                 }
-                
-                if (!gameState.getGameStateId().equals(lastGameStateId) || !halfMapSent) {
-                    lastGameStateId = gameState.getGameStateId();
-                    
-                    displayGameState(gameState);
-                    
-                    boolean isOurTurn = gameState.isMyTurn(playerId.getUniquePlayerID());
-                    
-                    if (isOurTurn) {
-                        waitingForOpponent = false;
-                        if (gameOver || networkHandler.isGameEnded()) {
-                            System.out.println("Game ended while processing. Exiting game loop.");
-                            networkHandler.setGameEnded(true);
-                            gameRunning = false;
-                            break;
-                        }
-
-                        if (!halfMapSent) {
-                            System.out.println("Generating half map...");
-                            long mapStart = System.currentTimeMillis();
-                            PlayerHalfMap halfMap = mapGenerator.generateHalfMap(playerId.getUniquePlayerID());
-                            long mapDur = System.currentTimeMillis() - mapStart;
-                            if (DEBUG) System.out.println("generateHalfMap() took " + mapDur + "ms");
-                            
-                            if (gameOver || networkHandler.isGameEnded()) {
-                                System.out.println("Game ended before sending half map. Exiting game loop.");
-                                networkHandler.setGameEnded(true);
-                                gameRunning = false;
-                                break;
-                            }
-                            
-                            System.out.println("Half map generated, sending to server...");
-                            boolean success = networkHandler.sendHalfMap(gameId, halfMap);
-                            if (success) {
-                                halfMapSent = true;
-                                System.out.println("Half map sent successfully!");
-                                
-                                continue;
-                            } else {
-                                System.err.println("Failed to send half map. Checking if game ended...");
-                                
-                                if (networkHandler.isGameEnded()) {
-                                    System.out.println("Game appears to be over after half map send failure.");
-                                    gameOver = true;
-                                    gameRunning = false;
-                                    break;
-                                }
-                            }
-                        } else {
-                            if (gameOver || networkHandler.isGameEnded()) {
-                                System.out.println("Game ended before calculating move. Exiting game loop.");
-                                networkHandler.setGameEnded(true);
-                                gameRunning = false;
-                                break;
-                            }
-                            
-                            Direction nextDirection = getNextMove(gameState);
-
-                            System.out.println("Player position: " + gameState.getMap().getPlayerPosition().map(MapNode::getPosition).orElse(null));
-                            System.out.println("Has collected treasure: " + gameState.hasCollectedTreasure(playerId.getUniquePlayerID()));
-                            System.out.println("Calculated move: " + nextDirection);
-                            
-                            if (gameOver || networkHandler.isGameEnded()) {
-                                System.out.println("Game ended before sending move. Exiting game loop.");
-                                networkHandler.setGameEnded(true);
-                                gameRunning = false;
-                                break;
-                            }
-                            
-                            EMove serverMove = DirectionConverter.toEMove(nextDirection);
-                            
-
-                            PlayerMove move = PlayerMove.of(playerId.getUniquePlayerID(), serverMove);
-                            boolean moveSuccess = networkHandler.sendMove(gameId, move);
-                            if (moveSuccess) {
-                                System.out.println("Move sent successfully!");
-                                moveCount++;
-                            } else {
-                                System.err.println("Failed to send move. Checking if game ended...");
-                                
-                                if (networkHandler.isGameEnded()) {
-                                    System.out.println("Game appears to be over after move send failure.");
-                                    gameOver = true;
-                                    gameRunning = false;
-                                    break;
-                                }
-                            }
-                        }
-                    } else {
-                        if (!waitingForOpponent) {
-                            waitingForOpponent = true;
-                            System.out.println("Waiting for opponent to act...");
-                        }
-                    }
+            })
+            .then();
+}
+
+private Mono<Void> sendNextMove(GameState gameState) {
+    return speculativePlanner.take(gameState)
+            .doOnNext(direction -> updateFortBacktracker(gameState))
+            .switchIfEmpty(Mono.fromCallable(() -> getNextMove(gameState)).subscribeOn(Schedulers.boundedElastic()))
+            .flatMap(nextDirection -> {
+                System.out.println("Player position: " + gameState.getMap().getPlayerPosition().map(MapNode::getPosition).orElse(null));
+                System.out.println("Has collected treasure: " + gameState.hasCollectedTreasure(playerId.getUniquePlayerID()));
+                System.out.println("Calculated move: " + nextDirection);
+
+                if (gameOver || networkHandler.isGameEnded()) {
+                    endGame("Game ended before sending move. Exiting game loop.");
+                    return Mono.empty();
                 }
-            } else {
-                System.err.println("Failed to get game state. Checking if game ended...");
-                
-                if (networkHandler.isGameEnded()) {
-                    System.out.println("Game appears to be over after game state retrieval failure.");
-                    gameOver = true;
-                    gameRunning = false;
+
+                EMove serverMove = DirectionConverter.toEMove(nextDirection);
+                PlayerMove move = PlayerMove.of(playerId.getUniquePlayerID(), serverMove);
+                return networkHandler.sendMoveAsync(gameId, move);
+            })
+            .doOnNext(outcome -> {
+                switch (outcome) {
+                case OK:
+                    System.out.println("Move sent successfully!");
+                    moveCount++;
+                    pollImmediately();
                     break;
-                }
-                
-                consecutiveErrors++;
-                if (consecutiveErrors > maxConsecutiveErrors) {
-                    System.err.println("Too many consecutive errors. Assuming game has ended.");
-                    gameOver = true;
-                    networkHandler.setGameEnded(true);
-                    gameRunning = false;
+                case GAME_OVER:
+                    endGame("Game is over, move not accepted. Exiting game loop.");
+                    break;
+                case NOT_YOUR_TURN:
+                    System.out.println("Server says it is not our turn yet, polling again.");
+                    backOffPolling();
+                    break;
+                default:
+                    System.err.println("Failed to send move (" + outcome + ").");
+                    backOffPolling();
                     break;
                 }
-            }
-            if (moveCount >= MAX_MOVES_LIMIT) {
-                System.out.println("WARNING: Approaching move limit (" + moveCount + "/" + MAX_MOVES_LIMIT + "). Terminating game loop.");
-                break;
-            }
-        } catch (InterruptedException e) {
-            System.err.println("Game loop interrupted: " + e.getMessage());
-            gameRunning = false;
-        } catch (Exception e) {
-            System.err.println("Unexpected error in game loop: " + e.getMessage());
-            e.printStackTrace();
-            
-            String errorMsg = e.getMessage();
-            if (errorMsg != null && (
-                errorMsg.contains("game has ended") || 
-                errorMsg.contains("won or lost") ||
-                errorMsg.contains("game is over") ||
-                errorMsg.contains("game over"))) {
-                
-                System.out.println("Game appears to be over based on error message.");
-                gameOver = true;
-                networkHandler.setGameEnded(true);
-                gameRunning = false;
-                break;
-            }
-            
-            consecutiveErrors++;
-            if (consecutiveErrors > maxConsecutiveErrors) {
-                System.err.println("Too many consecutive errors. Assuming game has ended.");
-                gameOver = true;
-                networkHandler.setGameEnded(true);
-                gameRunning = false;
-                break;
-            }
-        }
+            })
+            .then();
+}
+
+private void onGameStateUnavailable() {
+    System.err.println("Failed to get game state. Checking if game ended...");
+    backOffPolling();
+
+    if (networkHandler.isGameEnded()) {
+        endGame("Game appears to be over after game state retrieval failure.");
+        return;
+    }
+
+    consecutiveErrors++;
+    if (consecutiveErrors > MAX_CONSECUTIVE_ERRORS) {
+        endGame("Too many consecutive errors. Assuming game has ended.");
     }
-    
-    System.out.println("Game loop ended. Total moves made: " + moveCount);
+}
+
+private void onTurnError(Throwable e) {
+    System.err.println("Unexpected error in game loop: " + e.getMessage());
+    e.printStackTrace();
+    backOffPolling();
+
+    if (ServerOutcome.classify(e) == ServerOutcome.GAME_OVER) {
+        endGame("Game appears to be over based on error.");
+        return;
+    }
+
+    consecutiveErrors++;
+    if (consecutiveErrors > MAX_CONSECUTIVE_ERRORS) {
+        endGame("Too many consecutive errors. Assuming game has ended.");
+    }
+}
+
+private void checkMoveLimit() {
+    if (gameRunning && moveCount >= MAX_MOVES_LIMIT) {
+        System.out.println("WARNING: Approaching move limit (" + moveCount + "/" + MAX_MOVES_LIMIT + "). Terminating game loop.");
+        gameRunning = false;
+    }
+}
+
+private void endGame(String reason) {
+    System.out.println(reason);
+    gameOver = true;
+    networkHandler.setGameEnded(true);
+    gameRunning = false;
+}
+
+private void pollImmediately() {
+    nextPollDelay = 0;
+}
+
+private void backOffPolling() {
+    nextPollDelay = nextPollDelay == 0 ? MIN_POLL_DELAY_MILLIS : Math.min(nextPollDelay * 2, MAX_POLL_DELAY_MILLIS);
+}
+
+public int getMoveCount() {
+    return moveCount;
+}
+
+/**
+ * Draws the half map from {@code halfMapPool} instead of generating it on the
+ * first turn. Null goes back to generating.
+ */
+public void setHalfMapPool(HalfMapPool halfMapPool) {
+    this.halfMapPool = halfMapPool;
 }
 
 private boolean isGameOver(GameState gameState) {
@@ -250,17 +295,6 @@ private boolean isGameOver(GameState gameState) {
             break;
         }
     }
-    String gameStateId = gameState.getGameStateId().toLowerCase();
-    if (gameStateId.contains("gameover") || 
-        gameStateId.contains("game_over") ||
-        gameStateId.contains("end") ||
-        gameStateId.contains("won") ||
-        gameStateId.contains("lost") ||
-        gameStateId.contains("terminated")) {
-        System.out.println("Game appears to be over based on game state ID: " + gameState.getGameStateId());
-        return true;
-    }
-    
     return false;
 }
 
@@ -0,0 +1,26 @@
+package client.main;
+
+/**
+ * A failed request to the game server, already classified. Once a failure is
+ * wrapped, retry decisions and callers read the outcome from here instead of
+ * classifying the cause again.
+ */
+public class GameServerException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final ServerOutcome outcome;
+
+    public GameServerException(ServerOutcome outcome, String message) {
+        super(message);
+        this.outcome = outcome;
+    }
+
+    public GameServerException(ServerOutcome outcome, String message, Throwable cause) {
+        super(message, cause);
+        this.outcome = outcome;
+    }
+
+    public ServerOutcome getOutcome() {
+        return outcome;
+    }
+}
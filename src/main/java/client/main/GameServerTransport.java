@@ -0,0 +1,225 @@
+package client.main;
+
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.codec.xml.Jaxb2XmlDecoder;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import client.converter.DecodedGameState;
+import client.converter.GameStateXmlDecoder;
+
+import io.netty.channel.ChannelOption;
+import messagesbase.ResponseEnvelope;
+import messagesbase.UniquePlayerIdentifier;
+import messagesbase.messagesfromclient.PlayerHalfMap;
+import messagesbase.messagesfromclient.PlayerMove;
+import messagesbase.messagesfromclient.PlayerRegistration;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * HTTP transport to the game server, shared by all games of a process. It owns
+ * the WebClient and a Reactor Netty connection pool with keep-alive, so
+ * connection setup is paid per pooled connection instead of per game. It keeps
+ * no game state and is safe to use from any thread; the per-game state lives
+ * in {@link NetworkHandler}.
+ */
+public class GameServerTransport implements AutoCloseable {
+    public static final int DEFAULT_MAX_CONNECTIONS = 64;
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration RESPONSE_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration PENDING_ACQUIRE_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration MAX_IDLE_TIME = Duration.ofSeconds(30);
+    private static final Duration MAX_LIFE_TIME = Duration.ofMinutes(5);
+    private static final Duration EVICTION_INTERVAL = Duration.ofSeconds(15);
+
+    private static final ResolvableType GAME_STATE_ENVELOPE = ResolvableType.forType(
+            new ParameterizedTypeReference<ResponseEnvelope<messagesbase.messagesfromserver.GameState>>() {
+            });
+
+    private final String serverBaseUrl;
+    private final Jaxb2XmlDecoder envelopeDecoder = new Jaxb2XmlDecoder();
+    private final ConnectionProvider connectionProvider;
+    private final WebClient webClient;
+
+    public GameServerTransport(String serverBaseUrl) {
+        this(serverBaseUrl, DEFAULT_MAX_CONNECTIONS);
+    }
+
+    /**
+     * @param maxConnections upper bound on open connections; further requests
+     *                       wait for a free connection.
+     */
+    public GameServerTransport(String serverBaseUrl, int maxConnections) {
+        this.serverBaseUrl = serverBaseUrl;
+        // LIFO keeps reusing the most recently released, still warm connection
+        // and lets the rest age out through the idle timeout.
+        this.connectionProvider = ConnectionProvider.builder("game-server")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(-1)
+                .pendingAcquireTimeout(PENDING_ACQUIRE_TIMEOUT)
+                .maxIdleTime(MAX_IDLE_TIME)
+                .maxLifeTime(MAX_LIFE_TIME)
+                .evictInBackground(EVICTION_INTERVAL)
+                .lifo()
+                .build();
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .keepAlive(true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) CONNECT_TIMEOUT.toMillis())
+                .option(ChannelOption.TCP_NODELAY, true)
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(RESPONSE_TIMEOUT);
+
+        this.webClient = WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .baseUrl(serverBaseUrl + "/games")
+                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_XML_VALUE)
+                .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_XML_VALUE)
+                .build();
+    }
+
+    public String getServerBaseUrl() {
+        return serverBaseUrl;
+    }
+
+    public Mono<ResponseEnvelope<UniquePlayerIdentifier>> registerPlayer(String gameId,
+            PlayerRegistration registration) {
+        return webClient.method(HttpMethod.POST).uri("/" + gameId + "/players")
+                .body(BodyInserters.fromValue(registration)).retrieve()
+                .bodyToMono(new ParameterizedTypeReference<ResponseEnvelope<UniquePlayerIdentifier>>() {
+                });
+    }
+
+    public Mono<ResponseEnvelope<messagesbase.messagesfromserver.GameState>> getGameState(String gameId,
+            UniquePlayerIdentifier playerId) {
+        return webClient.method(HttpMethod.GET).uri("/" + gameId + "/states/" + playerId.getUniquePlayerID())
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<ResponseEnvelope<messagesbase.messagesfromserver.GameState>>() {
+                });
+    }
+
+    /**
+     * Fetches the game state only if it changed. If {@code etag} is known it is
+     * sent as If-None-Match, and a 304 answer is reported as unchanged; only
+     * then is the body not transferred. Otherwise the whole body is received
+     * and then read by {@link GameStateXmlDecoder}, which stops parsing as soon
+     * as the state id equals {@code knownStateId}, so an unchanged state saves
+     * parsing and binding but not the download. Bodies the decoder does not
+     * recognise are bound with JAXB instead. Either argument may be null.
+     */
+    public Mono<StateFetch> getGameStateIfChanged(String gameId, UniquePlayerIdentifier playerId, String etag,
+            String knownStateId) {
+        return webClient.method(HttpMethod.GET).uri("/" + gameId + "/states/" + playerId.getUniquePlayerID())
+                .headers(headers -> {
+                    if (etag != null) {
+                        headers.setIfNoneMatch(etag);
+                    }
+                })
+                .exchangeToMono(response -> readStateFetch(response, etag, knownStateId));
+    }
+
+    private Mono<StateFetch> readStateFetch(ClientResponse response, String sentEtag, String knownStateId) {
+        if (response.statusCode().value() == HttpStatus.NOT_MODIFIED.value()) {
+            return response.releaseBody().thenReturn(StateFetch.unchanged(sentEtag));
+        }
+        if (response.statusCode().isError()) {
+            return response.createError();
+        }
+
+        String etag = response.headers().asHttpHeaders().getETag();
+        return DataBufferUtils.join(response.bodyToFlux(DataBuffer.class)).mapNotNull(body -> {
+            int start = body.readPosition();
+            DecodedGameState state = GameStateXmlDecoder.decode(body.asInputStream(), knownStateId);
+            if (state == null) {
+                body.readPosition(start);
+                return StateFetch.changed(DecodedGameState.of(decodeEnvelope(body)), etag);
+            }
+            DataBufferUtils.release(body);
+            return state.isUnchanged() ? StateFetch.unchanged(etag) : StateFetch.changed(state, etag);
+        });
+    }
+
+    /**
+     * Binds a game state envelope with JAXB, the same way
+     * {@link #getGameState} does. Releases {@code body}.
+     */
+    @SuppressWarnings("unchecked")
+    private ResponseEnvelope<messagesbase.messagesfromserver.GameState> decodeEnvelope(DataBuffer body) {
+        return (ResponseEnvelope<messagesbase.messagesfromserver.GameState>) envelopeDecoder.decode(body,
+                GAME_STATE_ENVELOPE, MediaType.APPLICATION_XML, null);
+    }
+
+    public Mono<ResponseEnvelope<Void>> sendHalfMap(String gameId, PlayerHalfMap halfMap) {
+        return webClient.method(HttpMethod.POST).uri("/" + gameId + "/halfmaps")
+                .body(BodyInserters.fromValue(halfMap)).retrieve()
+                .bodyToMono(new ParameterizedTypeReference<ResponseEnvelope<Void>>() {
+                });
+    }
+
+    public Mono<ResponseEnvelope<Void>> sendMove(String gameId, PlayerMove move) {
+        return webClient.method(HttpMethod.POST).uri("/" + gameId + "/moves")
+                .body(BodyInserters.fromValue(move)).retrieve()
+                .bodyToMono(new ParameterizedTypeReference<ResponseEnvelope<Void>>() {
+                });
+    }
+
+    /**
+     * Closes the pooled connections. Sessions using this transport cannot send
+     * requests afterwards.
+     */
+    @Override
+    public void close() {
+        connectionProvider.dispose();
+    }
+
+    /**
+     * Result of {@link #getGameStateIfChanged}: the decoded state, which is
+     * {@link DecodedGameState#UNCHANGED} if nothing changed. Also carries the
+     * server's ETag, if it sent one.
+     */
+    public static final class StateFetch {
+        private static final StateFetch UNCHANGED_WITHOUT_ETAG = new StateFetch(DecodedGameState.UNCHANGED, null);
+
+        private final DecodedGameState state;
+        private final String etag;
+
+        private StateFetch(DecodedGameState state, String etag) {
+            this.state = state;
+            this.etag = etag;
+        }
+
+        static StateFetch unchanged(String etag) {
+            return etag == null ? UNCHANGED_WITHOUT_ETAG : new StateFetch(DecodedGameState.UNCHANGED, etag);
+        }
+
+        static StateFetch changed(DecodedGameState state, String etag) {
+            return state == null ? null : new StateFetch(state, etag);
+        }
+
+        public boolean isUnchanged() {
+            return state.isUnchanged();
+        }
+
+        public DecodedGameState getState() {
+            return state;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package client.main;
+
+import client.model.RandomSource;
+import messagesbase.messagesfromclient.ETerrain;
+import messagesbase.messagesfromclient.PlayerHalfMap;
+import messagesbase.messagesfromclient.PlayerHalfMapNode;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+/**
+ * Half maps generated and validated ahead of time, so the first turn of a game
+ * only draws one instead of running {@link MapGenerator} with its retries.
+ * Missing maps are generated in parallel on the fork/join common pool, each
+ * from its own seed drawn from the pool's random source. The pool refills in
+ * the background once it drops to half its capacity.
+ *
+ * With a file set, the pool is loaded from it before generating anything and
+ * written back after each fill, so a restarted client starts warm. Maps read
+ * from the file are validated again, and invalid lines are skipped.
+ */
+public class HalfMapPool {
+    public static final int DEFAULT_CAPACITY = 16;
+    public static final String FILE_PROPERTY = "client.halfMapPool";
+
+    private static final int WIDTH = 10;
+    private static final int HEIGHT = 5;
+    private static final int FIELDS = WIDTH * HEIGHT;
+    private static final String FILE_HEADER = "# Half maps, one per line, fields ordered by x then y:"
+            + " G grass, M mountain, W water, F fort on grass";
+
+    private final int capacity;
+    private final RandomSource random;
+    private final Path file;
+    private final MapGenerator validator = new MapGenerator(new RandomSource(0));
+    private final ConcurrentLinkedQueue<List<PlayerHalfMapNode>> maps = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean refilling = new AtomicBoolean();
+    private boolean loaded = false;
+
+    /**
+     * @param file where the pool is kept between runs, or null to keep it in
+     *             memory only
+     */
+    public HalfMapPool(int capacity, RandomSource random, Path file) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.random = random;
+        this.file = file;
+    }
+
+    /**
+     * A pool of the given capacity, persisted to the file named by the
+     * {@value #FILE_PROPERTY} system property if it is set.
+     */
+    public static HalfMapPool fromSystemProperty(int capacity) {
+        String configured = System.getProperty(FILE_PROPERTY);
+        Path file = configured != null && !configured.isBlank() ? Path.of(configured.trim()) : null;
+        return new HalfMapPool(capacity, RandomSource.create(), file);
+    }
+
+    public int size() {
+        return maps.size();
+    }
+
+    /**
+     * A half map for this player. Drawn from the pool if it has one, generated
+     * on the spot otherwise.
+     */
+    public PlayerHalfMap take(String playerId) {
+        List<PlayerHalfMapNode> nodes = maps.poll();
+        if (maps.size() <= capacity / 2) {
+            fillInBackground();
+        }
+        if (nodes == null) {
+            nodes = new MapGenerator(nextRandom()).generateHalfMapNodes();
+        }
+        return new PlayerHalfMap(playerId, nodes);
+    }
+
+    /**
+     * Starts {@link #fill()} on a worker thread unless a fill is already
+     * running.
+     */
+    public void fillInBackground() {
+        if (!refilling.compareAndSet(false, true)) {
+            return;
+        }
+        Mono.fromRunnable(this::fill)
+                .subscribeOn(Schedulers.boundedElastic())
+                .doFinally(signal -> refilling.set(false))
+                .subscribe(null, e -> System.err.println("Filling half map pool failed: " + e.getMessage()));
+    }
+
+    /**
+     * Tops the pool up to its capacity, blocking until done: first from the
+     * file, if this is the first fill, then by generating the rest in
+     * parallel. Writes the result back to the file.
+     */
+    public synchronized void fill() {
+        if (!loaded) {
+            loaded = true;
+            load();
+        }
+
+        int missing = capacity - maps.size();
+        if (missing > 0) {
+            RandomSource[] sources = new RandomSource[missing];
+            for (int i = 0; i < missing; i++) {
+                sources[i] = nextRandom();
+            }
+            maps.addAll(IntStream.range(0, missing)
+                    .parallel()
+                    .mapToObj(i -> new MapGenerator(sources[i]).generateHalfMapNodes())
+                    .toList());
+        }
+        save();
+    }
+
+    private synchronized RandomSource nextRandom() {
+        return random.split();
+    }
+
+    private void load() {
+        if (file == null || !Files.isReadable(file)) {
+            return;
+        }
+        try {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                if (maps.size() >= capacity) {
+                    break;
+                }
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                List<PlayerHalfMapNode> nodes = parse(line.trim());
+                if (nodes != null && validator.isValidHalfMap(nodes)) {
+                    maps.add(nodes);
+                } else {
+                    System.err.println("Skipping invalid half map in " + file);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Could not read half map pool " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Replaces the file in one step, so a crash while writing leaves the old
+     * pool in place.
+     */
+    private void save() {
+        if (file == null) {
+            return;
+        }
+        List<String> lines = new ArrayList<>(maps.size() + 1);
+        lines.add(FILE_HEADER);
+        for (List<PlayerHalfMapNode> nodes : maps) {
+            lines.add(format(nodes));
+        }
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            Files.write(temp, lines, StandardCharsets.UTF_8);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Could not write half map pool " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static String format(List<PlayerHalfMapNode> nodes) {
+        char[] fields = new char[FIELDS];
+        for (PlayerHalfMapNode node : nodes) {
+            char field;
+            if (node.isFortPresent()) {
+                field = 'F';
+            } else if (node.getTerrain() == ETerrain.Mountain) {
+                field = 'M';
+            } else if (node.getTerrain() == ETerrain.Water) {
+                field = 'W';
+            } else {
+                field = 'G';
+            }
+            fields[node.getX() * HEIGHT + node.getY()] = field;
+        }
+        return new String(fields);
+    }
+
+    private static List<PlayerHalfMapNode> parse(String line) {
+        if (line.length() != FIELDS) {
+            return null;
+        }
+        List<PlayerHalfMapNode> nodes = new ArrayList<>(FIELDS);
+        for (int i = 0; i < FIELDS; i++) {
+            int x = i / HEIGHT;
+            int y = i % HEIGHT;
+            switch (line.charAt(i)) {
+                case 'G': nodes.add(new PlayerHalfMapNode(x, y, false, ETerrain.Grass)); break;
+                case 'M': nodes.add(new PlayerHalfMapNode(x, y, false, ETerrain.Mountain)); break;
+                case 'W': nodes.add(new PlayerHalfMapNode(x, y, false, ETerrain.Water)); break;
+                case 'F': nodes.add(new PlayerHalfMapNode(x, y, true, ETerrain.Grass)); break;
+                default: return null;
+            }
+        }
+        return nodes;
+    }
+}
@@ -3,15 +3,24 @@ package client.main;
 import messagesbase.UniquePlayerIdentifier;
 import messagesbase.messagesfromclient.PlayerRegistration;
 
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * Main client class for the treasure hunt game.
  */
 public class MainClient {
+    private static final String FIRST_NAME = "Hamza";
+    private static final String LAST_NAME = "Atieh";
+    private static final String U_ACCOUNT = "Atiehh00";
     
     /**
      * Main method to start the client.
      * 
-     * @param args Command line arguments: gameMode, serverBaseUrl, gameId
+     * @param args Command line arguments: gameMode, serverBaseUrl, gameId. In
+     *             "multi" mode the third argument is a comma-separated list of
+     *             game ids, optionally followed by the maximum number of games
+     *             played at once.
      */
     public static void main(String[] args) {
         if (args.length < 3) {
@@ -23,20 +32,29 @@ public class MainClient {
         String serverBaseUrl = args[1];
         String gameId = args[2];
 
+        if (gameMode.equalsIgnoreCase("multi")) {
+            runMultipleGames(serverBaseUrl, args[2], args.length > 3 ? args[3] : null);
+            return;
+        }
+
         System.out.println("Starting client with:");
         System.out.println("GameMode: " + gameMode);
         System.out.println("ServerBaseUrl: " + serverBaseUrl);
         System.out.println("GameId: " + gameId);
         
+        // Generate the half map while registering
+        HalfMapPool halfMapPool = HalfMapPool.fromSystemProperty(1);
+        halfMapPool.fillInBackground();
+        
         // Create network handler
         NetworkHandler networkHandler = new NetworkHandler(serverBaseUrl);
         
         // Register player
         UniquePlayerIdentifier playerId = networkHandler.registerPlayer(
                 gameId, 
-                "Hamza", 
-                "Atieh", 
-                "Atiehh00");
+                FIRST_NAME, 
+                LAST_NAME, 
+                U_ACCOUNT);
         
         if (playerId == null) {
             System.err.println("Failed to register player. Exiting.");
@@ -52,8 +70,33 @@ public class MainClient {
         } else {
             gameController = new GameController(networkHandler, gameId, playerId);
         }
+        gameController.setHalfMapPool(halfMapPool);
         
         // Start the game
         gameController.startGame();
     }
+
+    private static void runMultipleGames(String serverBaseUrl, String gameIdList, String maxConcurrentGamesArg) {
+        List<String> gameIds = Arrays.stream(gameIdList.split(","))
+                .map(String::trim)
+                .filter(id -> !id.isEmpty())
+                .toList();
+        int maxConcurrentGames = MultiGameRunner.DEFAULT_MAX_CONCURRENT_GAMES;
+        if (maxConcurrentGamesArg != null) {
+            try {
+                maxConcurrentGames = Integer.parseInt(maxConcurrentGamesArg.trim());
+            } catch (NumberFormatException e) {
+                System.err.println("Invalid maximum number of concurrent games: " + maxConcurrentGamesArg);
+                return;
+            }
+        }
+
+        System.out.println("Starting " + gameIds.size() + " games against " + serverBaseUrl
+                + " (at most " + maxConcurrentGames + " at once)");
+        try (GameServerTransport transport = new GameServerTransport(serverBaseUrl)) {
+            MultiGameRunner runner = new MultiGameRunner(transport, FIRST_NAME, LAST_NAME, U_ACCOUNT,
+                    maxConcurrentGames);
+            runner.run(gameIds);
+        }
+    }
 }
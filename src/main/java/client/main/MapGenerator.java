@@ -6,8 +6,10 @@ import messagesbase.messagesfromclient.ETerrain;
 
 import java.util.*;
 
+import client.model.RandomSource;
+
 public class MapGenerator {
-  private final Random random = new Random();
+  private final RandomSource random;
   
   private static final int HALF_MAP_WIDTH = 10;
   private static final int HALF_MAP_HEIGHT = 5;
@@ -21,7 +23,23 @@ public class MapGenerator {
   
   private static final boolean DEBUG = false;
 
+  public MapGenerator() {
+      this(RandomSource.create());
+  }
+
+  public MapGenerator(RandomSource random) {
+      this.random = random;
+  }
+
   public PlayerHalfMap generateHalfMap(String playerId) {
+    return new PlayerHalfMap(playerId, generateHalfMapNodes());
+  }
+
+  /**
+   * The fields of a validated half map, not yet tied to a player, so maps can
+   * be generated ahead of time (see {@link HalfMapPool}).
+   */
+  public List<PlayerHalfMapNode> generateHalfMapNodes() {
     int maxAttempts = 10;
     int attempts = 0;
     
@@ -42,13 +60,7 @@ public class MapGenerator {
         placeFort(terrainMap, fortMap);
         
         if (verifyAllFieldsReachable(terrainMap) && validateEdgeWaterCount(terrainMap)) {
-            List<PlayerHalfMapNode> nodes = new ArrayList<>();
-            for (int x = 0; x < HALF_MAP_WIDTH; x++) {
-                for (int y = 0; y < HALF_MAP_HEIGHT; y++) {
-                    nodes.add(new PlayerHalfMapNode(x, y, fortMap[x][y], terrainMap[x][y]));
-                }
-            }
-            return new PlayerHalfMap(playerId, nodes);
+            return toNodes(terrainMap, fortMap);
         }
         
         System.out.println("Map generation attempt " + attempts + " failed validation, retrying...");
@@ -56,7 +68,52 @@ public class MapGenerator {
     
 
     System.out.println("All map generation attempts failed, creating emergency map");
-    return createSafeEmergencyMap(playerId);
+    return createSafeEmergencyMap();
+}
+
+/**
+ * Checks a half map built elsewhere, e.g. read back from disk, against the
+ * same rules generated maps satisfy: every field exactly once, one fort on
+ * grass, the minimum terrain counts, edges that are mostly land and no
+ * unreachable land.
+ */
+public boolean isValidHalfMap(List<PlayerHalfMapNode> nodes) {
+    if (nodes.size() != TOTAL_FIELDS) {
+        return false;
+    }
+    ETerrain[][] terrainMap = new ETerrain[HALF_MAP_WIDTH][HALF_MAP_HEIGHT];
+    int forts = 0;
+    for (PlayerHalfMapNode node : nodes) {
+        int x = node.getX();
+        int y = node.getY();
+        if (x < 0 || x >= HALF_MAP_WIDTH || y < 0 || y >= HALF_MAP_HEIGHT || terrainMap[x][y] != null
+                || node.getTerrain() == null) {
+            return false;
+        }
+        terrainMap[x][y] = node.getTerrain();
+        if (node.isFortPresent()) {
+            if (node.getTerrain() != ETerrain.Grass) {
+                return false;
+            }
+            forts++;
+        }
+    }
+    return forts == 1
+            && countTerrain(terrainMap, ETerrain.Grass) >= MIN_GRASS
+            && countTerrain(terrainMap, ETerrain.Mountain) >= MIN_MOUNTAIN
+            && countTerrain(terrainMap, ETerrain.Water) >= MIN_WATER
+            && validateEdgeWaterCount(terrainMap)
+            && verifyAllFieldsReachable(terrainMap);
+}
+
+private static List<PlayerHalfMapNode> toNodes(ETerrain[][] terrainMap, boolean[][] fortMap) {
+    List<PlayerHalfMapNode> nodes = new ArrayList<>(TOTAL_FIELDS);
+    for (int x = 0; x < HALF_MAP_WIDTH; x++) {
+        for (int y = 0; y < HALF_MAP_HEIGHT; y++) {
+            nodes.add(new PlayerHalfMapNode(x, y, fortMap[x][y], terrainMap[x][y]));
+        }
+    }
+    return nodes;
 }
 
 private boolean validateEdgeWaterCount(ETerrain[][] terrainMap) {
@@ -107,7 +164,7 @@ private boolean validateEdgeWaterCount(ETerrain[][] terrainMap) {
     return true;
 }
 
-private PlayerHalfMap createSafeEmergencyMap(String playerId) {
+private List<PlayerHalfMapNode> createSafeEmergencyMap() {
     ETerrain[][] terrainMap = new ETerrain[HALF_MAP_WIDTH][HALF_MAP_HEIGHT];
     boolean[][] fortMap = new boolean[HALF_MAP_WIDTH][HALF_MAP_HEIGHT];
     
@@ -133,14 +190,7 @@ private PlayerHalfMap createSafeEmergencyMap(String playerId) {
     
     fortMap[1][2] = true;
     
-    List<PlayerHalfMapNode> nodes = new ArrayList<>();
-    for (int x = 0; x < HALF_MAP_WIDTH; x++) {
-        for (int y = 0; y < HALF_MAP_HEIGHT; y++) {
-            nodes.add(new PlayerHalfMapNode(x, y, fortMap[x][y], terrainMap[x][y]));
-        }
-    }
-    
-    return new PlayerHalfMap(playerId, nodes);
+    return toNodes(terrainMap, fortMap);
 }
 
 
@@ -587,7 +637,7 @@ private void fixConnectivity(ETerrain[][] terrainMap) {
 
     Point start = nonWaterFields.get(0);
     boolean[][] visited = new boolean[HALF_MAP_WIDTH][HALF_MAP_HEIGHT];
-    Queue<Point> queue = new LinkedList<>();
+    Queue<Point> queue = new ArrayDeque<>();
     queue.add(start);
     visited[start.x][start.y] = true;
 
@@ -879,52 +929,44 @@ private void ensureEdgeTraversable(ETerrain[][] terrainMap, int startX, int endX
     }
 }
 
+/**
+ * Flood fill over the land fields. Fields are queued as x * height + y in a
+ * fixed array, since each is queued at most once.
+ */
 private boolean verifyAllFieldsReachable(ETerrain[][] terrainMap) {
-    Point start = null;
-    for (int x = 0; x < HALF_MAP_WIDTH; x++) {
-        for (int y = 0; y < HALF_MAP_HEIGHT; y++) {
-            if (terrainMap[x][y] != ETerrain.Water) {
-                start = new Point(x, y);
-                break;
-            }
-        }
-        if (start != null) break;
-    }
-    
-    if (start == null) return false;
-
+    int start = -1;
     int totalNonWaterFields = 0;
     for (int x = 0; x < HALF_MAP_WIDTH; x++) {
         for (int y = 0; y < HALF_MAP_HEIGHT; y++) {
             if (terrainMap[x][y] != ETerrain.Water) {
+                if (start < 0) {
+                    start = x * HALF_MAP_HEIGHT + y;
+                }
                 totalNonWaterFields++;
             }
         }
     }
     
-    boolean[][] visited = new boolean[HALF_MAP_WIDTH][HALF_MAP_HEIGHT];
-    Queue<Point> queue = new LinkedList<>();
-    queue.add(start);
-    visited[start.x][start.y] = true;
-    int reachableFields = 1; 
-    
-    while (!queue.isEmpty()) {
-        Point current = queue.poll();
+    if (start < 0) return false;
+
+    boolean[] visited = new boolean[TOTAL_FIELDS];
+    int[] queue = new int[TOTAL_FIELDS];
+    int head = 0;
+    int tail = 0;
+    queue[tail++] = start;
+    visited[start] = true;
+    
+    while (head < tail) {
+        int current = queue[head++];
+        int x = current / HALF_MAP_HEIGHT;
+        int y = current % HALF_MAP_HEIGHT;
         
-        int[][] directions = {{0, 1}, {1, 0}, {0, -1}, {-1, 0}};
-        for (int[] dir : directions) {
-            int newX = current.x + dir[0];
-            int newY = current.y + dir[1];
-            
-            if (newX >= 0 && newX < HALF_MAP_WIDTH && newY >= 0 && newY < HALF_MAP_HEIGHT) {
-                if (terrainMap[newX][newY] != ETerrain.Water && !visited[newX][newY]) {
-                    visited[newX][newY] = true;
-                    queue.add(new Point(newX, newY));
-                    reachableFields++;
-                }
-            }
-        }
+        if (y + 1 < HALF_MAP_HEIGHT) tail = enqueueLand(terrainMap, visited, queue, tail, x, y + 1);
+        if (x + 1 < HALF_MAP_WIDTH) tail = enqueueLand(terrainMap, visited, queue, tail, x + 1, y);
+        if (y > 0) tail = enqueueLand(terrainMap, visited, queue, tail, x, y - 1);
+        if (x > 0) tail = enqueueLand(terrainMap, visited, queue, tail, x - 1, y);
     }
+    int reachableFields = tail;
     
     boolean allReachable = reachableFields == totalNonWaterFields;
     if (!allReachable) {
@@ -934,6 +976,15 @@ private boolean verifyAllFieldsReachable(ETerrain[][] terrainMap) {
     return allReachable;
 }
 
+private static int enqueueLand(ETerrain[][] terrainMap, boolean[] visited, int[] queue, int tail, int x, int y) {
+    int field = x * HALF_MAP_HEIGHT + y;
+    if (terrainMap[x][y] != ETerrain.Water && !visited[field]) {
+        visited[field] = true;
+        queue[tail++] = field;
+    }
+    return tail;
+}
+
 private static class Point {
     final int x;
     final int y;
@@ -6,10 +6,34 @@ import client.converter.*;
 import messagesbase.messagesfromclient.PlayerMove;
 
 public class MovementStrategyAdapter {
-    private final MovementStrategy movementStrategy;
+    private MovementStrategy movementStrategy;
     
     public MovementStrategyAdapter() {
-        this.movementStrategy = new MovementStrategy();
+        this(RandomSource.create());
+    }
+
+    public MovementStrategyAdapter(RandomSource random) {
+        this.movementStrategy = new MovementStrategy(random);
+    }
+
+    private MovementStrategyAdapter(MovementStrategy movementStrategy) {
+        this.movementStrategy = movementStrategy;
+    }
+
+    /**
+     * Adapter over an independent copy of the strategy, for planning ahead
+     * without touching this one.
+     */
+    public MovementStrategyAdapter fork() {
+        return new MovementStrategyAdapter(new MovementStrategy(movementStrategy));
+    }
+
+    /**
+     * Continues with the strategy state of {@code fork}, discarding this
+     * adapter's own.
+     */
+    public void adopt(MovementStrategyAdapter fork) {
+        this.movementStrategy = fork.movementStrategy;
     }
     
     public Direction calculateNextMove(client.model.GameState gameState, String playerId, Long timeoutMillis) {
@@ -27,7 +51,8 @@ public class MovementStrategyAdapter {
     }
 
     private void logGameState(client.model.GameState gameState, String playerId) {
-        gameState.getMap().getPlayerPosition().ifPresent(node -> {
+        MapEntities entities = gameState.getMap().getEntities();
+        entities.getPlayer().ifPresent(node -> {
             System.out.println("Player position: " + node.getPosition());
         });
         
@@ -35,11 +60,11 @@ public class MovementStrategyAdapter {
             System.out.println("Has collected treasure: " + player.hasCollectedTreasure());
         });
         
-        gameState.getMap().getTreasurePosition().ifPresent(node -> {
+        entities.getTreasure().ifPresent(node -> {
             System.out.println("Treasure position: " + node.getPosition());
         });
         
-        gameState.getMap().getEnemyFortPosition().ifPresent(node -> {
+        entities.getEnemyFort().ifPresent(node -> {
             System.out.println("Enemy fort position: " + node.getPosition());
         });
     }
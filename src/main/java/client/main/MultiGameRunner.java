@@ -0,0 +1,108 @@
+package client.main;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Plays many games from one process. All games share one
+ * {@link GameServerTransport} and so one connection pool, and draw their half
+ * maps from one {@link HalfMapPool}; each gets its own NetworkHandler session,
+ * strategy and random source. A game is a reactive pipeline (see
+ * {@link GameController#play()}) and holds no thread while it waits for the server, so at most
+ * {@code maxConcurrentGames} games run at once without a thread per game.
+ */
+public class MultiGameRunner {
+    public static final int DEFAULT_MAX_CONCURRENT_GAMES = 100;
+    private static final long REPORT_INTERVAL_SECONDS = 10;
+
+    private final GameServerTransport transport;
+    private final String firstName;
+    private final String lastName;
+    private final String uAccount;
+    private final int maxConcurrentGames;
+    private final HalfMapPool halfMapPool;
+    private final List<GameController> activeGames = new CopyOnWriteArrayList<>();
+    private final AtomicInteger gamesCompleted = new AtomicInteger();
+    private final AtomicInteger gamesFailed = new AtomicInteger();
+    private final AtomicLong movesOfCompletedGames = new AtomicLong();
+    private long startNanos;
+
+    public MultiGameRunner(GameServerTransport transport, String firstName, String lastName, String uAccount,
+            int maxConcurrentGames) {
+        if (maxConcurrentGames <= 0) {
+            throw new IllegalArgumentException("maxConcurrentGames must be positive: " + maxConcurrentGames);
+        }
+        this.transport = transport;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.uAccount = uAccount;
+        this.maxConcurrentGames = maxConcurrentGames;
+        this.halfMapPool = HalfMapPool.fromSystemProperty(
+                Math.min(maxConcurrentGames, HalfMapPool.DEFAULT_CAPACITY));
+    }
+
+    /**
+     * Registers one player per entry and plays all games, blocking until every
+     * game has ended. An id listed twice puts two of our players into the same
+     * game.
+     */
+    public void run(List<String> gameIds) {
+        startNanos = System.nanoTime();
+        halfMapPool.fillInBackground();
+        Disposable reporter = Flux.interval(Duration.ofSeconds(REPORT_INTERVAL_SECONDS))
+                .subscribe(tick -> report("progress"));
+        try {
+            Flux.fromIterable(gameIds)
+                    .flatMap(this::playGame, maxConcurrentGames)
+                    .blockLast();
+        } finally {
+            reporter.dispose();
+        }
+        report("finished");
+    }
+
+    private Mono<Void> playGame(String gameId) {
+        NetworkHandler networkHandler = new NetworkHandler(transport);
+        return Mono.fromCallable(() -> networkHandler.registerPlayer(gameId, firstName, lastName, uAccount))
+                .subscribeOn(Schedulers.boundedElastic())
+                .switchIfEmpty(Mono.defer(() -> {
+                    System.err.println("Failed to register player for game " + gameId);
+                    gamesFailed.incrementAndGet();
+                    return Mono.empty();
+                }))
+                .flatMap(playerId -> {
+                    GameController controller = new GameController(networkHandler, gameId, playerId);
+                    controller.setHalfMapPool(halfMapPool);
+                    activeGames.add(controller);
+                    return controller.play().doFinally(signal -> {
+                        activeGames.remove(controller);
+                        movesOfCompletedGames.addAndGet(controller.getMoveCount());
+                        gamesCompleted.incrementAndGet();
+                    });
+                })
+                .onErrorResume(e -> {
+                    System.err.println("Game " + gameId + " failed: " + e.getMessage());
+                    gamesFailed.incrementAndGet();
+                    return Mono.empty();
+                });
+    }
+
+    private void report(String label) {
+        double elapsedSeconds = Math.max(1e-9, (System.nanoTime() - startNanos) / 1e9);
+        long moves = movesOfCompletedGames.get();
+        for (GameController game : activeGames) {
+            moves += game.getMoveCount();
+        }
+        System.out.printf("[%s] games: %d completed, %d failed, %d running | %.1f games/min | %.2f moves/sec%n",
+                label, gamesCompleted.get(), gamesFailed.get(), activeGames.size(),
+                gamesCompleted.get() * 60.0 / elapsedSeconds, moves / elapsedSeconds);
+    }
+}
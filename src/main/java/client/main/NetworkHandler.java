@@ -1,28 +1,18 @@
 package client.main;
 
-import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.MediaType;
-import org.springframework.web.reactive.function.BodyInserters;
-import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.web.reactive.function.client.WebClientResponseException;
-
 import messagesbase.UniquePlayerIdentifier;
 import messagesbase.messagesfromclient.PlayerRegistration;
 import messagesbase.messagesfromclient.PlayerHalfMap;
 import messagesbase.messagesfromclient.PlayerMove;
 import messagesbase.ResponseEnvelope;
-import messagesbase.messagesfromclient.ERequestState;
 // Import our model classes instead
 import client.model.GameState;
-import client.converter.GameStateConverter;
+import client.model.PlayerState;
+import client.converter.DecodedGameState;
+import client.converter.IncrementalGameStateConverter;
 import reactor.core.publisher.Mono;
 
 import java.util.Date;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.function.Supplier;
 import java.util.logging.ConsoleHandler;
 import java.util.logging.Handler;
 import java.util.logging.Level;
@@ -30,19 +20,30 @@ import java.util.logging.LogRecord;
 import java.util.logging.Logger;
 import java.util.logging.SimpleFormatter;
 
+/**
+ * Session for one game: turns server responses into game state and tracks
+ * whether the game has ended. Every response is classified once as a
+ * {@link ServerOutcome}. Only {@link ServerOutcome#TRANSIENT} failures are
+ * retried, as the {@link RetryPolicy} allows, and a {@link CircuitBreaker}
+ * stops a game from polling a server that keeps failing. In
+ * {@link StateFetchMode#CONDITIONAL} mode, states the server reports as
+ * unchanged are not bound or converted again. The HTTP side is a
+ * {@link GameServerTransport}, which many sessions can share.
+ */
 public class NetworkHandler {
-	private final WebClient baseWebClient;
-	private String lastGameStateId = "";
-	private final int maxRetries = 2;
-	private final long initialRetryDelay = 100;
-	private final double retryBackoffFactor = 1.1;
-	private final long maxRetryDelay = 2000;
-	private final int defaultTimeoutMillis = 500;
-	private final Map<String, Integer> errorCounts = new HashMap<>();
+	private final GameServerTransport transport;
+	private final RetryPolicy retryPolicy;
+	private final CircuitBreaker circuitBreaker = new CircuitBreaker();
+	private StateFetchMode stateFetchMode = StateFetchMode.fromSystemProperty();
+	private volatile String stateEtag = null;
+	private volatile String lastGameStateId = "";
 	private final Logger logger = Logger.getLogger(NetworkHandler.class.getName());
-	private boolean gameEnded = false;
+	private volatile boolean gameEnded = false;
+	private final IncrementalGameStateConverter gameStateConverter = new IncrementalGameStateConverter();
 
 	public NetworkHandler(String serverBaseUrl) {
+		this(new GameServerTransport(serverBaseUrl));
+
 		try {
 			Handler consoleHandler = new ConsoleHandler();
 			consoleHandler.setFormatter(new SimpleFormatter() {
@@ -61,187 +62,220 @@ public class NetworkHandler {
 		}
 
 		logger.info("Initializing NetworkHandler with server URL: " + serverBaseUrl);
+	}
 
-		this.baseWebClient = WebClient.builder().baseUrl(serverBaseUrl + "/games")
-				.defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_XML_VALUE)
-				.defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_XML_VALUE).build();
+	public NetworkHandler(GameServerTransport transport) {
+		this(transport, RetryPolicy.DEFAULT);
 	}
 
-	public UniquePlayerIdentifier registerPlayer(String gameId, String firstName, String lastName, String uAccount) {
-		PlayerRegistration playerReg = new PlayerRegistration(firstName, lastName, uAccount);
-		logger.info("Attempting to register player: " + firstName + " " + lastName + " (" + uAccount + ")");
+	public NetworkHandler(GameServerTransport transport, RetryPolicy retryPolicy) {
+		this.transport = transport;
+		this.retryPolicy = retryPolicy;
+	}
 
-		return executeWithRetry("registerPlayer", () -> {
-			Mono<ResponseEnvelope<UniquePlayerIdentifier>> webAccess = baseWebClient.method(HttpMethod.POST)
-					.uri("/" + gameId + "/players").body(BodyInserters.fromValue(playerReg)).retrieve()
-					.bodyToMono(new ParameterizedTypeReference<ResponseEnvelope<UniquePlayerIdentifier>>() {
-					});
+	public GameServerTransport getTransport() {
+		return transport;
+	}
 
-			ResponseEnvelope<UniquePlayerIdentifier> resultReg = webAccess.block();
+	public StateFetchMode getStateFetchMode() {
+		return stateFetchMode;
+	}
 
-			if (resultReg.getState() == ERequestState.Error) {
-				throw new ServerErrorException("Registration error: " + resultReg.getExceptionMessage());
-			}
+	public void setStateFetchMode(StateFetchMode stateFetchMode) {
+		this.stateFetchMode = stateFetchMode;
+	}
 
-			UniquePlayerIdentifier playerId = resultReg.getData().orElse(null);
-			if (playerId != null) {
-				logger.info("Player registered successfully with ID: " + playerId.getUniquePlayerID());
-			} else {
-				logger.warning("Player registration returned null ID");
-			}
+	/**
+	 * Registers the player. Returns null if the server refused the registration
+	 * or could not be reached.
+	 */
+	public UniquePlayerIdentifier registerPlayer(String gameId, String firstName, String lastName, String uAccount) {
+		PlayerRegistration playerReg = new PlayerRegistration(firstName, lastName, uAccount);
+		logger.info("Attempting to register player: " + firstName + " " + lastName + " (" + uAccount + ")");
 
-			return playerId;
-		});
+		UniquePlayerIdentifier playerId = exchange("registerPlayer", transport.registerPlayer(gameId, playerReg))
+				.flatMap(resultReg -> readResult("registerPlayer", resultReg) == ServerOutcome.OK
+						? Mono.justOrEmpty(resultReg.getData())
+						: Mono.empty())
+				.onErrorResume(e -> {
+					giveUp("registerPlayer", e);
+					return Mono.empty();
+				}).block();
+
+		if (playerId != null) {
+			logger.info("Player registered successfully with ID: " + playerId.getUniquePlayerID());
+		} else {
+			logger.warning("Player registration returned no ID");
+		}
+		return playerId;
 	}
-	
+
 	public messagesbase.messagesfromserver.GameState getGameState(String gameId, UniquePlayerIdentifier playerId) {
 		if (gameEnded) {
 			logger.info("Game has already ended. Returning null game state.");
 			return null;
 		}
 
-		return executeWithRetry("getGameState", () -> {
-			Mono<ResponseEnvelope<messagesbase.messagesfromserver.GameState>> webAccess = baseWebClient
-					.method(HttpMethod.GET).uri("/" + gameId + "/states/" + playerId.getUniquePlayerID()).retrieve()
-					.bodyToMono(
-							new ParameterizedTypeReference<ResponseEnvelope<messagesbase.messagesfromserver.GameState>>() {
-							});
-
-			ResponseEnvelope<messagesbase.messagesfromserver.GameState> resultState = webAccess.block();
-
-			if (resultState.getState() == ERequestState.Error) {
-				String errorMsg = resultState.getExceptionMessage();
-				if (errorMsg != null && (errorMsg.contains("game has ended") || errorMsg.contains("won or lost"))) {
-					gameEnded = true;
-					logger.warning("Game has ended: " + errorMsg);
-					return null;
-				}
-				throw new ServerErrorException("Error getting game state: " + errorMsg);
-			}
+		return fetchGameState(gameId, playerId).block();
+	}
+
+	public GameState getGameStateModel(String gameId, UniquePlayerIdentifier playerId) {
+		if (gameEnded) {
+			logger.info("Game has already ended. Returning null game state model.");
+			return null;
+		}
 
-			messagesbase.messagesfromserver.GameState gameState = resultState.getData().orElse(null);
-			if (gameState != null) {
-				String currentGameStateId = gameState.getGameStateId();
-				boolean hasChanged = !currentGameStateId.equals(lastGameStateId);
-				lastGameStateId = currentGameStateId;
+		return fetchGameStateModel(gameId, playerId).block();
+	}
 
-				if (hasChanged) {
-					logger.info("Game state updated (ID: " + currentGameStateId + ")");
-				}
+	/**
+	 * Non-blocking variant of {@link #getGameStateModel}. Completes empty if the
+	 * game has ended or the state could not be fetched.
+	 */
+	public Mono<GameState> fetchGameStateModel(String gameId, UniquePlayerIdentifier playerId) {
+		return Mono.defer(() -> {
+			if (gameEnded) {
+				return Mono.empty();
+			}
+			if (stateFetchMode == StateFetchMode.CONDITIONAL) {
+				return fetchGameStateIfChanged(gameId, playerId);
+			}
+			return fetchGameState(gameId, playerId).map(gameStateConverter::convert);
+		});
+	}
 
-				for (messagesbase.messagesfromserver.PlayerState playerState : gameState.getPlayers()) {
-					if (playerState.getUniquePlayerID().equals(playerId.getUniquePlayerID())) {
-						if (playerState.getState() == messagesbase.messagesfromserver.EPlayerGameState.Won
-								|| playerState.getState() == messagesbase.messagesfromserver.EPlayerGameState.Lost) {
-							gameEnded = true;
-							logger.info("Game has ended. Player has "
-									+ (playerState.getState() == messagesbase.messagesfromserver.EPlayerGameState.Won
-											? "won"
-											: "lost"));
-							break;
-						}
+	/**
+	 * Polls for a new state. An unchanged state is answered with the last
+	 * converted state and no map changes, without binding anything.
+	 */
+	private Mono<GameState> fetchGameStateIfChanged(String gameId, UniquePlayerIdentifier playerId) {
+		String knownStateId = gameStateConverter.getLastGameStateId();
+		String etag = knownStateId != null ? stateEtag : null;
+		return exchange("getGameState", transport.getGameStateIfChanged(gameId, playerId, etag, knownStateId))
+				.mapNotNull(fetch -> {
+					stateEtag = fetch.getEtag();
+					if (fetch.isUnchanged()) {
+						return gameStateConverter.repeatLast();
 					}
-				}
-			} else {
-				logger.warning("Received null game state");
-			}
+					return readDecodedState(fetch.getState(), playerId);
+				})
+				.onErrorResume(e -> {
+					giveUp("getGameState", e);
+					return Mono.empty();
+				});
+	}
 
-			return gameState;
-		});
+	private Mono<messagesbase.messagesfromserver.GameState> fetchGameState(String gameId,
+			UniquePlayerIdentifier playerId) {
+		return exchange("getGameState", transport.getGameState(gameId, playerId))
+				.mapNotNull(resultState -> readGameState(resultState, playerId))
+				.onErrorResume(e -> {
+					giveUp("getGameState", e);
+					return Mono.empty();
+				});
 	}
-	
-	public GameState getGameStateModel(String gameId, UniquePlayerIdentifier playerId) {
-		if (gameEnded) {
-			logger.info("Game has already ended. Returning null game state model.");
+
+	private GameState readDecodedState(DecodedGameState decoded, UniquePlayerIdentifier playerId) {
+		if (readResult("getGameState", ServerOutcome.classify(decoded), decoded.getExceptionMessage()) != ServerOutcome.OK) {
 			return null;
 		}
 
-		messagesbase.messagesfromserver.GameState serverGameState = getGameState(gameId, playerId);
-		if (serverGameState == null) {
+		GameState gameState = gameStateConverter.convert(decoded);
+		if (gameState == null) {
+			logger.warning("Received null game state");
 			return null;
 		}
+		trackGameStateId(gameState.getGameStateId());
 
-		return GameStateConverter.fromServerGameState(serverGameState);
+		PlayerState player = gameState.getMyPlayerState(playerId.getUniquePlayerID()).orElse(null);
+		if (player != null && (player.hasWon() || player.hasLost())) {
+			gameEnded = true;
+			logger.info("Game has ended. Player has " + (player.hasWon() ? "won" : "lost"));
+		}
+		return gameState;
 	}
 
-	public boolean sendHalfMap(String gameId, PlayerHalfMap halfMap) {
-		if (gameEnded) {
-			logger.warning("Game has ended. Not sending half map.");
-			return false;
+	private messagesbase.messagesfromserver.GameState readGameState(
+			ResponseEnvelope<messagesbase.messagesfromserver.GameState> resultState, UniquePlayerIdentifier playerId) {
+		if (readResult("getGameState", resultState) != ServerOutcome.OK) {
+			return null;
 		}
 
-		logger.info("Sending half map for player: " + halfMap.getUniquePlayerID());
-
-		return executeWithRetry("sendHalfMap", () -> {
-			Mono<ResponseEnvelope<Void>> webAccess = baseWebClient.method(HttpMethod.POST)
-					.uri("/" + gameId + "/halfmaps").body(BodyInserters.fromValue(halfMap)).retrieve()
-					.bodyToMono(new ParameterizedTypeReference<ResponseEnvelope<Void>>() {
-					});
-
-			ResponseEnvelope<Void> result = webAccess.block();
+		messagesbase.messagesfromserver.GameState gameState = resultState.getData().orElse(null);
+		if (gameState != null) {
+			trackGameStateId(gameState.getGameStateId());
 
-			if (result.getState() == ERequestState.Error) {
-				String errorMsg = result.getExceptionMessage();
-				if (errorMsg != null && (errorMsg.contains("game has ended") || errorMsg.contains("won or lost"))) {
-					gameEnded = true;
-					logger.warning("Game has ended. Half map not accepted: " + errorMsg);
-					return false;
+			for (messagesbase.messagesfromserver.PlayerState playerState : gameState.getPlayers()) {
+				if (playerState.getUniquePlayerID().equals(playerId.getUniquePlayerID())) {
+					if (playerState.getState() == messagesbase.messagesfromserver.EPlayerGameState.Won
+							|| playerState.getState() == messagesbase.messagesfromserver.EPlayerGameState.Lost) {
+						gameEnded = true;
+						logger.info("Game has ended. Player has "
+								+ (playerState.getState() == messagesbase.messagesfromserver.EPlayerGameState.Won
+										? "won"
+										: "lost"));
+						break;
+					}
 				}
-				throw new ServerErrorException("Error sending half map: " + errorMsg);
 			}
-
-			logger.info("Half map sent successfully");
-			return true;
-		}, false);
-	}
-
-	public boolean sendMove(String gameId, PlayerMove move) {
-		if (gameEnded) {
-			logger.warning("Game has ended. Not sending move: " + move.getMove());
-			return false;
+		} else {
+			logger.warning("Received null game state");
 		}
 
-		logger.info("Sending move: " + move.getMove() + " for player " + move.getUniquePlayerID());
-
-		return executeWithRetry("sendMove", () -> {
-			try {
-				Mono<ResponseEnvelope<Void>> webAccess = baseWebClient.method(HttpMethod.POST)
-						.uri("/" + gameId + "/moves").body(BodyInserters.fromValue(move)).retrieve()
-						.bodyToMono(new ParameterizedTypeReference<ResponseEnvelope<Void>>() {
-						});
+		return gameState;
+	}
 
-				ResponseEnvelope<Void> result = webAccess.block();
+	private void trackGameStateId(String currentGameStateId) {
+		boolean hasChanged = !currentGameStateId.equals(lastGameStateId);
+		lastGameStateId = currentGameStateId;
 
-				if (result.getState() == ERequestState.Error) {
-					String errorMsg = result.getExceptionMessage();
-					if (errorMsg != null && (errorMsg.contains("game has ended") || errorMsg.contains("won or lost"))) {
-						gameEnded = true;
-						logger.warning("Game state error: " + errorMsg);
-						return false;
-					}
+		if (hasChanged) {
+			logger.info("Game state updated (ID: " + currentGameStateId + ")");
+		}
+	}
 
-					if (errorMsg != null && errorMsg.contains("wasn't the client's turn")) {
-						logger.warning("Game state error: " + errorMsg);
-						return false;
-					}
+	public boolean sendHalfMap(String gameId, PlayerHalfMap halfMap) {
+		return sendHalfMapAsync(gameId, halfMap).block() == ServerOutcome.OK;
+	}
 
-					throw new ServerErrorException("Error sending move: " + errorMsg);
-				}
+	/**
+	 * Non-blocking variant of {@link #sendHalfMap}. Emits how the server answered,
+	 * or {@link ServerOutcome#GAME_OVER} without sending if the game has ended.
+	 */
+	public Mono<ServerOutcome> sendHalfMapAsync(String gameId, PlayerHalfMap halfMap) {
+		return Mono.defer(() -> {
+			if (gameEnded) {
+				logger.warning("Game has ended. Not sending half map.");
+				return Mono.just(ServerOutcome.GAME_OVER);
+			}
 
-				logger.info("Move sent successfully!");
-				return true;
-			} catch (WebClientResponseException e) {
-				logger.severe("HTTP error sending move: " + e.getStatusCode() + " - " + e.getMessage());
+			logger.info("Sending half map for player: " + halfMap.getUniquePlayerID());
+			return exchange("sendHalfMap", transport.sendHalfMap(gameId, halfMap))
+					.map(result -> readResult("sendHalfMap", result))
+					.onErrorResume(e -> Mono.just(giveUp("sendHalfMap", e)));
+		});
+	}
 
-				String errorMsg = e.getMessage();
-				if (errorMsg != null && (errorMsg.contains("game has ended") || errorMsg.contains("won or lost"))) {
-					gameEnded = true;
-					logger.warning("Game has ended (from HTTP error): " + errorMsg);
-				}
+	public boolean sendMove(String gameId, PlayerMove move) {
+		return sendMoveAsync(gameId, move).block() == ServerOutcome.OK;
+	}
 
-				return false;
+	/**
+	 * Non-blocking variant of {@link #sendMove}. Emits how the server answered,
+	 * or {@link ServerOutcome#GAME_OVER} without sending if the game has ended.
+	 */
+	public Mono<ServerOutcome> sendMoveAsync(String gameId, PlayerMove move) {
+		return Mono.defer(() -> {
+			if (gameEnded) {
+				logger.warning("Game has ended. Not sending move: " + move.getMove());
+				return Mono.just(ServerOutcome.GAME_OVER);
 			}
-		}, false);
+
+			logger.info("Sending move: " + move.getMove() + " for player " + move.getUniquePlayerID());
+			return exchange("sendMove", transport.sendMove(gameId, move))
+					.map(result -> readResult("sendMove", result))
+					.onErrorResume(e -> Mono.just(giveUp("sendMove", e)));
+		});
 	}
 
 	public boolean isGameEnded() {
@@ -255,84 +289,68 @@ public class NetworkHandler {
 		gameEnded = ended;
 	}
 
-	private <T> T executeWithRetry(String operationName, Supplier<T> operation) {
-		return executeWithRetry(operationName, operation, true);
+	/**
+	 * Sends {@code request} through the circuit breaker and retries transient
+	 * failures as the retry policy allows. Every request, including each retry,
+	 * is sent again on subscription. Failures come out as a
+	 * {@link GameServerException} carrying their outcome.
+	 */
+	private <T> Mono<T> exchange(String operationName, Mono<T> request) {
+		Mono<T> attempts = request
+				.switchIfEmpty(Mono.error(() -> new GameServerException(ServerOutcome.TRANSIENT,
+						"Empty response to " + operationName)))
+				.onErrorMap(e -> !(e instanceof GameServerException),
+						e -> new GameServerException(ServerOutcome.classify(e), e.getMessage(), e))
+				.doOnNext(result -> circuitBreaker.recordSuccess())
+				.doOnError(e -> recordFailure(operationName, (GameServerException) e))
+				.retryWhen(retryPolicy.toRetry(e -> !gameEnded && ((GameServerException) e).getOutcome().isRetryable()));
+
+		return Mono.defer(() -> circuitBreaker.allowRequest() ? attempts
+				: Mono.error(new GameServerException(ServerOutcome.TRANSIENT,
+						"Circuit open, not sending " + operationName)));
 	}
 
-	private <T> T executeWithRetry(String operationName, Supplier<T> operation, boolean returnNullOnFailure) {
-		if (gameEnded && (operationName.equals("sendMove") || operationName.equals("sendHalfMap"))) {
-			logger.warning("Game has ended. Not executing " + operationName);
-			return null;
-		}
-
-		int attempt = 0;
-		long retryDelay = 100;
-
-		while (attempt < maxRetries) {
-			try {
-				T result = operation.get();
-
-				errorCounts.put(operationName, 0);
-
-				return result;
-			} catch (Exception e) {
-				attempt++;
-				String errorMsg = e.getMessage();
-				if (errorMsg != null) {
-					if (errorMsg.contains("game has ended") || errorMsg.contains("won or lost")
-							|| errorMsg.contains("game is over") || errorMsg.contains("game over")
-							|| errorMsg.contains("terminated") || errorMsg.contains("violation")) {
-
-						gameEnded = true;
-						logger.warning("Game has ended based on error message: " + errorMsg);
-						return null;
-					}
-				}
-
-				int errorCount = errorCounts.getOrDefault(operationName, 0) + 1;
-				errorCounts.put(operationName, errorCount);
-
-				logger.severe("Error in " + operationName + " (attempt " + attempt + "/" + maxRetries + "): "
-						+ e.getMessage());
-
-				if (attempt >= maxRetries) {
-					logger.severe("Max retries reached for " + operationName + ". Giving up.");
-
-					if (errorCount >= 2) {
-						logger.warning("Multiple errors detected. Assuming game might be over.");
-						gameEnded = true;
-					}
-
-					if (!returnNullOnFailure) {
-						throw new RuntimeException("Failed to " + operationName + " after " + maxRetries + " attempts",
-								e);
-					}
-					return null;
-				}
+	/**
+	 * Classifies a response the server sent and logs anything but success.
+	 */
+	private ServerOutcome readResult(String operationName, ResponseEnvelope<?> result) {
+		return readResult(operationName, ServerOutcome.classify(result),
+				result != null ? result.getExceptionMessage() : null);
+	}
 
-				try {
-					logger.info("Retrying " + operationName + " in " + retryDelay + "ms");
-					Thread.sleep(retryDelay);
-					retryDelay = Math.min(retryDelay * 2, 500);
-				} catch (InterruptedException ie) {
-					Thread.currentThread().interrupt();
-					logger.severe("Retry interrupted: " + ie.getMessage());
-					if (!returnNullOnFailure) {
-						throw new RuntimeException("Retry interrupted", ie);
-					}
-					return null;
-				}
-			}
+	private ServerOutcome readResult(String operationName, ServerOutcome outcome, String exceptionMessage) {
+		switch (outcome) {
+		case OK:
+			logger.info(operationName + " succeeded");
+			break;
+		case GAME_OVER:
+			gameEnded = true;
+			logger.warning("Game has ended. " + operationName + " not accepted: " + exceptionMessage);
+			break;
+		default:
+			logger.warning(operationName + " refused (" + outcome + "): " + exceptionMessage);
+			break;
 		}
-
-		return null;
+		return outcome;
 	}
 
-	private static class ServerErrorException extends RuntimeException {
-		private static final long serialVersionUID = 1L;
+	private void recordFailure(String operationName, GameServerException e) {
+		if (e.getOutcome() == ServerOutcome.GAME_OVER) {
+			gameEnded = true;
+			logger.warning("Game has ended based on error: " + e.getMessage());
+			return;
+		}
+		if (e.getOutcome() == ServerOutcome.TRANSIENT) {
+			circuitBreaker.recordFailure();
+		}
+		logger.severe("Error in " + operationName + " (" + e.getOutcome() + "): " + e.getMessage());
+	}
 
-		public ServerErrorException(String message) {
-			super(message);
+	private ServerOutcome giveUp(String operationName, Throwable e) {
+		ServerOutcome outcome = ServerOutcome.classify(e);
+		if (outcome != ServerOutcome.GAME_OVER) {
+			logger.severe("Giving up on " + operationName + " (" + outcome + "): " + e.getMessage());
 		}
+		return outcome;
 	}
 }
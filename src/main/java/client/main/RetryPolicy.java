@@ -0,0 +1,81 @@
+package client.main;
+
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+/**
+ * Exponential backoff with jitter for requests that failed transiently. Retry
+ * {@code n} waits {@code initialDelayMillis * backoffFactor^(n-1)}, capped at
+ * {@code maxDelayMillis}, and then moved by up to {@code jitter} of that delay
+ * in either direction. The jitter keeps many games that failed together from
+ * retrying together.
+ */
+public final class RetryPolicy {
+    public static final RetryPolicy DEFAULT = new RetryPolicy(2, 100, 1.1, 2000, 0.2);
+
+    private final int maxAttempts;
+    private final long initialDelayMillis;
+    private final double backoffFactor;
+    private final long maxDelayMillis;
+    private final double jitter;
+
+    /**
+     * @param maxAttempts attempts per request, including the first one
+     * @param jitter      fraction of the delay, between 0 and 1
+     */
+    public RetryPolicy(int maxAttempts, long initialDelayMillis, double backoffFactor, long maxDelayMillis,
+            double jitter) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1: " + maxAttempts);
+        }
+        if (initialDelayMillis < 0 || maxDelayMillis < initialDelayMillis) {
+            throw new IllegalArgumentException(
+                    "Invalid delays: initial " + initialDelayMillis + "ms, max " + maxDelayMillis + "ms");
+        }
+        if (backoffFactor < 1.0) {
+            throw new IllegalArgumentException("backoffFactor must be at least 1: " + backoffFactor);
+        }
+        if (jitter < 0.0 || jitter > 1.0) {
+            throw new IllegalArgumentException("jitter must be between 0 and 1: " + jitter);
+        }
+        this.maxAttempts = maxAttempts;
+        this.initialDelayMillis = initialDelayMillis;
+        this.backoffFactor = backoffFactor;
+        this.maxDelayMillis = maxDelayMillis;
+        this.jitter = jitter;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Delay before retry {@code retry}, counting from 1.
+     */
+    public long delayMillis(int retry) {
+        double delay = Math.min(initialDelayMillis * Math.pow(backoffFactor, retry - 1), maxDelayMillis);
+        if (jitter > 0.0) {
+            delay += delay * jitter * (2.0 * ThreadLocalRandom.current().nextDouble() - 1.0);
+        }
+        return Math.round(delay);
+    }
+
+    /**
+     * This policy as a Reactor {@link Retry}. Failures that {@code retryable}
+     * rejects, and the failure after the last attempt, are passed on unchanged.
+     */
+    public Retry toRetry(Predicate<Throwable> retryable) {
+        return Retry.from(signals -> signals.concatMap(signal -> {
+            int retry = (int) signal.totalRetries() + 1;
+            Throwable failure = signal.failure();
+            if (retry >= maxAttempts || !retryable.test(failure)) {
+                return Mono.error(failure);
+            }
+            return Mono.delay(Duration.ofMillis(delayMillis(retry)));
+        }));
+    }
+}
@@ -0,0 +1,107 @@
+package client.main;
+
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import client.converter.DecodedGameState;
+import messagesbase.ResponseEnvelope;
+import messagesbase.messagesfromclient.ERequestState;
+
+import java.io.IOException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * What a server response means for the game. Each response or failed request
+ * is classified once, and callers switch on the result instead of inspecting
+ * error messages again.
+ */
+public enum ServerOutcome {
+    /** The server accepted the request. */
+    OK,
+    /** The game is over: won, lost or ended by a rule violation. */
+    GAME_OVER,
+    /** The server refused the request because the other player is acting. */
+    NOT_YOUR_TURN,
+    /** The request did not get through, so sending it again may succeed. */
+    TRANSIENT,
+    /** The server refused the request, and sending it again will not help. */
+    FATAL;
+
+    private static final String[] GAME_OVER_MESSAGES = { "game has ended", "won or lost", "game is over", "game over",
+            "terminated", "violation" };
+    private static final String NOT_YOUR_TURN_MESSAGE = "wasn't the client's turn";
+
+    public boolean isRetryable() {
+        return this == TRANSIENT;
+    }
+
+    /**
+     * Classifies a response the server sent. A missing envelope counts as
+     * {@link #TRANSIENT} because nothing was read.
+     */
+    public static ServerOutcome classify(ResponseEnvelope<?> envelope) {
+        if (envelope == null) {
+            return TRANSIENT;
+        }
+        if (envelope.getState() != ERequestState.Error) {
+            return OK;
+        }
+        return classifyRejection(envelope.getExceptionMessage());
+    }
+
+    /**
+     * Classifies a streamed game state response. A missing state counts as
+     * {@link #TRANSIENT} because nothing was read.
+     */
+    public static ServerOutcome classify(DecodedGameState state) {
+        if (state == null) {
+            return TRANSIENT;
+        }
+        return state.isError() ? classifyRejection(state.getExceptionMessage()) : OK;
+    }
+
+    /**
+     * Classifies a failed request. Timeouts, I/O errors and 5xx, 408 and 429
+     * statuses are {@link #TRANSIENT}. Other 4xx statuses are {@link #FATAL},
+     * unless the response body says the game is over.
+     */
+    public static ServerOutcome classify(Throwable error) {
+        if (error instanceof GameServerException serverError) {
+            return serverError.getOutcome();
+        }
+        if (error instanceof WebClientResponseException responseError) {
+            if (indicatesGameOver(responseError.getResponseBodyAsString())) {
+                return GAME_OVER;
+            }
+            int status = responseError.getStatusCode().value();
+            return status >= 500 || status == 408 || status == 429 ? TRANSIENT : FATAL;
+        }
+        if (error instanceof WebClientRequestException || error instanceof TimeoutException
+                || error instanceof IOException) {
+            return TRANSIENT;
+        }
+        return FATAL;
+    }
+
+    private static ServerOutcome classifyRejection(String message) {
+        if (indicatesGameOver(message)) {
+            return GAME_OVER;
+        }
+        if (message != null && message.contains(NOT_YOUR_TURN_MESSAGE)) {
+            return NOT_YOUR_TURN;
+        }
+        return FATAL;
+    }
+
+    private static boolean indicatesGameOver(String message) {
+        if (message == null) {
+            return false;
+        }
+        for (String gameOverMessage : GAME_OVER_MESSAGES) {
+            if (message.contains(gameOverMessage)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,142 @@
+package client.main;
+
+import client.model.*;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Plans our next move while the opponent acts. The plan is made on a fork of
+ * the strategy against a snapshot of the last state, assuming that our position
+ * and everything revealed so far stay the same and only the enemy moves. When
+ * our turn arrives, {@link #take} checks the new state against that
+ * assumption. If it holds, the fork, which has already planned this move,
+ * replaces the live strategy and the move is sent without planning again. If
+ * not, the fork is dropped and the live strategy plans as usual.
+ */
+public class SpeculativePlanner {
+    private final MovementStrategyAdapter movementStrategy;
+    private final String playerId;
+    private final long moveBudgetMillis;
+    private Mono<Speculation> pending = null;
+    private int hits = 0;
+    private int misses = 0;
+
+    public SpeculativePlanner(MovementStrategyAdapter movementStrategy, String playerId, long moveBudgetMillis) {
+        this.movementStrategy = movementStrategy;
+        this.playerId = playerId;
+        this.moveBudgetMillis = moveBudgetMillis;
+    }
+
+    /**
+     * Starts planning in the background for the turn after {@code lastState}.
+     * An earlier plan that was not taken is dropped.
+     */
+    public void start(GameState lastState) {
+        GameState basis = predictNextState(lastState);
+        MovementStrategyAdapter fork = movementStrategy.fork();
+        pending = Mono.fromCallable(() -> {
+                    basis.getMap().getEntities().getEnemy()
+                            .ifPresent(enemy -> fork.trackOpponentPosition(enemy.getPosition(), basis.getMap()));
+                    return new Speculation(basis, fork, fork.calculateNextMove(basis, playerId, moveBudgetMillis));
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(e -> {
+                    System.err.println("Speculative planning failed: " + e.getMessage());
+                    return Mono.empty();
+                })
+                .cache();
+        pending.subscribe();
+    }
+
+    /**
+     * The planned move for {@code actualState}, or empty if nothing was planned
+     * or the state does not match the plan's assumption. A plan that is still
+     * being computed is waited for, so the fork and the live strategy never plan
+     * at the same time.
+     */
+    public Mono<Direction> take(GameState actualState) {
+        Mono<Speculation> speculation = pending;
+        pending = null;
+        if (speculation == null) {
+            return Mono.empty();
+        }
+
+        return speculation.flatMap(plan -> {
+            if (plan.direction == null || !plan.matches(actualState, playerId)) {
+                misses++;
+                System.out.println("Speculative move discarded, state changed (hits " + hits + ", misses " + misses + ")");
+                return Mono.empty();
+            }
+            hits++;
+            movementStrategy.adopt(plan.fork);
+            System.out.println("Using speculative move: " + plan.direction + " (hits " + hits + ", misses " + misses + ")");
+            return Mono.just(plan.direction);
+        });
+    }
+
+    public int getHits() {
+        return hits;
+    }
+
+    public int getMisses() {
+        return misses;
+    }
+
+    /**
+     * {@code lastState} as it would look on our next turn if only the enemy
+     * moved. The map is copied because the polled map is patched in place.
+     */
+    private GameState predictNextState(GameState lastState) {
+        List<PlayerState> players = new ArrayList<>();
+        for (PlayerState player : lastState.getPlayers()) {
+            PlayerGameState state = player.getPlayerId().equals(playerId) ? PlayerGameState.MUST_ACT
+                    : PlayerGameState.MUST_WAIT;
+            players.add(new PlayerState(player.getPlayerId(), state, player.hasCollectedTreasure()));
+        }
+        GameMap map = new GameMap(lastState.getMap().getAllNodes());
+        return new GameState(lastState.getGameStateId(), map, players, EnumSet.noneOf(MapChange.class));
+    }
+
+    private static final class Speculation {
+        final GameState basis;
+        final MovementStrategyAdapter fork;
+        final Direction direction;
+
+        Speculation(GameState basis, MovementStrategyAdapter fork, Direction direction) {
+            this.basis = basis;
+            this.fork = fork;
+            this.direction = direction;
+        }
+
+        boolean matches(GameState actualState, String playerId) {
+            if (actualState.hasMapChange(MapChange.FULL_REFRESH)
+                    || actualState.getMap().getNodeCount() != basis.getMap().getNodeCount()) {
+                return false;
+            }
+
+            boolean hasTreasure = actualState.hasCollectedTreasure(playerId);
+            if (hasTreasure != basis.hasCollectedTreasure(playerId)) {
+                return false;
+            }
+
+            MapEntities expected = basis.getMap().getEntities();
+            MapEntities actual = actualState.getMap().getEntities();
+            if (!Objects.equals(expected.getPlayerPosition(), actual.getPlayerPosition())
+                    || !Objects.equals(expected.getTreasurePosition(), actual.getTreasurePosition())
+                    || !Objects.equals(expected.getMyFortPosition(), actual.getMyFortPosition())
+                    || !Objects.equals(expected.getEnemyFortPosition(), actual.getEnemyFortPosition())) {
+                return false;
+            }
+
+            // The enemy position only feeds the fort prediction, which is used
+            // once we carry the treasure and the enemy fort is still hidden.
+            return Objects.equals(expected.getEnemyPosition(), actual.getEnemyPosition()) || !hasTreasure
+                    || actual.getEnemyFort().isPresent();
+        }
+    }
+}
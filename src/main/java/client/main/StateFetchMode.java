@@ -0,0 +1,35 @@
+package client.main;
+
+/**
+ * How a session polls the game state.
+ */
+public enum StateFetchMode {
+    /** Download and bind every state. The default. */
+    FULL,
+    /**
+     * Skip binding unchanged states. Opt-in until the streaming decoder has
+     * been checked against responses from the course server. Uses
+     * If-None-Match when the server sends ETags, which also saves the
+     * download. Without ETags the full body is still received, and only
+     * parsing stops once the state id is known to be unchanged.
+     */
+    CONDITIONAL;
+
+    public static final String PROPERTY = "client.stateFetch";
+
+    /**
+     * The mode named by the {@value #PROPERTY} system property, or
+     * {@link #FULL} if it is not set.
+     */
+    public static StateFetchMode fromSystemProperty() {
+        String configured = System.getProperty(PROPERTY);
+        if (configured != null && !configured.isBlank()) {
+            try {
+                return valueOf(configured.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                System.err.println("Ignoring invalid " + PROPERTY + ": " + configured);
+            }
+        }
+        return FULL;
+    }
+}
@@ -1,10 +1,27 @@
 package client.model;
 
 public enum Direction {
-    UP,
-    DOWN,
-    LEFT,
-    RIGHT;
+    UP(0, -1),
+    DOWN(0, 1),
+    LEFT(-1, 0),
+    RIGHT(1, 0);
+
+    private final int dx;
+    private final int dy;
+
+    Direction(int dx, int dy) {
+        this.dx = dx;
+        this.dy = dy;
+    }
+
+    public int getDx() {
+        return dx;
+    }
+
+    public int getDy() {
+        return dy;
+    }
+
     public Direction getOpposite() {
         switch (this) {
             case UP: return DOWN;
@@ -16,13 +33,7 @@ public enum Direction {
     }
     
     public Point move(Point from) {
-        switch (this) {
-            case UP: return new Point(from.x, from.y - 1);
-            case DOWN: return new Point(from.x, from.y + 1);
-            case LEFT: return new Point(from.x - 1, from.y);
-            case RIGHT: return new Point(from.x + 1, from.y);
-            default: return from; 
-        }
+        return Point.of(from.x + dx, from.y + dy);
     }
 
     public Direction turnClockwise() {
@@ -1,54 +1,118 @@
 package client.model;
 
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
 import java.util.ArrayList;
-import java.util.Map;
 import java.util.Optional;
 
+/**
+ * Grid-backed map. Cell state is kept in flat arrays indexed by
+ * {@code y * width + x}; the int-index accessors avoid Point allocation and
+ * Optional wrapping on hot paths such as pathfinding. Cells holding the
+ * players, the treasure and the forts are indexed as nodes are added, so
+ * entity lookups do not scan the grid.
+ */
 public class GameMap {
-    private final Map<Point, MapNode> nodes;
+    public static final int NO_CELL = -1;
+
+    private static final byte NO_VALUE = -1;
+    private static final Terrain[] TERRAINS = Terrain.values();
+    private static final FortState[] FORT_STATES = FortState.values();
+    private static final TreasureState[] TREASURE_STATES = TreasureState.values();
+    private static final PlayerPositionState[] PLAYER_STATES = PlayerPositionState.values();
+
+    private MapNode[] cells;
+    private byte[] terrain;
+    private byte[] fortState;
+    private byte[] treasureState;
+    private byte[] playerState;
+    private int width;
+    private int height;
     private int maxX = 0;
     private int maxY = 0;
-    
+    private int nodeCount = 0;
+    private int playerCell = NO_CELL;
+    private int enemyCell = NO_CELL;
+    private int treasureCell = NO_CELL;
+    private int myFortCell = NO_CELL;
+    private int enemyFortCell = NO_CELL;
+    private MapEntities entities = null;
+
     public GameMap() {
-        this.nodes = new HashMap<>();
+        allocate(1, 1);
     }
-    
+
+    /**
+     * Empty map sized for {@code width} x {@code height} cells, so adding nodes
+     * inside that extent never resizes.
+     */
+    public GameMap(int width, int height) {
+        allocate(Math.max(width, 1), Math.max(height, 1));
+    }
+
     public GameMap(List<MapNode> nodes) {
-        this.nodes = new HashMap<>();
+        int extentX = 0;
+        int extentY = 0;
+        for (MapNode node : nodes) {
+            extentX = Math.max(extentX, node.getPosition().x);
+            extentY = Math.max(extentY, node.getPosition().y);
+        }
+        allocate(extentX + 1, extentY + 1);
         for (MapNode node : nodes) {
             addNode(node);
         }
     }
-    
+
     public void addNode(MapNode node) {
         Point pos = node.getPosition();
-        nodes.put(pos, node);
+        if (pos.x < 0 || pos.y < 0) {
+            throw new IllegalArgumentException("Map position must not be negative: " + pos);
+        }
+        if (pos.x >= width || pos.y >= height) {
+            resize(Math.max(width, pos.x + 1), Math.max(height, pos.y + 1));
+            reindexEntities();
+        }
+
+        int index = pos.y * width + pos.x;
+        if (cells[index] == null) {
+            nodeCount++;
+        }
+        cells[index] = node;
+        terrain[index] = ordinalOf(node.getTerrain());
+        fortState[index] = ordinalOf(node.getFortState());
+        treasureState[index] = ordinalOf(node.getTreasureState());
+        playerState[index] = ordinalOf(node.getPlayerPositionState());
         maxX = Math.max(maxX, pos.x);
         maxY = Math.max(maxY, pos.y);
+        updateEntityIndex(index, node);
     }
-    
+
     public Optional<MapNode> getNode(Point position) {
-        return Optional.ofNullable(nodes.get(position));
+        return Optional.ofNullable(getNodeAt(indexOf(position.x, position.y)));
     }
-    
+
     public Optional<MapNode> getNode(int x, int y) {
-        return getNode(new Point(x, y));
+        return Optional.ofNullable(getNodeAt(indexOf(x, y)));
     }
-    
+
     public List<MapNode> getAllNodes() {
-        return new ArrayList<>(nodes.values());
+        List<MapNode> nodes = new ArrayList<>(nodeCount);
+        for (MapNode node : cells) {
+            if (node != null) {
+                nodes.add(node);
+            }
+        }
+        return nodes;
     }
-    
+
     public int getMaxX() {
         return maxX;
     }
-    
+
     public int getMaxY() {
         return maxY;
     }
-    
+
     public int getMapWidth() {
         return maxX + 1;
     }
@@ -56,73 +120,249 @@ public class GameMap {
     public int getMapHeight() {
         return maxY + 1;
     }
-    
-    public Optional<MapNode> getPlayerPosition() {
-        for (MapNode node : nodes.values()) {
-            if (node.hasMyPlayer()) {
-                return Optional.of(node);
-            }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public int getCellCount() {
+        return width * height;
+    }
+
+    /**
+     * Row length of the cell index, which can exceed {@link #getMapWidth()}
+     * while the grid is larger than the nodes added so far.
+     */
+    public int getGridWidth() {
+        return width;
+    }
+
+    public int indexOf(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return NO_CELL;
         }
-        return Optional.empty();
+        return y * width + x;
     }
-    
-    public Optional<MapNode> getEnemyPosition() {
-        for (MapNode node : nodes.values()) {
-            if (node.hasEnemyPlayer()) {
-                return Optional.of(node);
-            }
+
+    public int indexOf(Point position) {
+        return indexOf(position.x, position.y);
+    }
+
+    public int getCellX(int index) {
+        return index % width;
+    }
+
+    public int getCellY(int index) {
+        return index / width;
+    }
+
+    public Point getCellPosition(int index) {
+        return Point.of(index % width, index / width);
+    }
+
+    /**
+     * Index of the cell next to {@code index} in the given direction, or
+     * {@link #NO_CELL} if that step leaves the grid.
+     */
+    public int neighborIndex(int index, Direction direction) {
+        int x = index % width;
+        int y = index / width;
+        switch (direction) {
+            case UP: return y > 0 ? index - width : NO_CELL;
+            case DOWN: return y < height - 1 ? index + width : NO_CELL;
+            case LEFT: return x > 0 ? index - 1 : NO_CELL;
+            case RIGHT: return x < width - 1 ? index + 1 : NO_CELL;
+            default: return NO_CELL;
         }
-        return Optional.empty();
     }
-    
-    public Optional<MapNode> getTreasurePosition() {
-        for (MapNode node : nodes.values()) {
-            if (node.hasTreasure()) {
-                return Optional.of(node);
-            }
+
+    public boolean hasNode(int index) {
+        return index >= 0 && index < cells.length && cells[index] != null;
+    }
+
+    public MapNode getNodeAt(int index) {
+        if (index < 0 || index >= cells.length) {
+            return null;
         }
-        return Optional.empty();
+        return cells[index];
     }
-    
-    public Optional<MapNode> getMyFortPosition() {
-        for (MapNode node : nodes.values()) {
-            if (node.hasMyFort()) {
-                return Optional.of(node);
-            }
+
+    public Terrain getTerrainAt(int index) {
+        if (!hasNode(index) || terrain[index] == NO_VALUE) {
+            return null;
         }
-        return Optional.empty();
+        return TERRAINS[terrain[index]];
+    }
+
+    public boolean isTraversable(int index) {
+        return hasNode(index) && terrain[index] != NO_VALUE && terrain[index] != Terrain.WATER.ordinal();
     }
-    
+
+    public FortState getFortStateAt(int index) {
+        return hasNode(index) && fortState[index] != NO_VALUE ? FORT_STATES[fortState[index]] : FortState.NO_FORT;
+    }
+
+    public TreasureState getTreasureStateAt(int index) {
+        return hasNode(index) && treasureState[index] != NO_VALUE ? TREASURE_STATES[treasureState[index]]
+                : TreasureState.NO_TREASURE;
+    }
+
+    public PlayerPositionState getPlayerPositionStateAt(int index) {
+        return hasNode(index) && playerState[index] != NO_VALUE ? PLAYER_STATES[playerState[index]]
+                : PlayerPositionState.NO_PLAYER;
+    }
+
+    public Optional<MapNode> getPlayerPosition() {
+        return Optional.ofNullable(getNodeAt(playerCell));
+    }
+
+    public Optional<MapNode> getEnemyPosition() {
+        return Optional.ofNullable(getNodeAt(enemyCell));
+    }
+
+    public Optional<MapNode> getTreasurePosition() {
+        return Optional.ofNullable(getNodeAt(treasureCell));
+    }
+
+    public Optional<MapNode> getMyFortPosition() {
+        return Optional.ofNullable(getNodeAt(myFortCell));
+    }
+
     public Optional<MapNode> getEnemyFortPosition() {
-        for (MapNode node : nodes.values()) {
-            if (node.hasEnemyFort()) {
-                return Optional.of(node);
-            }
+        return Optional.ofNullable(getNodeAt(enemyFortCell));
+    }
+
+    /**
+     * Snapshot of all entity positions. The same instance is returned until
+     * the map is modified.
+     */
+    public MapEntities getEntities() {
+        if (entities == null) {
+            entities = new MapEntities(getNodeAt(playerCell), getNodeAt(enemyCell), getNodeAt(treasureCell),
+                    getNodeAt(myFortCell), getNodeAt(enemyFortCell));
         }
-        return Optional.empty();
+        return entities;
     }
-    
+
     public List<MapNode> getNeighbors(Point position) {
         List<MapNode> neighbors = new ArrayList<>();
-        
+        int index = indexOf(position);
+        if (index == NO_CELL) {
+            return neighbors;
+        }
+
         for (Direction dir : Direction.values()) {
-            Point neighborPos = dir.move(position);
-            getNode(neighborPos).ifPresent(neighbors::add);
+            MapNode neighbor = getNodeAt(neighborIndex(index, dir));
+            if (neighbor != null) {
+                neighbors.add(neighbor);
+            }
         }
-        
+
         return neighbors;
     }
-    
+
     public List<MapNode> getTraversableNeighbors(Point position) {
         List<MapNode> neighbors = new ArrayList<>();
-        
+        int index = indexOf(position);
+        if (index == NO_CELL) {
+            return neighbors;
+        }
+
         for (Direction dir : Direction.values()) {
-            Point neighborPos = dir.move(position);
-            getNode(neighborPos)
-                .filter(MapNode::isTraversable)
-                .ifPresent(neighbors::add);
+            int neighborIndex = neighborIndex(index, dir);
+            if (isTraversable(neighborIndex)) {
+                neighbors.add(cells[neighborIndex]);
+            }
         }
-        
+
         return neighbors;
     }
+
+    private void updateEntityIndex(int index, MapNode node) {
+        entities = null;
+        playerCell = updateEntityCell(playerCell, index, node.hasMyPlayer(), EntityKind.PLAYER);
+        enemyCell = updateEntityCell(enemyCell, index, node.hasEnemyPlayer(), EntityKind.ENEMY);
+        treasureCell = updateEntityCell(treasureCell, index, node.hasTreasure(), EntityKind.TREASURE);
+        myFortCell = updateEntityCell(myFortCell, index, node.hasMyFort(), EntityKind.MY_FORT);
+        enemyFortCell = updateEntityCell(enemyFortCell, index, node.hasEnemyFort(), EntityKind.ENEMY_FORT);
+    }
+
+    /**
+     * Keeps the lowest (row-major first) cell holding the entity, matching
+     * what a full scan would find.
+     */
+    private int updateEntityCell(int current, int index, boolean present, EntityKind kind) {
+        if (present) {
+            return current == NO_CELL || index < current ? index : current;
+        }
+        return current == index ? findEntityCell(kind) : current;
+    }
+
+    private void reindexEntities() {
+        entities = null;
+        playerCell = findEntityCell(EntityKind.PLAYER);
+        enemyCell = findEntityCell(EntityKind.ENEMY);
+        treasureCell = findEntityCell(EntityKind.TREASURE);
+        myFortCell = findEntityCell(EntityKind.MY_FORT);
+        enemyFortCell = findEntityCell(EntityKind.ENEMY_FORT);
+    }
+
+    private int findEntityCell(EntityKind kind) {
+        for (int index = 0; index < cells.length; index++) {
+            if (cells[index] != null && kind.isAt(cells[index])) {
+                return index;
+            }
+        }
+        return NO_CELL;
+    }
+
+    private enum EntityKind {
+        PLAYER, ENEMY, TREASURE, MY_FORT, ENEMY_FORT;
+
+        boolean isAt(MapNode node) {
+            switch (this) {
+                case PLAYER: return node.hasMyPlayer();
+                case ENEMY: return node.hasEnemyPlayer();
+                case TREASURE: return node.hasTreasure();
+                case MY_FORT: return node.hasMyFort();
+                case ENEMY_FORT: return node.hasEnemyFort();
+                default: return false;
+            }
+        }
+    }
+
+    private static byte ordinalOf(Enum<?> value) {
+        return value == null ? NO_VALUE : (byte) value.ordinal();
+    }
+
+    private void allocate(int newWidth, int newHeight) {
+        int size = newWidth * newHeight;
+        width = newWidth;
+        height = newHeight;
+        cells = new MapNode[size];
+        terrain = new byte[size];
+        fortState = new byte[size];
+        treasureState = new byte[size];
+        playerState = new byte[size];
+        Arrays.fill(terrain, NO_VALUE);
+    }
+
+    private void resize(int newWidth, int newHeight) {
+        MapNode[] oldCells = cells;
+        byte[] oldTerrain = terrain;
+        byte[] oldFortState = fortState;
+        byte[] oldTreasureState = treasureState;
+        byte[] oldPlayerState = playerState;
+        int oldWidth = width;
+
+        allocate(newWidth, newHeight);
+        for (int oldIndex = 0; oldIndex < oldCells.length; oldIndex++) {
+            int index = (oldIndex / oldWidth) * newWidth + (oldIndex % oldWidth);
+            cells[index] = oldCells[oldIndex];
+            terrain[index] = oldTerrain[oldIndex];
+            fortState[index] = oldFortState[oldIndex];
+            treasureState[index] = oldTreasureState[oldIndex];
+            playerState[index] = oldPlayerState[oldIndex];
+        }
+    }
 }
@@ -1,17 +1,25 @@
 package client.model;
 
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public class GameState {
     private final String gameStateId;
     private final GameMap map;
     private final List<PlayerState> players;
+    private final Set<MapChange> mapChanges;
     
     public GameState(String gameStateId, GameMap map, List<PlayerState> players) {
+        this(gameStateId, map, players, EnumSet.of(MapChange.FULL_REFRESH));
+    }
+    
+    public GameState(String gameStateId, GameMap map, List<PlayerState> players, Set<MapChange> mapChanges) {
         this.gameStateId = gameStateId;
         this.map = map;
         this.players = players;
+        this.mapChanges = mapChanges;
     }
     
     public String getGameStateId() {
@@ -26,6 +34,18 @@ public class GameState {
         return players;
     }
     
+    /**
+     * Map changes since the previously converted state. A state that was not
+     * derived from a previous one reports {@link MapChange#FULL_REFRESH}.
+     */
+    public Set<MapChange> getMapChanges() {
+        return mapChanges;
+    }
+    
+    public boolean hasMapChange(MapChange change) {
+        return mapChanges.contains(change);
+    }
+    
     public Optional<PlayerState> getMyPlayerState(String playerId) {
         return players.stream()
             .filter(p -> p.getPlayerId().equals(playerId))
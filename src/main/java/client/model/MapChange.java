@@ -0,0 +1,11 @@
+package client.model;
+
+public enum MapChange {
+    FULL_REFRESH,
+    PLAYER_MOVED,
+    ENEMY_MOVED,
+    TREASURE_REVEALED,
+    TREASURE_COLLECTED,
+    ENEMY_FORT_REVEALED,
+    FORT_CHANGED;
+}
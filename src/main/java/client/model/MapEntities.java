@@ -0,0 +1,59 @@
+package client.model;
+
+import java.util.Optional;
+
+public class MapEntities {
+    private final MapNode player;
+    private final MapNode enemy;
+    private final MapNode treasure;
+    private final MapNode myFort;
+    private final MapNode enemyFort;
+
+    public MapEntities(MapNode player, MapNode enemy, MapNode treasure, MapNode myFort, MapNode enemyFort) {
+        this.player = player;
+        this.enemy = enemy;
+        this.treasure = treasure;
+        this.myFort = myFort;
+        this.enemyFort = enemyFort;
+    }
+
+    public Optional<MapNode> getPlayer() {
+        return Optional.ofNullable(player);
+    }
+
+    public Optional<MapNode> getEnemy() {
+        return Optional.ofNullable(enemy);
+    }
+
+    public Optional<MapNode> getTreasure() {
+        return Optional.ofNullable(treasure);
+    }
+
+    public Optional<MapNode> getMyFort() {
+        return Optional.ofNullable(myFort);
+    }
+
+    public Optional<MapNode> getEnemyFort() {
+        return Optional.ofNullable(enemyFort);
+    }
+
+    public Point getPlayerPosition() {
+        return player != null ? player.getPosition() : null;
+    }
+
+    public Point getEnemyPosition() {
+        return enemy != null ? enemy.getPosition() : null;
+    }
+
+    public Point getTreasurePosition() {
+        return treasure != null ? treasure.getPosition() : null;
+    }
+
+    public Point getMyFortPosition() {
+        return myFort != null ? myFort.getPosition() : null;
+    }
+
+    public Point getEnemyFortPosition() {
+        return enemyFort != null ? enemyFort.getPosition() : null;
+    }
+}
@@ -1,8 +1,19 @@
 package client.model;
 
-import java.util.Objects;
-
 public class Point {
+    private static final int CACHE_MIN = -4;
+    private static final int CACHE_MAX = 27;
+    private static final int CACHE_SIZE = CACHE_MAX - CACHE_MIN + 1;
+    private static final Point[] CACHE = new Point[CACHE_SIZE * CACHE_SIZE];
+
+    static {
+        for (int y = CACHE_MIN; y <= CACHE_MAX; y++) {
+            for (int x = CACHE_MIN; x <= CACHE_MAX; x++) {
+                CACHE[(y - CACHE_MIN) * CACHE_SIZE + (x - CACHE_MIN)] = new Point(x, y);
+            }
+        }
+    }
+
     public final int x;
     public final int y;
     
@@ -11,6 +22,18 @@ public class Point {
         this.y = y;
     }
     
+    /**
+     * Canonical instance for coordinates within the cached range (which
+     * covers every map size plus a border of off-map neighbours); other
+     * coordinates get a fresh Point.
+     */
+    public static Point of(int x, int y) {
+        if (x >= CACHE_MIN && x <= CACHE_MAX && y >= CACHE_MIN && y <= CACHE_MAX) {
+            return CACHE[(y - CACHE_MIN) * CACHE_SIZE + (x - CACHE_MIN)];
+        }
+        return new Point(x, y);
+    }
+    
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -21,7 +44,7 @@ public class Point {
     
     @Override
     public int hashCode() {
-        return Objects.hash(x, y);
+        return 31 * (31 + x) + y;
     }
     
     @Override
@@ -0,0 +1,188 @@
+package client.model;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Set of map positions as a bitset, one bit per field at
+ * {@code y * MAX_WIDTH + x}. The index depends only on the coordinates, so a
+ * position can be recorded before the map is known. Course maps are at most
+ * {@value #MAX_WIDTH} fields wide and {@value #MAX_HEIGHT} high, which fits in
+ * four longs, and union, difference and neighbour expansion are a few word
+ * operations. Positions outside that range are never members.
+ */
+public final class PositionSet {
+    public static final int MAX_WIDTH = 20;
+    public static final int MAX_HEIGHT = 10;
+
+    private static final int BITS = MAX_WIDTH * MAX_HEIGHT;
+    private static final int WORDS = (BITS + 63) / 64;
+    private static final long[] VALID = new long[WORDS];
+    private static final long[] FIRST_COLUMN = new long[WORDS];
+    private static final long[] LAST_COLUMN = new long[WORDS];
+
+    static {
+        for (int bit = 0; bit < BITS; bit++) {
+            VALID[bit >>> 6] |= 1L << bit;
+            if (bit % MAX_WIDTH == 0) {
+                FIRST_COLUMN[bit >>> 6] |= 1L << bit;
+            } else if (bit % MAX_WIDTH == MAX_WIDTH - 1) {
+                LAST_COLUMN[bit >>> 6] |= 1L << bit;
+            }
+        }
+    }
+
+    private final long[] words = new long[WORDS];
+
+    public PositionSet() {
+    }
+
+    public PositionSet(PositionSet other) {
+        System.arraycopy(other.words, 0, words, 0, WORDS);
+    }
+
+    /**
+     * All positions within {@code zone}, clipped to the supported range.
+     */
+    public static PositionSet of(ZoneDimension zone) {
+        PositionSet set = new PositionSet();
+        for (int y = Math.max(0, zone.getYMin()); y <= Math.min(MAX_HEIGHT - 1, zone.getYMax()); y++) {
+            for (int x = Math.max(0, zone.getXMin()); x <= Math.min(MAX_WIDTH - 1, zone.getXMax()); x++) {
+                set.add(x, y);
+            }
+        }
+        return set;
+    }
+
+    public static boolean inRange(int x, int y) {
+        return x >= 0 && y >= 0 && x < MAX_WIDTH && y < MAX_HEIGHT;
+    }
+
+    public boolean contains(Point position) {
+        return contains(position.x, position.y);
+    }
+
+    public boolean contains(int x, int y) {
+        if (!inRange(x, y)) {
+            return false;
+        }
+        int bit = y * MAX_WIDTH + x;
+        return (words[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    /**
+     * @return whether the set changed; false for positions out of range
+     */
+    public boolean add(Point position) {
+        return add(position.x, position.y);
+    }
+
+    public boolean add(int x, int y) {
+        if (!inRange(x, y)) {
+            return false;
+        }
+        int bit = y * MAX_WIDTH + x;
+        long before = words[bit >>> 6];
+        words[bit >>> 6] = before | (1L << bit);
+        return words[bit >>> 6] != before;
+    }
+
+    public boolean remove(Point position) {
+        if (!inRange(position.x, position.y)) {
+            return false;
+        }
+        int bit = position.y * MAX_WIDTH + position.x;
+        long before = words[bit >>> 6];
+        words[bit >>> 6] = before & ~(1L << bit);
+        return words[bit >>> 6] != before;
+    }
+
+    public void clear() {
+        Arrays.fill(words, 0);
+    }
+
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int size() {
+        int size = 0;
+        for (long word : words) {
+            size += Long.bitCount(word);
+        }
+        return size;
+    }
+
+    public void addAll(PositionSet other) {
+        for (int i = 0; i < WORDS; i++) {
+            words[i] |= other.words[i];
+        }
+    }
+
+    public void retainAll(PositionSet other) {
+        for (int i = 0; i < WORDS; i++) {
+            words[i] &= other.words[i];
+        }
+    }
+
+    public void removeAll(PositionSet other) {
+        for (int i = 0; i < WORDS; i++) {
+            words[i] &= ~other.words[i];
+        }
+    }
+
+    /**
+     * Positions one step up, down, left or right of a member that are not
+     * members themselves. Steps off the supported range are dropped; steps
+     * off a smaller map are not, so intersect with a mask of the map.
+     */
+    public PositionSet neighbours() {
+        PositionSet result = new PositionSet();
+        long[] out = result.words;
+        for (int i = 0; i < WORDS; i++) {
+            long word = words[i];
+            long below = i > 0 ? words[i - 1] : 0;
+            long above = i + 1 < WORDS ? words[i + 1] : 0;
+            long right = (word << 1 | below >>> 63) & ~FIRST_COLUMN[i];
+            long left = (word >>> 1 | above << 63) & ~LAST_COLUMN[i];
+            long down = word << MAX_WIDTH | below >>> (64 - MAX_WIDTH);
+            long up = word >>> MAX_WIDTH | above << (64 - MAX_WIDTH);
+            out[i] = (right | left | down | up) & VALID[i] & ~word;
+        }
+        return result;
+    }
+
+    public Set<Point> toSet() {
+        Set<Point> points = new HashSet<>(size() * 2);
+        for (int i = 0; i < WORDS; i++) {
+            long word = words[i];
+            while (word != 0) {
+                int bit = (i << 6) + Long.numberOfTrailingZeros(word);
+                points.add(Point.of(bit % MAX_WIDTH, bit / MAX_WIDTH));
+                word &= word - 1;
+            }
+        }
+        return points;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof PositionSet other && Arrays.equals(words, other.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(words);
+    }
+
+    @Override
+    public String toString() {
+        return toSet().toString();
+    }
+}
@@ -0,0 +1,119 @@
+package client.model;
+
+import java.util.List;
+
+/**
+ * Per-game source of randomness. Uses the SplitMix64 generator (the
+ * algorithm behind {@link java.util.SplittableRandom}) but keeps its whole
+ * state in a single long, so a game can be replayed from its seed and the
+ * state can be saved and restored. Not thread-safe; give each component its
+ * own instance via {@link #split()}.
+ */
+public class RandomSource {
+    public static final String SEED_PROPERTY = "client.seed";
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+    private final long seed;
+    private long state;
+
+    public RandomSource(long seed) {
+        this.seed = seed;
+        this.state = seed;
+    }
+
+    /**
+     * Source seeded from the {@value #SEED_PROPERTY} system property, or from
+     * the clock if it is not set.
+     */
+    public static RandomSource create() {
+        String configuredSeed = System.getProperty(SEED_PROPERTY);
+        if (configuredSeed != null && !configuredSeed.isBlank()) {
+            try {
+                return new RandomSource(Long.parseLong(configuredSeed.trim()));
+            } catch (NumberFormatException e) {
+                System.err.println("Ignoring invalid " + SEED_PROPERTY + ": " + configuredSeed);
+            }
+        }
+        return new RandomSource(mix64(System.nanoTime() ^ System.currentTimeMillis()));
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getState() {
+        return state;
+    }
+
+    public void setState(long state) {
+        this.state = state;
+    }
+
+    /**
+     * Source that continues from this source's current state, so both produce
+     * the same values from here on.
+     */
+    public RandomSource copy() {
+        RandomSource copy = new RandomSource(seed);
+        copy.state = state;
+        return copy;
+    }
+
+    /**
+     * Independent child source. The child's seed is drawn from this source,
+     * so the whole tree of sources is determined by the root seed.
+     */
+    public RandomSource split() {
+        return new RandomSource(nextLong());
+    }
+
+    public long nextLong() {
+        state += GOLDEN_GAMMA;
+        return mix64(state);
+    }
+
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive: " + bound);
+        }
+        int bits = (int) (nextLong() >>> 33);
+        int value = bits % bound;
+        while (bits - value + (bound - 1) < 0) {
+            bits = (int) (nextLong() >>> 33);
+            value = bits % bound;
+        }
+        return value;
+    }
+
+    public double nextDouble() {
+        return (nextLong() >>> 11) * DOUBLE_UNIT;
+    }
+
+    public boolean nextBoolean() {
+        return nextLong() < 0;
+    }
+
+    public <T> void shuffle(List<T> list) {
+        for (int i = list.size() - 1; i > 0; i--) {
+            int j = nextInt(i + 1);
+            list.set(i, list.set(j, list.get(i)));
+        }
+    }
+
+    public <T> void shuffle(T[] array) {
+        for (int i = array.length - 1; i > 0; i--) {
+            int j = nextInt(i + 1);
+            T swap = array[i];
+            array[i] = array[j];
+            array[j] = swap;
+        }
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -33,8 +33,12 @@ public class ZoneDimension {
     }
     
     public boolean contains(Point point) {
-        return point.x >= xMin && point.x <= xMax && 
-               point.y >= yMin && point.y <= yMax;
+        return contains(point.x, point.y);
+    }
+
+    public boolean contains(int x, int y) {
+        return x >= xMin && x <= xMax && 
+               y >= yMin && y <= yMax;
     }
 
     @Override
@@ -0,0 +1,218 @@
+package client.pathfinding;
+
+import client.model.*;
+import java.util.*;
+
+/**
+ * All-pairs terrain-cost distances for a map, built with one Dijkstra run
+ * per cell. Terrain does not change within a game, so the tables are built
+ * once and answer distance, step-count and first-step queries in O(1).
+ * Step counts are those of the cheapest path; hop counts are the fewest
+ * steps between two cells regardless of terrain, from one BFS per cell.
+ * Costs are the base costs of an {@link EdgeCostTable} without visited or
+ * off-half penalties, so every distance is a lower bound for the penalised
+ * A* cost with the same {@link MovementCosts}.
+ */
+public class DistanceOracle {
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private static final short NO_DISTANCE = Short.MAX_VALUE;
+    private static final byte NO_STEP = -1;
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final int cellCount;
+    private final EdgeCostTable edgeCosts;
+    private final short[][] distance;
+    private final short[][] steps;
+    private final short[][] hops;
+    private final byte[][] firstStep;
+
+    private DistanceOracle(EdgeCostTable edgeCosts) {
+        this.cellCount = edgeCosts.getCellCount();
+        this.edgeCosts = edgeCosts;
+        this.distance = new short[cellCount][];
+        this.steps = new short[cellCount][];
+        this.hops = new short[cellCount][];
+        this.firstStep = new byte[cellCount][];
+    }
+
+    public static DistanceOracle build(GameMap map) {
+        return build(EdgeCostTable.build(map, MovementCosts.DEFAULT));
+    }
+
+    public static DistanceOracle build(EdgeCostTable edgeCosts) {
+        DistanceOracle oracle = new DistanceOracle(edgeCosts);
+        IndexedMinHeap heap = new IndexedMinHeap(oracle.cellCount);
+        int[] parent = new int[oracle.cellCount];
+        int[] queue = new int[oracle.cellCount];
+        for (int source = 0; source < oracle.cellCount; source++) {
+            oracle.runDijkstra(source, heap, parent);
+            oracle.runBfs(source, queue);
+        }
+        return oracle;
+    }
+
+    /**
+     * True if the oracle was built for a map with the same layout and terrain.
+     */
+    public boolean matches(GameMap map) {
+        return edgeCosts.matches(map, edgeCosts.getCosts());
+    }
+
+    public EdgeCostTable getEdgeCosts() {
+        return edgeCosts;
+    }
+
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    public int distance(int from, int to) {
+        if (!isCell(from) || !isCell(to)) {
+            return UNREACHABLE;
+        }
+        short value = distance[from][to];
+        return value == NO_DISTANCE ? UNREACHABLE : value;
+    }
+
+    public int distance(GameMap map, Point from, Point to) {
+        return distance(map.indexOf(from), map.indexOf(to));
+    }
+
+    public int stepCount(int from, int to) {
+        if (!isCell(from) || !isCell(to) || distance[from][to] == NO_DISTANCE) {
+            return UNREACHABLE;
+        }
+        return steps[from][to];
+    }
+
+    public int stepCount(GameMap map, Point from, Point to) {
+        return stepCount(map.indexOf(from), map.indexOf(to));
+    }
+
+    /**
+     * Fewest steps from {@code from} to {@code to} over traversable fields,
+     * ignoring terrain cost; may be less than {@link #stepCount(int, int)}.
+     */
+    public int hopCount(int from, int to) {
+        if (!isCell(from) || !isCell(to) || hops[from][to] == NO_DISTANCE) {
+            return UNREACHABLE;
+        }
+        return hops[from][to];
+    }
+
+    public int hopCount(GameMap map, Point from, Point to) {
+        return hopCount(map.indexOf(from), map.indexOf(to));
+    }
+
+    public boolean isReachable(int from, int to) {
+        return distance(from, to) != UNREACHABLE;
+    }
+
+    /**
+     * First move of a cheapest path from {@code from} to {@code to}, or null
+     * if the two cells are equal or not connected.
+     */
+    public Direction firstStep(int from, int to) {
+        if (!isCell(from) || !isCell(to) || firstStep[from][to] == NO_STEP) {
+            return null;
+        }
+        return DIRECTIONS[firstStep[from][to]];
+    }
+
+    public Direction firstStep(GameMap map, Point from, Point to) {
+        return firstStep(map.indexOf(from), map.indexOf(to));
+    }
+
+    /**
+     * Cheapest path by following the next-hop table; empty if unreachable.
+     */
+    public List<Direction> path(GameMap map, Point from, Point to) {
+        int current = map.indexOf(from);
+        int target = map.indexOf(to);
+        if (!isReachable(current, target)) {
+            return Collections.emptyList();
+        }
+        List<Direction> path = new ArrayList<>(steps[current][target]);
+        while (current != target) {
+            Direction step = firstStep(current, target);
+            path.add(step);
+            current = map.neighborIndex(current, step);
+        }
+        return path;
+    }
+
+    private void runDijkstra(int source, IndexedMinHeap heap, int[] parent) {
+        short[] dist = new short[cellCount];
+        short[] stepCounts = new short[cellCount];
+        byte[] first = new byte[cellCount];
+        Arrays.fill(dist, NO_DISTANCE);
+        Arrays.fill(first, NO_STEP);
+        distance[source] = dist;
+        steps[source] = stepCounts;
+        firstStep[source] = first;
+        if (!edgeCosts.isTraversable(source)) {
+            return;
+        }
+
+        heap.clear();
+        dist[source] = 0;
+        parent[source] = -1;
+        heap.insertOrDecrease(source, 0, 0);
+        while (!heap.isEmpty()) {
+            int current = heap.poll();
+            if (current != source) {
+                int previous = parent[current];
+                stepCounts[current] = (short) (stepCounts[previous] + 1);
+                first[current] = previous == source ? first[current] : first[previous];
+            }
+            for (int direction = 0; direction < DIRECTIONS.length; direction++) {
+                int cost = edgeCosts.baseCost(current, direction);
+                if (cost == EdgeCostTable.BLOCKED) {
+                    continue;
+                }
+                int neighbor = edgeCosts.neighbor(current, direction);
+                int candidate = dist[current] + cost;
+                if (candidate < dist[neighbor]) {
+                    dist[neighbor] = (short) candidate;
+                    parent[neighbor] = current;
+                    if (current == source) {
+                        first[neighbor] = (byte) direction;
+                    }
+                    heap.insertOrDecrease(neighbor, candidate, stepCounts[current] + 1);
+                }
+            }
+        }
+    }
+
+    private void runBfs(int source, int[] queue) {
+        short[] hopCounts = new short[cellCount];
+        Arrays.fill(hopCounts, NO_DISTANCE);
+        hops[source] = hopCounts;
+        if (!edgeCosts.isTraversable(source)) {
+            return;
+        }
+
+        hopCounts[source] = 0;
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = source;
+        while (head < tail) {
+            int current = queue[head++];
+            for (int direction = 0; direction < DIRECTIONS.length; direction++) {
+                if (edgeCosts.baseCost(current, direction) == EdgeCostTable.BLOCKED) {
+                    continue;
+                }
+                int neighbor = edgeCosts.neighbor(current, direction);
+                if (hopCounts[neighbor] == NO_DISTANCE) {
+                    hopCounts[neighbor] = (short) (hopCounts[current] + 1);
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+    }
+
+    private boolean isCell(int index) {
+        return index >= 0 && index < cellCount;
+    }
+}
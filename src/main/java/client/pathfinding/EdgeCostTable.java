@@ -0,0 +1,130 @@
+package client.pathfinding;
+
+import client.model.*;
+
+/**
+ * Base cost of every step on a map, packed as one byte per cell and
+ * direction at {@code cell * 4 + direction.ordinal()}. Steps that leave the
+ * grid or end on water or an unknown field are stored as blocked. Terrain
+ * does not change within a game, so the table is built once and an edge
+ * cost becomes a single array read; the visited and off-half penalties are
+ * added by the search from bitsets.
+ */
+public final class EdgeCostTable {
+    public static final int BLOCKED = Integer.MAX_VALUE;
+
+    private static final byte NO_EDGE = -1;
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final int STRIDE = DIRECTIONS.length;
+
+    private final int cellCount;
+    private final int gridWidth;
+    private final byte[] terrainSignature;
+    private final MovementCosts costs;
+    private final byte[] baseCost;
+    private final int[] neighborOffset;
+
+    private EdgeCostTable(GameMap map, MovementCosts costs) {
+        this.cellCount = map.getCellCount();
+        this.gridWidth = map.getGridWidth();
+        this.terrainSignature = signatureOf(map);
+        this.costs = costs;
+        this.baseCost = new byte[cellCount * STRIDE];
+        this.neighborOffset = new int[STRIDE];
+        for (Direction direction : DIRECTIONS) {
+            neighborOffset[direction.ordinal()] = direction.getDy() * gridWidth + direction.getDx();
+        }
+    }
+
+    public static EdgeCostTable build(GameMap map, MovementCosts costs) {
+        EdgeCostTable table = new EdgeCostTable(map, costs);
+        for (int cell = 0; cell < table.cellCount; cell++) {
+            Terrain from = map.getTerrainAt(cell);
+            for (Direction direction : DIRECTIONS) {
+                int neighbor = map.neighborIndex(cell, direction);
+                byte cost = NO_EDGE;
+                if (map.isTraversable(cell) && neighbor != GameMap.NO_CELL && map.isTraversable(neighbor)) {
+                    cost = (byte) costs.baseCost(from, map.getTerrainAt(neighbor));
+                }
+                table.baseCost[cell * STRIDE + direction.ordinal()] = cost;
+            }
+        }
+        return table;
+    }
+
+    /**
+     * True if the table was built for a map with the same layout and terrain
+     * and with the same costs.
+     */
+    public boolean matches(GameMap map, MovementCosts costs) {
+        if (!this.costs.equals(costs) || map.getCellCount() != cellCount || map.getGridWidth() != gridWidth) {
+            return false;
+        }
+        for (int index = 0; index < cellCount; index++) {
+            if (terrainSignature[index] != terrainOrdinal(map, index)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    public MovementCosts getCosts() {
+        return costs;
+    }
+
+    public boolean isTraversable(int cell) {
+        byte terrain = terrainSignature[cell];
+        return terrain != NO_EDGE && terrain != Terrain.WATER.ordinal();
+    }
+
+    /**
+     * Cost of stepping from {@code cell} in the direction with the given
+     * ordinal, or {@link #BLOCKED}.
+     */
+    public int baseCost(int cell, int direction) {
+        byte cost = baseCost[cell * STRIDE + direction];
+        return cost == NO_EDGE ? BLOCKED : cost;
+    }
+
+    public int baseCost(int cell, Direction direction) {
+        return baseCost(cell, direction.ordinal());
+    }
+
+    /**
+     * Cell reached by the step; only meaningful if that step is not blocked.
+     */
+    public int neighbor(int cell, int direction) {
+        return cell + neighborOffset[direction];
+    }
+
+    /**
+     * Bitset over cell indices of the cells whose position is in
+     * {@code positions}.
+     */
+    public long[] cellMask(PositionSet positions) {
+        long[] mask = new long[(cellCount + 63) >>> 6];
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (positions.contains(cell % gridWidth, cell / gridWidth)) {
+                mask[cell >>> 6] |= 1L << cell;
+            }
+        }
+        return mask;
+    }
+
+    private static byte[] signatureOf(GameMap map) {
+        byte[] signature = new byte[map.getCellCount()];
+        for (int index = 0; index < signature.length; index++) {
+            signature[index] = terrainOrdinal(map, index);
+        }
+        return signature;
+    }
+
+    private static byte terrainOrdinal(GameMap map, int index) {
+        Terrain terrain = map.getTerrainAt(index);
+        return terrain == null ? NO_EDGE : (byte) terrain.ordinal();
+    }
+}
@@ -2,8 +2,12 @@ package client.pathfinding;
 
 import client.model.*;
 import java.util.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 public class FortBacktracker {
+    private static final Logger logger = Logger.getLogger(FortBacktracker.class.getName());
+    private final PathFinder pathFinder;
     private final List<Point> opponentPositions = new ArrayList<>();
     private final Map<Point, Integer> fortCandidates = new HashMap<>();
     private Point lastOpponentPosition = null;
@@ -18,6 +22,36 @@ public class FortBacktracker {
     private static final int FORT_VICINITY_RADIUS = 3; 
     private static final int MAX_POSITIONS_FOR_ANALYSIS = 4; 
     
+    public FortBacktracker() {
+        this(new PathFinder());
+    }
+
+    public FortBacktracker(PathFinder pathFinder) {
+        this.pathFinder = pathFinder;
+    }
+
+    /**
+     * Copy with the same tracked positions and prediction, sharing the path
+     * finder.
+     */
+    public FortBacktracker(FortBacktracker other) {
+        this(other, other.pathFinder);
+    }
+
+    /**
+     * Copy with the same tracked positions and prediction that uses
+     * {@code pathFinder}.
+     */
+    public FortBacktracker(FortBacktracker other, PathFinder pathFinder) {
+        this.pathFinder = pathFinder;
+        this.opponentPositions.addAll(other.opponentPositions);
+        this.fortCandidates.putAll(other.fortCandidates);
+        this.lastOpponentPosition = other.lastOpponentPosition;
+        this.predictedFortPosition = other.predictedFortPosition;
+        this.currentPredictionScore = other.currentPredictionScore;
+        this.currentBestCandidate = other.currentBestCandidate;
+        this.consecutiveBestCandidateCount = other.consecutiveBestCandidateCount;
+    }
 
     public void trackEnemyPosition(Point opponentPosition, GameMap gameMap) {
         if (opponentPosition == null) {
@@ -47,11 +81,12 @@ public class FortBacktracker {
     private void analyzePossibleFortLocations(GameMap gameMap) {
         Point lastPos = opponentPositions.get(opponentPositions.size() - 1);
         
+        DistanceOracle oracle = pathFinder.getDistanceOracle(gameMap);
         Set<Point> candidateZone = new HashSet<>();
         
         for (int dx = -FORT_VICINITY_RADIUS; dx <= FORT_VICINITY_RADIUS; dx++) {
             for (int dy = -FORT_VICINITY_RADIUS; dy <= FORT_VICINITY_RADIUS; dy++) {
-                Point candidatePos = new Point(lastPos.x + dx, lastPos.y + dy);
+                Point candidatePos = Point.of(lastPos.x + dx, lastPos.y + dy);
                 Optional<MapNode> nodeOpt = gameMap.getNode(candidatePos);
                 
                 if (nodeOpt.isPresent() && nodeOpt.get().isTraversable()) {
@@ -72,18 +107,10 @@ public class FortBacktracker {
                     continue;
                 }
                 
-                
-                try {
-                    PathFinder pathFinder = new PathFinder();
-                    List<Direction> path = pathFinder.findDirectPathWithTimeout(gameMap, opponentPos, candidate, 25); // 25ms timeout
-                    if (!path.isEmpty()) {
-                        totalCost += path.size();
-                        validPaths++;
-                    } else {
-                    }
-                } catch (Exception e) {
-                   
-                    System.err.println("WARN: Exception during FortBacktracker path scoring: " + e.getMessage());
+                int pathLength = oracle.hopCount(gameMap, opponentPos, candidate);
+                if (pathLength != DistanceOracle.UNREACHABLE) {
+                    totalCost += pathLength;
+                    validPaths++;
                 }
             }
             
@@ -132,7 +159,9 @@ public class FortBacktracker {
                     consecutiveBestCandidateCount = 0; 
                 }
             } else {
-                 System.out.println("Fort candidate " + bestCandidateNow + " (Score: " + bestScoreNow + ") not confident/better enough to update prediction (Current: " + predictedFortPosition.orElse(null) + " Score: " + currentPredictionScore + " Confidence: " + consecutiveBestCandidateCount + ")");
+                 if (logger.isLoggable(Level.FINE)) {
+                     logger.fine("Fort candidate " + bestCandidateNow + " (Score: " + bestScoreNow + ") not confident/better enough to update prediction (Current: " + predictedFortPosition.orElse(null) + " Score: " + currentPredictionScore + " Confidence: " + consecutiveBestCandidateCount + ")");
+                 }
             }
         }
         
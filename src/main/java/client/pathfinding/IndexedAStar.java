@@ -0,0 +1,223 @@
+package client.pathfinding;
+
+import client.model.*;
+import client.strategy.ExplorationStrategy;
+import java.util.*;
+
+/**
+ * A* over GameMap cell indices. Score and parent arrays are reused between
+ * searches and invalidated by bumping a generation stamp instead of being
+ * cleared, and the open set is an indexed heap with real decrease-key.
+ * Base edge costs are read from an {@link EdgeCostTable}; the visited and
+ * off-half penalties are bit tests against per-cell bitsets.
+ * When a {@link DistanceOracle} is supplied its terrain distances replace the
+ * Manhattan heuristic; they never exceed the penalised cost, so the result
+ * stays optimal. The deadline is polled every few expansions; in anytime mode a search that
+ * runs out of time returns the path to the closest node explored so far.
+ */
+public class IndexedAStar {
+    private static final int NO_PARENT = -1;
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final int DEADLINE_CHECK_MASK = 31;
+
+    private int[] gScore = new int[0];
+    private int[] parent = new int[0];
+    private int[] seenStamp = new int[0];
+    private int[] closedStamp = new int[0];
+    private long[] visitedCells = new long[0];
+    private long[] offHalfCells = null;
+    private EdgeCostTable offHalfTable = null;
+    private PositionSet offHalfZone = null;
+    private final IndexedMinHeap openSet = new IndexedMinHeap(0);
+    private int generation = 0;
+    private boolean lastResultPartial = false;
+
+    public List<Direction> findPath(GameMap map, Point start, Point target, Set<Point> visitedPositions,
+            ExplorationStrategy explorationStrategy, int maxIterations) {
+        return findPath(map, start, target, visitedPositions, explorationStrategy, maxIterations, Long.MAX_VALUE, false,
+                null, EdgeCostTable.build(map, MovementCosts.DEFAULT));
+    }
+
+    /**
+     * @param deadlineNanos {@link System#nanoTime()} value after which the
+     *        search stops
+     * @param anytime return a partial path to the closest explored node when
+     *        the deadline or iteration limit is hit
+     * @param oracle distance oracle for {@code map} used as heuristic, or null
+     *        for Manhattan distance; it must be built from the same or lower
+     *        base costs than {@code edgeCosts}
+     * @param edgeCosts edge cost table built for {@code map}
+     */
+    public List<Direction> findPath(GameMap map, Point start, Point target, Set<Point> visitedPositions,
+            ExplorationStrategy explorationStrategy, int maxIterations, long deadlineNanos, boolean anytime,
+            DistanceOracle oracle, EdgeCostTable edgeCosts) {
+        lastResultPartial = false;
+        int startIndex = map.indexOf(start);
+        int targetIndex = map.indexOf(target);
+        if (startIndex == GameMap.NO_CELL || targetIndex == GameMap.NO_CELL || !map.hasNode(startIndex)
+                || !map.isTraversable(targetIndex)) {
+            return Collections.emptyList();
+        }
+        if (startIndex == targetIndex) {
+            return new ArrayList<>();
+        }
+
+        prepare(map.getCellCount());
+        markVisited(map, visitedPositions);
+        long[] offHalf = offHalfCells(edgeCosts, explorationStrategy);
+        int visitedPenalty = edgeCosts.getCosts().getVisitedPenalty();
+        int offHalfPenalty = edgeCosts.getCosts().getOffHalfPenalty();
+
+        gScore[startIndex] = 0;
+        parent[startIndex] = NO_PARENT;
+        seenStamp[startIndex] = generation;
+        openSet.insertOrDecrease(startIndex, heuristic(map, oracle, startIndex, targetIndex), 0);
+
+        int closest = startIndex;
+        int closestH = heuristic(map, oracle, startIndex, targetIndex);
+        boolean deadlineChecked = deadlineNanos != Long.MAX_VALUE;
+        int iterations = 0;
+        while (!openSet.isEmpty() && iterations < maxIterations) {
+            iterations++;
+            if (deadlineChecked && (iterations & DEADLINE_CHECK_MASK) == 0 && System.nanoTime() - deadlineNanos >= 0) {
+                break;
+            }
+
+            int current = openSet.poll();
+            if (current == targetIndex) {
+                return reconstructPath(map, targetIndex);
+            }
+            closedStamp[current] = generation;
+            int currentH = heuristic(map, oracle, current, targetIndex);
+            if (currentH < closestH || (currentH == closestH && gScore[current] < gScore[closest])) {
+                closest = current;
+                closestH = currentH;
+            }
+
+            for (int direction = 0; direction < DIRECTIONS.length; direction++) {
+                int moveCost = edgeCosts.baseCost(current, direction);
+                if (moveCost == EdgeCostTable.BLOCKED) {
+                    continue;
+                }
+                int neighbor = edgeCosts.neighbor(current, direction);
+                if (closedStamp[neighbor] == generation) {
+                    continue;
+                }
+                if ((visitedCells[neighbor >>> 6] & (1L << neighbor)) != 0) {
+                    moveCost += visitedPenalty;
+                }
+                if (offHalf != null && (offHalf[neighbor >>> 6] & (1L << neighbor)) != 0) {
+                    moveCost += offHalfPenalty;
+                }
+
+                int tentativeGScore = gScore[current] + moveCost;
+                if (seenStamp[neighbor] != generation || tentativeGScore < gScore[neighbor]) {
+                    int h = heuristic(map, oracle, neighbor, targetIndex);
+                    if (h == DistanceOracle.UNREACHABLE) {
+                        continue;
+                    }
+                    seenStamp[neighbor] = generation;
+                    gScore[neighbor] = tentativeGScore;
+                    parent[neighbor] = current;
+                    openSet.insertOrDecrease(neighbor, tentativeGScore + h, h);
+                }
+            }
+        }
+
+        if (anytime && !openSet.isEmpty() && closest != startIndex) {
+            lastResultPartial = true;
+            return reconstructPath(map, closest);
+        }
+        return Collections.emptyList();
+    }
+
+    public boolean wasLastResultPartial() {
+        return lastResultPartial;
+    }
+
+    private void prepare(int cellCount) {
+        if (gScore.length < cellCount) {
+            gScore = new int[cellCount];
+            parent = new int[cellCount];
+            seenStamp = new int[cellCount];
+            closedStamp = new int[cellCount];
+            generation = 0;
+        }
+        int words = (cellCount + 63) >>> 6;
+        if (visitedCells.length < words) {
+            visitedCells = new long[words];
+        } else {
+            Arrays.fill(visitedCells, 0L);
+        }
+        openSet.ensureCapacity(cellCount);
+        openSet.clear();
+
+        generation++;
+        if (generation == Integer.MAX_VALUE) {
+            Arrays.fill(seenStamp, 0);
+            Arrays.fill(closedStamp, 0);
+            generation = 1;
+        }
+    }
+
+    private void markVisited(GameMap map, Set<Point> visitedPositions) {
+        if (visitedPositions == null) {
+            return;
+        }
+        for (Point visited : visitedPositions) {
+            int index = map.indexOf(visited);
+            if (index != GameMap.NO_CELL) {
+                visitedCells[index >>> 6] |= 1L << index;
+            }
+        }
+    }
+
+    /**
+     * Cells outside the half the strategy currently explores, or null if
+     * there is no such restriction. The strategy swaps between two fixed
+     * zone masks, so the converted mask is kept until either the zone or the
+     * table changes.
+     */
+    private long[] offHalfCells(EdgeCostTable edgeCosts, ExplorationStrategy explorationStrategy) {
+        PositionSet zone = explorationStrategy != null ? explorationStrategy.getRelevantZoneCells() : null;
+        if (zone == null) {
+            return null;
+        }
+        if (zone != offHalfZone || edgeCosts != offHalfTable) {
+            long[] inside = edgeCosts.cellMask(zone);
+            for (int word = 0; word < inside.length; word++) {
+                inside[word] = ~inside[word];
+            }
+            offHalfCells = inside;
+            offHalfZone = zone;
+            offHalfTable = edgeCosts;
+        }
+        return offHalfCells;
+    }
+
+    private List<Direction> reconstructPath(GameMap map, int targetIndex) {
+        List<Direction> path = new ArrayList<>();
+        int current = targetIndex;
+        while (parent[current] != NO_PARENT) {
+            int previous = parent[current];
+            path.add(directionBetween(map, previous, current));
+            current = previous;
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    private static Direction directionBetween(GameMap map, int from, int to) {
+        int dx = map.getCellX(to) - map.getCellX(from);
+        if (dx > 0) return Direction.RIGHT;
+        if (dx < 0) return Direction.LEFT;
+        return to > from ? Direction.DOWN : Direction.UP;
+    }
+
+    private static int heuristic(GameMap map, DistanceOracle oracle, int from, int to) {
+        if (oracle != null) {
+            return oracle.distance(from, to);
+        }
+        return Math.abs(map.getCellX(from) - map.getCellX(to)) + Math.abs(map.getCellY(from) - map.getCellY(to));
+    }
+}
@@ -0,0 +1,137 @@
+package client.pathfinding;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap over cell indices with O(log n) decrease-key. Each cell can
+ * be in the heap at most once; ties on the primary key are broken by the
+ * secondary key.
+ */
+class IndexedMinHeap {
+    private static final int ABSENT = -1;
+
+    private int[] heap;
+    private int[] position;
+    private int[] primaryKey;
+    private int[] secondaryKey;
+    private int size;
+
+    IndexedMinHeap(int capacity) {
+        heap = new int[capacity];
+        position = new int[capacity];
+        primaryKey = new int[capacity];
+        secondaryKey = new int[capacity];
+        Arrays.fill(position, ABSENT);
+    }
+
+    void ensureCapacity(int capacity) {
+        if (capacity <= heap.length) {
+            return;
+        }
+        heap = Arrays.copyOf(heap, capacity);
+        primaryKey = Arrays.copyOf(primaryKey, capacity);
+        secondaryKey = Arrays.copyOf(secondaryKey, capacity);
+        int oldLength = position.length;
+        position = Arrays.copyOf(position, capacity);
+        Arrays.fill(position, oldLength, capacity, ABSENT);
+    }
+
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            position[heap[i]] = ABSENT;
+        }
+        size = 0;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean contains(int cell) {
+        return position[cell] != ABSENT;
+    }
+
+    /**
+     * Inserts the cell, or lowers its key if it is already queued with a
+     * larger one. A larger key for a queued cell is ignored.
+     */
+    void insertOrDecrease(int cell, int primary, int secondary) {
+        int index = position[cell];
+        if (index == ABSENT) {
+            index = size++;
+            heap[index] = cell;
+            position[cell] = index;
+        } else if (compare(primary, secondary, primaryKey[cell], secondaryKey[cell]) >= 0) {
+            return;
+        }
+        primaryKey[cell] = primary;
+        secondaryKey[cell] = secondary;
+        siftUp(index);
+    }
+
+    int poll() {
+        int top = heap[0];
+        position[top] = ABSENT;
+        size--;
+        if (size > 0) {
+            int last = heap[size];
+            heap[0] = last;
+            position[last] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    private void siftUp(int index) {
+        int cell = heap[index];
+        while (index > 0) {
+            int parentIndex = (index - 1) >>> 1;
+            int parent = heap[parentIndex];
+            if (less(parent, cell)) {
+                break;
+            }
+            heap[index] = parent;
+            position[parent] = index;
+            index = parentIndex;
+        }
+        heap[index] = cell;
+        position[cell] = index;
+    }
+
+    private void siftDown(int index) {
+        int cell = heap[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int childIndex = 2 * index + 1;
+            int child = heap[childIndex];
+            int rightIndex = childIndex + 1;
+            if (rightIndex < size && less(heap[rightIndex], child)) {
+                childIndex = rightIndex;
+                child = heap[childIndex];
+            }
+            if (!less(child, cell)) {
+                break;
+            }
+            heap[index] = child;
+            position[child] = index;
+            index = childIndex;
+        }
+        heap[index] = cell;
+        position[cell] = index;
+    }
+
+    private boolean less(int a, int b) {
+        return compare(primaryKey[a], secondaryKey[a], primaryKey[b], secondaryKey[b]) < 0;
+    }
+
+    private static int compare(int primaryA, int secondaryA, int primaryB, int secondaryB) {
+        if (primaryA != primaryB) {
+            return Integer.compare(primaryA, primaryB);
+        }
+        return Integer.compare(secondaryA, secondaryB);
+    }
+}
@@ -0,0 +1,98 @@
+package client.pathfinding;
+
+import client.model.Terrain;
+
+/**
+ * Cost weights used by the pathfinders. Base costs apply to a single step
+ * between two land fields; the penalties are added when the step ends on a
+ * field that was already visited or lies outside the half being explored.
+ * Base costs are stored in a byte per edge by {@link EdgeCostTable}, so they
+ * must be between 1 and {@value #MAX_BASE_COST}.
+ */
+public final class MovementCosts {
+    public static final int MAX_BASE_COST = Byte.MAX_VALUE;
+
+    public static final MovementCosts DEFAULT = new MovementCosts(2, 5, 5, 6,
+            PathfindingHelper.VISITED_PENALTY, PathfindingHelper.OFF_HALF_PENALTY);
+
+    private final int grassToGrass;
+    private final int grassToMountain;
+    private final int mountainToGrass;
+    private final int mountainToMountain;
+    private final int visitedPenalty;
+    private final int offHalfPenalty;
+
+    public MovementCosts(int grassToGrass, int grassToMountain, int mountainToGrass, int mountainToMountain,
+            int visitedPenalty, int offHalfPenalty) {
+        this.grassToGrass = checkBaseCost("grassToGrass", grassToGrass);
+        this.grassToMountain = checkBaseCost("grassToMountain", grassToMountain);
+        this.mountainToGrass = checkBaseCost("mountainToGrass", mountainToGrass);
+        this.mountainToMountain = checkBaseCost("mountainToMountain", mountainToMountain);
+        if (visitedPenalty < 0 || offHalfPenalty < 0) {
+            throw new IllegalArgumentException("Penalties must not be negative");
+        }
+        this.visitedPenalty = visitedPenalty;
+        this.offHalfPenalty = offHalfPenalty;
+    }
+
+    public MovementCosts withPenalties(int visitedPenalty, int offHalfPenalty) {
+        return new MovementCosts(grassToGrass, grassToMountain, mountainToGrass, mountainToMountain, visitedPenalty,
+                offHalfPenalty);
+    }
+
+    /**
+     * Cost of one step from {@code from} to {@code to}. Water is not checked
+     * here; callers skip non-traversable fields.
+     */
+    public int baseCost(Terrain from, Terrain to) {
+        if (from == Terrain.MOUNTAIN) {
+            return to == Terrain.MOUNTAIN ? mountainToMountain : mountainToGrass;
+        }
+        if (from == Terrain.GRASS && to == Terrain.GRASS) {
+            return grassToGrass;
+        }
+        return grassToMountain;
+    }
+
+    public int getVisitedPenalty() {
+        return visitedPenalty;
+    }
+
+    public int getOffHalfPenalty() {
+        return offHalfPenalty;
+    }
+
+    private static int checkBaseCost(String name, int cost) {
+        if (cost < 1 || cost > MAX_BASE_COST) {
+            throw new IllegalArgumentException(name + " must be between 1 and " + MAX_BASE_COST + ": " + cost);
+        }
+        return cost;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof MovementCosts)) return false;
+        MovementCosts other = (MovementCosts) o;
+        return grassToGrass == other.grassToGrass && grassToMountain == other.grassToMountain
+                && mountainToGrass == other.mountainToGrass && mountainToMountain == other.mountainToMountain
+                && visitedPenalty == other.visitedPenalty && offHalfPenalty == other.offHalfPenalty;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = grassToGrass;
+        result = 31 * result + grassToMountain;
+        result = 31 * result + mountainToGrass;
+        result = 31 * result + mountainToMountain;
+        result = 31 * result + visitedPenalty;
+        return 31 * result + offHalfPenalty;
+    }
+
+    @Override
+    public String toString() {
+        return "MovementCosts{grass->grass=" + grassToGrass + ", grass->mountain=" + grassToMountain
+                + ", mountain->grass=" + mountainToGrass + ", mountain->mountain=" + mountainToMountain
+                + ", visited=+" + visitedPenalty + ", offHalf=+" + offHalfPenalty + "}";
+    }
+}
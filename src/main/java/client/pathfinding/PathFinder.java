@@ -3,36 +3,155 @@ package client.pathfinding;
 import client.model.*;
 import java.util.*;
 import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
 import client.strategy.ExplorationStrategy;
 
 public class PathFinder {
+    private static final Logger logger = Logger.getLogger(PathFinder.class.getName());
     private static final int MAX_PATH_LENGTH = 100;
     private static final int MAX_ITERATIONS = 5000;
-    private static final int TIME_CHECK_INTERVAL = 50;
+    private static final int TIME_CHECK_INTERVAL = 32;
     
     private static final boolean DEBUG = false;
 
+    private final IndexedAStar indexedAStar = new IndexedAStar();
+    private boolean indexedSearchEnabled;
+    private boolean anytimeSearchEnabled = true;
+    private SearchOutcome lastSearchOutcome = null;
+    private final long[] outcomeCounts = new long[SearchOutcome.values().length];
+    private MovementCosts movementCosts = MovementCosts.DEFAULT;
+    private EdgeCostTable edgeCostTable = null;
+    private DistanceOracle distanceOracle = null;
+
+    public PathFinder() {
+        this(false);
+    }
+
+    public PathFinder(boolean indexedSearchEnabled) {
+        this.indexedSearchEnabled = indexedSearchEnabled;
+    }
+
+    /**
+     * Path finder with the same settings that can search on another thread.
+     * It shares the edge cost table and distance oracle, which are immutable
+     * once built, and has its own search state and outcome counters.
+     */
+    public PathFinder(PathFinder other) {
+        this.indexedSearchEnabled = other.indexedSearchEnabled;
+        this.anytimeSearchEnabled = other.anytimeSearchEnabled;
+        this.movementCosts = other.movementCosts;
+        this.edgeCostTable = other.edgeCostTable;
+        this.distanceOracle = other.distanceOracle;
+    }
+
+    public boolean isIndexedSearchEnabled() {
+        return indexedSearchEnabled;
+    }
+
+    public void setIndexedSearchEnabled(boolean indexedSearchEnabled) {
+        this.indexedSearchEnabled = indexedSearchEnabled;
+    }
+
+    public boolean isAnytimeSearchEnabled() {
+        return anytimeSearchEnabled;
+    }
+
+    /**
+     * When enabled, an A* search that runs out of time returns the path to the
+     * explored node closest to the target instead of falling back to BFS.
+     */
+    public void setAnytimeSearchEnabled(boolean anytimeSearchEnabled) {
+        this.anytimeSearchEnabled = anytimeSearchEnabled;
+    }
+
+    public SearchOutcome getLastSearchOutcome() {
+        return lastSearchOutcome;
+    }
+
+    public long getOutcomeCount(SearchOutcome outcome) {
+        return outcomeCounts[outcome.ordinal()];
+    }
+
+    public MovementCosts getMovementCosts() {
+        return movementCosts;
+    }
+
+    /**
+     * Costs used by the indexed search and the distance oracle. The cached
+     * tables are rebuilt on the next search.
+     */
+    public void setMovementCosts(MovementCosts movementCosts) {
+        this.movementCosts = Objects.requireNonNull(movementCosts);
+    }
+
+    /**
+     * Edge cost table for the given map, rebuilt only when the map layout,
+     * terrain or movement costs differ from the ones it was built for.
+     */
+    public EdgeCostTable getEdgeCostTable(GameMap map) {
+        if (edgeCostTable == null || !edgeCostTable.matches(map, movementCosts)) {
+            edgeCostTable = EdgeCostTable.build(map, movementCosts);
+        }
+        return edgeCostTable;
+    }
+
+    /**
+     * Oracle for the given map, rebuilt together with its edge cost table.
+     */
+    public DistanceOracle getDistanceOracle(GameMap map) {
+        EdgeCostTable edgeCosts = getEdgeCostTable(map);
+        if (distanceOracle == null || distanceOracle.getEdgeCosts() != edgeCosts) {
+            long buildStart = System.nanoTime();
+            distanceOracle = DistanceOracle.build(edgeCosts);
+            if (DEBUG) System.out.println("Distance oracle for " + map.getCellCount() + " cells built in "
+                    + TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - buildStart) + "us");
+        }
+        return distanceOracle;
+    }
+
+    private List<Direction> record(SearchOutcome outcome, List<Direction> path) {
+        lastSearchOutcome = outcome;
+        outcomeCounts[outcome.ordinal()]++;
+        return path;
+    }
+
     public List<Direction> findPath(GameMap map, Point start, Point target, long timeBudgetMillis, Set<Point> visitedPositions, ExplorationStrategy explorationStrategy) {
         long startTime = System.currentTimeMillis();
+        long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeBudgetMillis);
         
         if (start.equals(target)) {
-            return new ArrayList<>();
+            return record(SearchOutcome.OPTIMAL, new ArrayList<>());
         }
         
         List<Direction> directPath = findDirectPath(map, start, target);
         if (!directPath.isEmpty()) {
-            return limitPathLength(directPath);
+            return record(SearchOutcome.DIRECT, limitPathLength(directPath));
         }
         
         int manhattanDistance = PathfindingHelper.calculateManhattanDistance(start, target);
-        
-        if (manhattanDistance > 10) {
-            return getDirectionalPath(map, start, target);
+
+        if (indexedSearchEnabled) {
+            DistanceOracle oracle = getDistanceOracle(map);
+            if (!oracle.isReachable(map.indexOf(start), map.indexOf(target))) {
+                if (DEBUG) System.out.println("Target " + target + " is not reachable from " + start);
+                return record(SearchOutcome.FALLBACK, getDirectionalPath(map, start, target));
+            }
+            if (manhattanDistance > 10) {
+                return record(SearchOutcome.ORACLE, limitPathLength(oracle.path(map, start, target)));
+            }
+
+            List<Direction> indexedPath = indexedAStar.findPath(map, start, target, visitedPositions, explorationStrategy,
+                    MAX_ITERATIONS, deadlineNanos, anytimeSearchEnabled, oracle, oracle.getEdgeCosts());
+            if (!indexedPath.isEmpty()) {
+                SearchOutcome outcome = indexedAStar.wasLastResultPartial() ? SearchOutcome.PARTIAL : SearchOutcome.OPTIMAL;
+                return record(outcome, limitPathLength(indexedPath));
+            }
+            return findFallbackPath(map, start, target, timeBudgetMillis, startTime);
         }
 
-        int[] boundaries = null;
-        if (explorationStrategy != null && explorationStrategy.isHalfInfoInitialized()) {
-            boundaries = explorationStrategy.getRelevantHalfBoundaries();
+        if (manhattanDistance > 10) {
+            return record(SearchOutcome.FALLBACK, getDirectionalPath(map, start, target));
         }
 
         PriorityQueue<AStarNode> openSet = new PriorityQueue<>();
@@ -48,21 +167,23 @@ public class PathFinder {
         while (!openSet.isEmpty() && iterations < MAX_ITERATIONS) {
             iterations++;
 
-            if (iterations % TIME_CHECK_INTERVAL == 0) {
+            if (iterations % TIME_CHECK_INTERVAL == 0 && System.nanoTime() - deadlineNanos >= 0) {
                 if (DEBUG) System.out.println("WARN: Pathfinding timed out after " + (System.currentTimeMillis() - startTime) + "ms");
-                if (!allNodes.isEmpty()) {
+                if (anytimeSearchEnabled) {
                     List<Direction> partialPath = getPartialPath(allNodes, target, start);
                     if (DEBUG) System.out.println("Returning partial path of length " + partialPath.size());
-                    return partialPath;
+                    if (!partialPath.isEmpty()) {
+                        return record(SearchOutcome.PARTIAL, partialPath);
+                    }
                 }
-                return Collections.emptyList();
+                break;
             }
             
             AStarNode current = openSet.poll();
             
             closedSet.add(current.getPosition());
             if (current.getPosition().equals(target)) {
-                return reconstructPath(current);
+                return record(SearchOutcome.OPTIMAL, reconstructPath(current));
             }
             
             List<Point> neighbors = PathfindingHelper.getValidNeighbors(map, current.getPosition());
@@ -100,24 +221,29 @@ public class PathFinder {
             }
         }
 
+        return findFallbackPath(map, start, target, timeBudgetMillis, startTime);
+    }
+
+    private List<Direction> findFallbackPath(GameMap map, Point start, Point target, long timeBudgetMillis, long startTime) {
         if (DEBUG) System.out.println("A* failed/timed out. Trying BFS fallback...");
         long remainingTimeForBFS = Math.max(20, timeBudgetMillis - (System.currentTimeMillis() - startTime)); // Min 20ms for BFS
         List<Direction> bfsPath = findDirectPathWithTimeout(map, start, target, remainingTimeForBFS);
         if (!bfsPath.isEmpty()) {
             if (DEBUG) System.out.println("BFS fallback found a path.");
-            return limitPathLength(bfsPath);
+            return record(SearchOutcome.FALLBACK, limitPathLength(bfsPath));
         }
 
         if (DEBUG) System.out.println("BFS fallback also failed or timed out.");
 
-        System.out.println("WARN: A* and BFS pathfinding failed. Falling back to single directional step.");
-        return getDirectionalPath(map, start, target); 
+        logger.warning(() -> "A* and BFS pathfinding failed from " + start + " to " + target
+                + ". Falling back to single directional step.");
+        return record(SearchOutcome.FALLBACK, getDirectionalPath(map, start, target));
     }
     
     private List<Direction> tryDirectPath(GameMap map, Point start, Point target) {
         List<Direction> path = new ArrayList<>();
         
-        Point current = new Point(start.x, start.y);
+        Point current = Point.of(start.x, start.y);
 
         while (current.x != target.x) {
             Direction dir = current.x < target.x ? Direction.RIGHT : Direction.LEFT;
@@ -178,7 +304,8 @@ public class PathFinder {
         
         for (AStarNode node : nodes) {
             int distance = heuristic(node.getPosition(), target);
-            if (distance < closestDistance) {
+            if (distance < closestDistance
+                    || (distance == closestDistance && node.getGScore() < closest.getGScore())) {
                 closestDistance = distance;
                 closest = node;
             }
@@ -361,6 +488,7 @@ public class PathFinder {
 
     public List<Direction> findDirectPathWithTimeout(GameMap map, Point start, Point goal, long timeBudgetMillis) {
         long startTime = System.currentTimeMillis();
+        long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeBudgetMillis);
         Queue<Point> queue = new LinkedList<>();
         Set<Point> visited = new HashSet<>();
         Map<Point, Direction> cameFromDirection = new HashMap<>();
@@ -376,7 +504,7 @@ public class PathFinder {
         int iterations = 0;
         while (!queue.isEmpty()) {
             iterations++;
-            if (iterations % TIME_CHECK_INTERVAL == 0) {
+            if (iterations % TIME_CHECK_INTERVAL == 0 && System.nanoTime() - deadlineNanos >= 0) {
                 if (DEBUG) System.out.println("WARN: BFS pathfinding timed out after " + (System.currentTimeMillis() - startTime) + "ms");
                 return Collections.emptyList();
             }
@@ -4,80 +4,46 @@ import client.model.*;
 import java.util.*;
 
 public class PathfindingHelper {
+    public static final int VISITED_PENALTY = 30;
+    public static final int OFF_HALF_PENALTY = 75;
     
     public static int calculateManhattanDistance(Point a, Point b) {
         return Math.abs(a.x - b.x) + Math.abs(a.y - b.y);
     }
     
-    public static int calculateMovementCost(GameMap map, Point from, Point to, Set<Point> visitedPositions) {
-        Optional<MapNode> fromNodeOpt = map.getNode(from);
-        Optional<MapNode> toNodeOpt = map.getNode(to);
-        
-        if (!fromNodeOpt.isPresent() || !toNodeOpt.isPresent()) {
-            return Integer.MAX_VALUE;
-        }
-
-        MapNode fromNode = fromNodeOpt.get();
-        MapNode toNode = toNodeOpt.get();
-        
-        Terrain fromTerrain = fromNode.getTerrain();
-        Terrain toTerrain = toNode.getTerrain();
-
-        int baseCost;
-        if (fromTerrain == Terrain.GRASS && toTerrain == Terrain.GRASS) {
-            baseCost = 2;
-        } else if (fromTerrain == Terrain.MOUNTAIN && toTerrain == Terrain.MOUNTAIN) {
-            baseCost = 6;
-        } else if (fromTerrain == Terrain.GRASS && toTerrain == Terrain.MOUNTAIN) {
-            baseCost = 5;
-        } else { 
-            baseCost = 5; 
-        }
-
-        if (visitedPositions != null && visitedPositions.contains(to)) {
-            baseCost += 30;
-        }
+    public static int calculateBaseCost(Terrain fromTerrain, Terrain toTerrain) {
+        return MovementCosts.DEFAULT.baseCost(fromTerrain, toTerrain);
+    }
 
-        return baseCost;
+    public static int calculateMovementCost(GameMap map, Point from, Point to, Set<Point> visitedPositions) {
+        return calculateMovementCost(map, from, to, visitedPositions, null);
     }
 
+    /**
+     * Cost of a single step with the default {@link MovementCosts}. Used by
+     * the point-based search; {@link IndexedAStar} reads the same costs from
+     * an {@link EdgeCostTable}.
+     */
     public static int calculateMovementCost(GameMap map, Point from, Point to, Set<Point> visitedPositions, client.strategy.ExplorationStrategy explorationStrategy) {
-        Optional<MapNode> fromNodeOpt = map.getNode(from);
-        Optional<MapNode> toNodeOpt = map.getNode(to);
-        
-        if (!fromNodeOpt.isPresent() || !toNodeOpt.isPresent()) {
+        Terrain fromTerrain = map.getTerrainAt(map.indexOf(from));
+        Terrain toTerrain = map.getTerrainAt(map.indexOf(to));
+        if (fromTerrain == null || toTerrain == null) {
             return Integer.MAX_VALUE;
         }
 
-        MapNode fromNode = fromNodeOpt.get();
-        MapNode toNode = toNodeOpt.get();
-        
-        Terrain fromTerrain = fromNode.getTerrain();
-        Terrain toTerrain = toNode.getTerrain();
-
-        int baseCost;
-        if (fromTerrain == Terrain.GRASS && toTerrain == Terrain.GRASS) {
-            baseCost = 2; 
-        } else if (fromTerrain == Terrain.MOUNTAIN && toTerrain == Terrain.MOUNTAIN) {
-            baseCost = 6;
-        } else if (fromTerrain == Terrain.GRASS && toTerrain == Terrain.MOUNTAIN) {
-            baseCost = 5;
-        } else {
-            baseCost = 5; 
-        }
+        int baseCost = calculateBaseCost(fromTerrain, toTerrain);
 
         if (visitedPositions != null && visitedPositions.contains(to)) {
-             baseCost += 30;
+            baseCost += VISITED_PENALTY;
         }
 
-        if (explorationStrategy != null) {
-            if (!explorationStrategy.isInRelevantHalf(to, map)) {
-                baseCost += 75;
-            }
+        if (explorationStrategy != null && !explorationStrategy.isInRelevantHalf(to.x, to.y)) {
+            baseCost += OFF_HALF_PENALTY;
         }
 
         return baseCost;
     }
+
     public static List<Point> getValidNeighbors(GameMap map, Point position) {
         List<Point> neighbors = new ArrayList<>();
         
@@ -188,7 +154,7 @@ public class PathfindingHelper {
                 int visibleNewTiles = 0;
                 for (int dx = -1; dx <= 1; dx++) {
                     for (int dy = -1; dy <= 1; dy++) {
-                        Point visiblePos = new Point(pos.x + dx, pos.y + dy);
+                        Point visiblePos = Point.of(pos.x + dx, pos.y + dy);
                         if (alreadyCounted.contains(visiblePos)) {
                             continue;
                         }
@@ -0,0 +1,9 @@
+package client.pathfinding;
+
+public enum SearchOutcome {
+    OPTIMAL,
+    DIRECT,
+    ORACLE,
+    PARTIAL,
+    FALLBACK;
+}
@@ -1,15 +1,19 @@
 package client.strategy;
 
 import client.model.*;
+import client.pathfinding.DistanceOracle;
 import client.pathfinding.PathFinder;
-import client.pathfinding.PathfindingHelper;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 public class ExplorationStrategy {
+	private static final Logger logger = Logger.getLogger(ExplorationStrategy.class.getName());
 	private static final int REGION_SIZE = 4;
-	private final Random random = new Random();
-	private final Set<Point> visitedPositions = new HashSet<>();
+	private final RandomSource random;
+	private final PositionSet visitedPositions = new PositionSet();
+	private final PositionSet seenPositions = new PositionSet();
 	private final Map<String, Integer> regionExplorationCount = new HashMap<>();
 	private final List<Point> systematicExplorationPoints = new ArrayList<>();
 	private int currentExplorationIndex = 0;
@@ -31,12 +35,80 @@ public class ExplorationStrategy {
 
 	private ZoneDimension ownZone;
 	private ZoneDimension enemyZone;
+	// Fields of each half, built once in initializeHalfInfo and never changed
+	// afterwards, so copies share them. relevantZoneCells is the one for the
+	// current phase, or null while the halves are unknown.
+	private PositionSet ownZoneCells = null;
+	private PositionSet enemyZoneCells = null;
+	private PositionSet relevantZoneCells = null;
+	private ViewpointCover viewpointCover = null;
+
+	public ExplorationStrategy() {
+		this(RandomSource.create());
+	}
+
+	public ExplorationStrategy(RandomSource random) {
+		this.random = random;
+	}
 
+	/**
+	 * Copy with the same exploration progress and half information. Its random
+	 * source continues from the same state as the original's.
+	 */
+	public ExplorationStrategy(ExplorationStrategy other) {
+		this.random = other.random.copy();
+		this.visitedPositions.addAll(other.visitedPositions);
+		this.seenPositions.addAll(other.seenPositions);
+		this.regionExplorationCount.putAll(other.regionExplorationCount);
+		this.systematicExplorationPoints.addAll(other.systematicExplorationPoints);
+		this.currentExplorationIndex = other.currentExplorationIndex;
+		this.hasInitializedExploration = other.hasInitializedExploration;
+		this.splitOrientation = other.splitOrientation;
+		this.myHalf = other.myHalf;
+		this.hasTreasure = other.hasTreasure;
+		this.halfInfoInitialized = other.halfInfoInitialized;
+		this.initialPosition = other.initialPosition;
+		this.ownZone = other.ownZone;
+		this.enemyZone = other.enemyZone;
+		this.ownZoneCells = other.ownZoneCells;
+		this.enemyZoneCells = other.enemyZoneCells;
+		this.relevantZoneCells = other.relevantZoneCells;
+	}
+
+	/**
+	 * Marks {@code position} visited without recording anything as seen, for
+	 * fields that only count as explored.
+	 */
 	public void markVisited(Point position) {
 		visitedPositions.add(position);
 		markRegionExplored(position);
 	}
 
+	/**
+	 * Marks {@code position} visited and everything in sight from it seen: the
+	 * eight surrounding fields from a mountain, only the field itself otherwise.
+	 * Viewpoint planning relies on the seen fields, so only actual sight goes
+	 * here.
+	 */
+	public void markVisited(Point position, GameMap map) {
+		markVisited(position);
+		seenPositions.add(position);
+		Optional<MapNode> node = map.getNode(position);
+		if (node.isPresent() && node.get().getTerrain() == Terrain.MOUNTAIN) {
+			for (int dx = -1; dx <= 1; dx++) {
+				for (int dy = -1; dy <= 1; dy++) {
+					if (map.getNode(position.x + dx, position.y + dy).isPresent()) {
+						seenPositions.add(position.x + dx, position.y + dy);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Forgets which fields were visited, so they are explored again. What was
+	 * seen stays known.
+	 */
 	public void clearVisited() {
 		visitedPositions.clear();
 		regionExplorationCount.clear();
@@ -47,7 +119,11 @@ public class ExplorationStrategy {
 	}
 
 	public Set<Point> getVisitedPositions() {
-		return new HashSet<>(visitedPositions);
+		return visitedPositions.toSet();
+	}
+
+	public boolean hasSeen(Point position) {
+		return seenPositions.contains(position);
 	}
 
 	public Optional<MapNode> getNextExplorationTarget(GameMap map, Point currentPosition) {
@@ -159,7 +235,7 @@ public class ExplorationStrategy {
 
 			for (int dx = -visibilityRadius; dx <= visibilityRadius; dx++) {
 				for (int dy = -visibilityRadius; dy <= visibilityRadius; dy++) {
-					Point neighbor = new Point(mountainPos.x + dx, mountainPos.y + dy);
+					Point neighbor = Point.of(mountainPos.x + dx, mountainPos.y + dy);
 
 					if (neighbor.x < 0 || neighbor.x >= mapWidth || neighbor.y < 0 || neighbor.y >= mapHeight) {
 						continue;
@@ -225,8 +301,10 @@ public class ExplorationStrategy {
 			}
 		}
 
-		System.out.println("Best mountain evaluation: "
-				+ (bestMountain != null ? bestMountain.getPosition() + " with score " + bestScore : "None found"));
+		if (logger.isLoggable(Level.FINE)) {
+			logger.fine("Best mountain evaluation: "
+					+ (bestMountain != null ? bestMountain.getPosition() + " with score " + bestScore : "None found"));
+		}
 
 		return Optional.ofNullable(bestMountain);
 	}
@@ -235,61 +313,47 @@ public class ExplorationStrategy {
 		return getPrioritizedExplorationTargets(map, currentPos, false);
 	}
 
+	/**
+	 * Unvisited traversable fields, nearest first. Among fields at the same
+	 * distance, unvisited mountains come first, then the frontier (fields next
+	 * to a visited one), then the rest, each in map order.
+	 */
 	public List<MapNode> getPrioritizedExplorationTargets(GameMap map, Point currentPos, boolean prioritizeMyHalf) {
-		List<MapNode> targets = new ArrayList<>();
-
-		for (MapNode node : map.getAllNodes()) {
-			if (node.getTerrain() == Terrain.MOUNTAIN && !hasVisited(node.getPosition())) {
-				if (!prioritizeMyHalf || isInRelevantHalf(node.getPosition(), map)) {
-					targets.add(node);
+		PositionSet candidates = new PositionSet();
+		PositionSet mountains = new PositionSet();
+		for (int cell = 0; cell < map.getCellCount(); cell++) {
+			if (map.isTraversable(cell)) {
+				candidates.add(map.getCellX(cell), map.getCellY(cell));
+				if (map.getTerrainAt(cell) == Terrain.MOUNTAIN) {
+					mountains.add(map.getCellX(cell), map.getCellY(cell));
 				}
 			}
 		}
-
-		Set<Point> frontierPoints = new HashSet<>();
-		for (MapNode node : map.getAllNodes()) {
-			Point pos = node.getPosition();
-			if (hasVisited(pos)) {
-				for (Direction dir : Direction.values()) {
-					Point neighborPos = dir.move(pos);
-					Optional<MapNode> neighborOpt = map.getNode(neighborPos);
-					if (neighborOpt.isPresent() && neighborOpt.get().isTraversable() && !hasVisited(neighborPos)) {
-						if (!prioritizeMyHalf || isInRelevantHalf(neighborPos, map)) {
-							frontierPoints.add(neighborPos);
-						}
-					}
-				}
-			}
+		if (prioritizeMyHalf && relevantZoneCells != null) {
+			candidates.retainAll(relevantZoneCells);
+			mountains.retainAll(relevantZoneCells);
 		}
-		for (Point point : frontierPoints) {
-			Optional<MapNode> nodeOpt = map.getNode(point);
-			if (nodeOpt.isPresent()) {
-				targets.add(nodeOpt.get());
+		candidates.removeAll(visitedPositions);
+		mountains.removeAll(visitedPositions);
+		PositionSet frontier = visitedPositions.neighbours();
+		frontier.retainAll(candidates);
+
+		List<MapNode> targets = new ArrayList<>(candidates.size());
+		for (int cell = 0; cell < map.getCellCount(); cell++) {
+			if (map.hasNode(cell) && candidates.contains(map.getCellX(cell), map.getCellY(cell))) {
+				targets.add(map.getNodeAt(cell));
 			}
 		}
-		for (MapNode node : map.getAllNodes()) {
-			if (node.isTraversable() && !hasVisited(node.getPosition()) && !targets.contains(node)) {
-				if (!prioritizeMyHalf || isInRelevantHalf(node.getPosition(), map)) {
-					targets.add(node);
-				}
-			}
-		}
-		targets.sort((a, b) -> {
-			int distA = currentPos.manhattanDistance(a.getPosition());
-			int distB = currentPos.manhattanDistance(b.getPosition());
-			if (distA == distB) {
-				return Integer.compare(a.hashCode(), b.hashCode());
-			}
-			return Integer.compare(distA, distB);
-		});
+		targets.sort(Comparator.comparingInt((MapNode node) -> currentPos.manhattanDistance(node.getPosition()))
+				.thenComparingInt(node -> mountains.contains(node.getPosition()) ? 0
+						: frontier.contains(node.getPosition()) ? 1 : 2));
 
 		if (prioritizeMyHalf && targets.isEmpty()) {
 			if (!hasTreasure) {
-				System.out.println(
-						"No targets found in OWN half. Returning empty list (will trigger fallback in MovementStrategy).");
+				logger.fine("No targets found in OWN half. Returning empty list (will trigger fallback in MovementStrategy).");
 				return Collections.emptyList();
 			} else {
-				System.out.println("No targets found in ENEMY half after getting treasure. Returning empty list.");
+				logger.fine("No targets found in ENEMY half after getting treasure. Returning empty list.");
 				return Collections.emptyList();
 			}
 		}
@@ -310,12 +374,14 @@ public class ExplorationStrategy {
 			splitOrientation = SplitOrientation.HORIZONTAL;
 		} else {
 			splitOrientation = SplitOrientation.HORIZONTAL;
-			System.out.println("Map is Square (10x10). Setting split to HORIZONTAL.");
+			logger.fine("Map is Square (10x10). Setting split to HORIZONTAL.");
 		}
 		if (splitOrientation == SplitOrientation.VERTICAL) {
 			double midX = (width - 1.0) / 2.0;
 			myHalf = (initialPosition.x <= midX) ? MapHalf.LEFT : MapHalf.RIGHT;
-			System.out.println("Initializing half: " + myHalf + " (Vertical Split, MidX: " + midX + ")");
+			if (logger.isLoggable(Level.FINE)) {
+				logger.fine("Initializing half: " + myHalf + " (Vertical Split, MidX: " + midX + ")");
+			}
 
 			if (myHalf == MapHalf.LEFT) {
 				ownZone = new ZoneDimension(0, (int) Math.floor(midX), 0, height - 1);
@@ -327,7 +393,9 @@ public class ExplorationStrategy {
 		} else {
 			double midY = (height - 1.0) / 2.0;
 			myHalf = (initialPosition.y <= midY) ? MapHalf.TOP : MapHalf.BOTTOM;
-			System.out.println("Initializing half: " + myHalf + " (Horizontal Split, MidY: " + midY + ")");
+			if (logger.isLoggable(Level.FINE)) {
+				logger.fine("Initializing half: " + myHalf + " (Horizontal Split, MidY: " + midY + ")");
+			}
 			if (myHalf == MapHalf.TOP) {
 				ownZone = new ZoneDimension(0, width - 1, 0, (int) Math.floor(midY));
 				enemyZone = new ZoneDimension(0, width - 1, (int) Math.ceil(midY), height - 1);
@@ -337,238 +405,158 @@ public class ExplorationStrategy {
 			}
 		}
 
-		System.out.println("Own half boundaries: X[" + ownZone.getXMin() + "," + ownZone.getXMax() + "] Y["
-				+ ownZone.getYMin() + "," + ownZone.getYMax() + "]");
-		System.out.println("Enemy half boundaries: X[" + enemyZone.getXMin() + "," + enemyZone.getXMax() + "] Y["
-				+ enemyZone.getYMin() + "," + enemyZone.getYMax() + "]");
+		if (logger.isLoggable(Level.FINE)) {
+			logger.fine("Own half boundaries: X[" + ownZone.getXMin() + "," + ownZone.getXMax() + "] Y["
+					+ ownZone.getYMin() + "," + ownZone.getYMax() + "]");
+			logger.fine("Enemy half boundaries: X[" + enemyZone.getXMin() + "," + enemyZone.getXMax() + "] Y["
+					+ enemyZone.getYMin() + "," + enemyZone.getYMax() + "]");
+		}
 
+		ownZoneCells = PositionSet.of(ownZone);
+		enemyZoneCells = PositionSet.of(enemyZone);
+		relevantZoneCells = hasTreasure ? enemyZoneCells : ownZoneCells;
 		halfInfoInitialized = true;
 	}
 
 	public void setHasTreasure(boolean hasTreasure) {
 		boolean wasChanged = (this.hasTreasure != hasTreasure);
 		this.hasTreasure = hasTreasure;
+		if (halfInfoInitialized) {
+			relevantZoneCells = hasTreasure ? enemyZoneCells : ownZoneCells;
+		}
 		if (wasChanged && hasTreasure) {
-			System.out.println("===== STRATEGY TRANSITION: TREASURE FOUND =====");
-			System.out.println("Switching from OWN half exploration to ENEMY half exploration");
-			System.out.println("Enemy half boundaries: X[" + enemyZone.getXMin() + "," + enemyZone.getXMax() + "] Y["
-					+ enemyZone.getYMin() + "," + enemyZone.getYMax() + "]");
-			Set<Point> visitedCopy = new HashSet<>(visitedPositions);
-			int clearedPositions = 0;
-
-			for (Point p : visitedCopy) {
-				if (enemyZone.contains(p)) {
-					visitedPositions.remove(p);
-					if (clearedPositions > 20) {
-						break;
-					}
-				}
+			if (logger.isLoggable(Level.FINE)) {
+				logger.fine("===== STRATEGY TRANSITION: TREASURE FOUND =====");
+				logger.fine("Switching from OWN half exploration to ENEMY half exploration");
+				logger.fine("Enemy half boundaries: X[" + enemyZone.getXMin() + "," + enemyZone.getXMax() + "] Y["
+						+ enemyZone.getYMin() + "," + enemyZone.getYMax() + "]");
 			}
+			int clearedPositions = visitedPositions.size();
+			visitedPositions.removeAll(enemyZoneCells);
+			clearedPositions -= visitedPositions.size();
 
-			System.out.println(
-					"Cleared " + clearedPositions + " visited positions in enemy half to encourage exploration");
+			if (logger.isLoggable(Level.FINE)) {
+				logger.fine("Cleared " + clearedPositions + " visited positions in enemy half to encourage exploration");
+			}
 		}
 	}
 
+	/**
+	 * Whether {@code point} lies in the half explored in the current phase: our
+	 * own before the treasure is found, the enemy's afterwards. Always true
+	 * while the halves are unknown.
+	 */
 	public boolean isInRelevantHalf(Point point, GameMap map) {
-		System.out.println("[Debug] isInRelevantHalf called for point: " + point + ", hasTreasure: " + hasTreasure
-				+ ", halfInfoInitialized: " + halfInfoInitialized + ", myHalf: " + myHalf + ", ownZone: "
-				+ (ownZone != null ? ownZone : "null") + ", enemyZone: " + (enemyZone != null ? enemyZone : "null"));
-
-		if (!halfInfoInitialized || myHalf == null) {
-			System.err.println("WARN: Half info not initialized, allowing move.");
-			System.out.println("[Debug] isInRelevantHalf returning TRUE (uninitialized)"); // DEBUG LOG
-			return true;
-		}
-
-		boolean result;
-		if (hasTreasure) {
-			result = enemyZone.contains(point);
-
-			System.out.println("[Debug] isInRelevantHalf (Treasure Phase) checking enemyZone " + enemyZone
-					+ ". Contains(" + point + ")? -> " + result);
-
-		} else {
-			result = ownZone.contains(point);
-
-			System.out.println("[Debug] isInRelevantHalf (No Treasure Phase) checking ownZone " + ownZone
-					+ ". Contains(" + point + ")? -> " + result);
-		}
-		return result;
+		return isInRelevantHalf(point.x, point.y);
 	}
 
-	private Set<Point> getSightRange(MapNode viewpoint, GameMap map) {
-		Set<Point> visibleGrass = new HashSet<>();
-		Point pos = viewpoint.getPosition();
-		Terrain terrain = viewpoint.getTerrain();
-
-		if (terrain == Terrain.MOUNTAIN) {
-			for (int dx = -1; dx <= 1; dx++) {
-				for (int dy = -1; dy <= 1; dy++) {
-					Point potentialTarget = new Point(pos.x + dx, pos.y + dy);
-					Optional<MapNode> targetNodeOpt = map.getNode(potentialTarget);
-					if (targetNodeOpt.isPresent() && targetNodeOpt.get().getTerrain() == Terrain.GRASS) {
-						visibleGrass.add(potentialTarget);
-					}
-				}
-			}
-		} else if (terrain == Terrain.GRASS) {
-			visibleGrass.add(pos);
+	/**
+	 * Called for every edge A* relaxes, so this is a single bit test and all
+	 * logging is guarded.
+	 */
+	public boolean isInRelevantHalf(int x, int y) {
+		boolean result = relevantZoneCells == null || relevantZoneCells.contains(x, y);
+		if (logger.isLoggable(Level.FINEST)) {
+			logger.finest("isInRelevantHalf(" + x + "," + y + ") in " + (hasTreasure ? "enemy" : "own")
+					+ " half " + getRelevantZone() + " -> " + result);
 		}
-		return visibleGrass;
+		return result;
 	}
 
-	private Set<MapNode> identifyPotentialViewpoints(GameMap map) {
-		Set<MapNode> viewpoints = new HashSet<>();
-		for (MapNode node : map.getAllNodes()) {
-			if (node.getTerrain() == Terrain.GRASS || node.getTerrain() == Terrain.MOUNTAIN) {
-				viewpoints.add(node);
-			}
+	/**
+	 * Viewpoints from which every unseen grass field of the relevant half
+	 * comes into sight, as few as could be found before {@code deadlineNanos}.
+	 * The cover is recomputed only when the seen fields or the half change.
+	 */
+	private Set<MapNode> findNecessaryViewpoints(GameMap map, long deadlineNanos) {
+		if (viewpointCover == null || !viewpointCover.matches(map)) {
+			viewpointCover = ViewpointCover.build(map);
 		}
-		return viewpoints;
-	}
-
-	private Set<Point> identifyTargetFields(GameMap map) {
-		Set<Point> targetFields = new HashSet<>();
-		for (MapNode node : map.getAllNodes()) {
-			if (node.getTerrain() == Terrain.GRASS) {
-				targetFields.add(node.getPosition());
-			}
+		int[] cells = viewpointCover.cover(map, seenPositions, relevantZoneCells, deadlineNanos);
+		if (logger.isLoggable(Level.FINE)) {
+			logger.fine("Viewpoint cover: " + cells.length + " viewpoints ("
+					+ (viewpointCover.isLastCoverOptimal() ? "minimum" : "greedy") + ")");
 		}
-		return targetFields;
-	}
-
-	private Set<MapNode> findNecessaryViewpoints(GameMap map) {
-		Set<Point> uncoveredFields = identifyTargetFields(map);
-		Set<MapNode> potentialViewpoints = identifyPotentialViewpoints(map);
-		Set<MapNode> necessaryViewpoints = new HashSet<>();
 
-		while (!uncoveredFields.isEmpty() && !potentialViewpoints.isEmpty()) {
-			MapNode bestViewpoint = null;
-			Set<Point> bestCoverage = new HashSet<>();
-			for (MapNode viewpoint : potentialViewpoints) {
-				Set<Point> currentCoverage = getSightRange(viewpoint, map);
-				currentCoverage.retainAll(uncoveredFields);
-
-				if (currentCoverage.size() > bestCoverage.size()) {
-					bestCoverage = currentCoverage;
-					bestViewpoint = viewpoint;
-				}
-			}
-
-			if (bestViewpoint != null) {
-				necessaryViewpoints.add(bestViewpoint);
-				uncoveredFields.removeAll(bestCoverage);
-				potentialViewpoints.remove(bestViewpoint);
-			} else {
-				break;
-			}
+		Set<MapNode> necessaryViewpoints = new LinkedHashSet<>();
+		for (int cell : cells) {
+			necessaryViewpoints.add(map.getNodeAt(cell));
 		}
-
-		if (!uncoveredFields.isEmpty()) {
-			System.err.println("WARN: Could not cover all grass fields. Remaining: " + uncoveredFields.size());
-		}
-
 		return necessaryViewpoints;
 	}
 
 	public List<Direction> generateCoveragePath(GameMap map, Point currentPosition, PathFinder pathFinder,
 			long timeBudgetMillis) {
-		Set<MapNode> necessaryViewpoints = findNecessaryViewpoints(map);
-		Set<MapNode> viewpointsToVisit;
-
-		System.out.println("Generating coverage path: hasTreasure=" + this.hasTreasure);
-
-		if (this.hasTreasure) {
-			System.out.println("Filtering coverage viewpoints for ENEMY half exploration");
-			viewpointsToVisit = necessaryViewpoints.stream().filter(vp -> isInRelevantHalf(vp.getPosition(), map))
-					.collect(Collectors.toSet());
-			if (viewpointsToVisit.isEmpty() && !necessaryViewpoints.isEmpty()) {
-				System.out.println(
-						"WARN: No necessary viewpoints found in enemy half, using all necessary viewpoints as fallback.");
-				viewpointsToVisit = necessaryViewpoints;
-			}
-		} else {
-			System.out.println("Filtering coverage viewpoints for OWN half exploration");
-			viewpointsToVisit = necessaryViewpoints.stream().filter(vp -> isInRelevantHalf(vp.getPosition(), map))
-					.collect(Collectors.toSet());
-			if (viewpointsToVisit.isEmpty() && !necessaryViewpoints.isEmpty()) {
-				System.out.println(
-						"WARN: No necessary viewpoints found in own half, using all necessary viewpoints as fallback.");
-				viewpointsToVisit = necessaryViewpoints;
-			}
+		if (logger.isLoggable(Level.FINE)) {
+			logger.fine("Generating coverage path: hasTreasure=" + this.hasTreasure);
 		}
 
-		System.out.println("Coverage Path starting with " + viewpointsToVisit.size() + " viewpoints in "
-				+ (this.hasTreasure ? "ENEMY" : "OWN") + " half.");
+		// The cover may use up to a quarter of the budget; after that the
+		// greedy cover is used.
+		long coverDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeBudgetMillis) / 4;
+		Set<MapNode> viewpointsToVisit = findNecessaryViewpoints(map, coverDeadline);
 
-		List<Direction> fullPath = new ArrayList<>();
-		Point currentPoint = currentPosition;
-		long pathStartTime = System.currentTimeMillis();
+		if (logger.isLoggable(Level.FINE)) {
+			logger.fine("Coverage Path starting with " + viewpointsToVisit.size() + " viewpoints in "
+					+ (this.hasTreasure ? "ENEMY" : "OWN") + " half.");
+		}
 
-		while (!viewpointsToVisit.isEmpty()) {
-			long elapsedTime = System.currentTimeMillis() - pathStartTime;
-			if (elapsedTime >= timeBudgetMillis) {
-				System.out.println("WARN: Time budget exceeded during coverage path generation.");
-				break;
+		// Order the viewpoints by true terrain distance, then search each leg
+		// with the visited and off-half penalties.
+		long pathStartTime = System.currentTimeMillis();
+		DistanceOracle oracle = pathFinder.getDistanceOracle(map);
+		int startCell = map.indexOf(currentPosition);
+		int[] stops = new int[viewpointsToVisit.size()];
+		int stopCount = 0;
+		for (MapNode viewpoint : viewpointsToVisit) {
+			int cell = map.indexOf(viewpoint.getPosition());
+			if (cell != startCell && oracle.isReachable(startCell, cell)) {
+				stops[stopCount++] = cell;
+			} else if (cell != startCell) {
+				logger.fine(() -> "Skipping unreachable viewpoint " + viewpoint.getPosition());
 			}
-			long remainingBudget = timeBudgetMillis - elapsedTime;
-			List<MapNode> sortedViewpoints = new ArrayList<>(viewpointsToVisit);
-			final Point effectivelyFinalCurrentPoint = currentPoint;
-			sortedViewpoints.sort(Comparator.comparingInt(vp -> PathfindingHelper
-					.calculateManhattanDistance(effectivelyFinalCurrentPoint, vp.getPosition())));
-
-			MapNode targetViewpoint = null;
-			List<Direction> segmentPath = Collections.emptyList();
-			for (MapNode potentialTarget : sortedViewpoints) {
-				if (potentialTarget.getPosition().equals(currentPoint)) {
-					System.out
-							.println("DEBUG: Skipping viewpoint target that is the current position: " + currentPoint);
-					continue;
-				}
+		}
 
-				long segmentBudget = Math.max(75, remainingBudget / (viewpointsToVisit.size() + 1)); // Min 75ms or
-																										// proportional
-				segmentPath = pathFinder.findPath(map, currentPoint, potentialTarget.getPosition(), segmentBudget,
-						visitedPositions);
+		long tourDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeBudgetMillis) / 4;
+		int[] tour = TourPlanner.plan(oracle, startCell, Arrays.copyOf(stops, stopCount), tourDeadline);
+		if (logger.isLoggable(Level.FINE)) {
+			logger.fine("Coverage tour over " + tour.length + " viewpoints, terrain cost "
+					+ TourPlanner.length(oracle, startCell, tour));
+		}
 
-				if (!segmentPath.isEmpty()) {
-					targetViewpoint = potentialTarget;
-					break;
-				} else {
-					System.err.println("WARN: Could not find path segment to viewpoint " + potentialTarget.getPosition()
-							+ ". Trying next closest...");
-				}
+		List<Direction> fullPath = new ArrayList<>();
+		Set<Point> visited = visitedPositions.toSet();
+		int previous = startCell;
+		for (int leg = 0; leg < tour.length; leg++) {
+			Point from = map.getCellPosition(previous);
+			Point to = map.getCellPosition(tour[leg]);
+			long remainingBudget = timeBudgetMillis - (System.currentTimeMillis() - pathStartTime);
+			List<Direction> segmentPath = Collections.emptyList();
+			if (remainingBudget > 0) {
+				long segmentBudget = Math.max(75, remainingBudget / (tour.length - leg + 1));
+				segmentPath = pathFinder.findPath(map, from, to, segmentBudget, visited, this);
 			}
-
-			if (targetViewpoint == null) {
-				System.err.println(
-						"WARN: Could not find path segment to any remaining valid viewpoints. Removing closest and continuing.");
-				if (!sortedViewpoints.isEmpty()) {
-					MapNode originallyClosest = sortedViewpoints.get(0);
-					if (!originallyClosest.getPosition().equals(currentPoint)) {
-						viewpointsToVisit.remove(originallyClosest);
-					} else if (sortedViewpoints.size() > 1) {
-						for (int i = 1; i < sortedViewpoints.size(); i++) {
-							MapNode nextClosest = sortedViewpoints.get(i);
-							if (!nextClosest.getPosition().equals(currentPoint)) {
-								viewpointsToVisit.remove(nextClosest);
-								break;
-							}
-						}
-					}
-				}
-				continue;
-			} else {
-				fullPath.addAll(segmentPath);
-				currentPoint = targetViewpoint.getPosition();
-				viewpointsToVisit.remove(targetViewpoint);
+			if (!leadsTo(from, segmentPath, to)) {
+				logger.fine(() -> "No penalised path segment to viewpoint " + to + ", using the cheapest path");
+				segmentPath = oracle.path(map, from, to);
 			}
+			fullPath.addAll(segmentPath);
+			previous = tour[leg];
 		}
-
 		return fullPath;
 	}
 
+	private static boolean leadsTo(Point from, List<Direction> path, Point to) {
+		if (path.isEmpty()) {
+			return false;
+		}
+		Point current = from;
+		for (Direction step : path) {
+			current = step.move(current);
+		}
+		return current.equals(to);
+	}
+
 	public boolean isHalfInfoInitialized() {
 		return halfInfoInitialized;
 	}
@@ -612,6 +600,15 @@ public class ExplorationStrategy {
 		return hasTreasure ? enemyZone : ownZone;
 	}
 
+	/**
+	 * Fields of the half explored in the current phase, or null while the
+	 * halves are unknown. The set is shared and must not be modified; a new
+	 * phase returns a different instance.
+	 */
+	public PositionSet getRelevantZoneCells() {
+		return relevantZoneCells;
+	}
+
 	public ZoneDimension getOwnZone() {
 		return ownZone;
 	}
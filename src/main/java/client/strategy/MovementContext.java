@@ -9,7 +9,7 @@ public class MovementContext {
 	private final PathFinder pathFinder;
 	private final ExplorationStrategy explorationStrategy;
 	private final FortBacktracker fortBacktracker;
-	private final Random random = new Random();
+	private final RandomSource random;
 
 	private List<Direction> currentPath = new ArrayList<>();
 	private final LinkedHashSet<Point> recentlyVisited = new LinkedHashSet<>();
@@ -23,10 +23,34 @@ public class MovementContext {
 	private static final int MAX_RECENT_POSITIONS = 15;
 
 	public MovementContext() {
+		this(RandomSource.create());
+	}
+
+	public MovementContext(RandomSource random) {
+		this.random = random;
 		this.state = new SearchingForTreasureState();
 		this.pathFinder = new PathFinder();
-		this.explorationStrategy = new ExplorationStrategy();
-		this.fortBacktracker = new FortBacktracker();
+		this.explorationStrategy = new ExplorationStrategy(random.split());
+		this.fortBacktracker = new FortBacktracker(pathFinder);
+	}
+
+	/**
+	 * Independent copy for speculative planning, with its own path finder and
+	 * copies of all mutable state.
+	 */
+	public MovementContext(MovementContext other) {
+		this.random = other.random.copy();
+		this.state = other.state;
+		this.pathFinder = new PathFinder(other.pathFinder);
+		this.explorationStrategy = new ExplorationStrategy(other.explorationStrategy);
+		this.fortBacktracker = new FortBacktracker(other.fortBacktracker, pathFinder);
+		this.currentPath = new ArrayList<>(other.currentPath);
+		this.recentlyVisited.addAll(other.recentlyVisited);
+		this.failedMoveAttempts.putAll(other.failedMoveAttempts);
+		this.unreachablePositions.addAll(other.unreachablePositions);
+		this.lastPosition = other.lastPosition;
+		this.lastAttemptedDirection = other.lastAttemptedDirection;
+		this.cycleDetectionTimestamp = other.cycleDetectionTimestamp;
 	}
 
 	public Direction calculateNextMove(GameState gameState, String playerId, long timeBudgetMillis) {
@@ -12,7 +12,8 @@ public interface MovementState {
 class SearchingForTreasureState implements MovementState {
 	@Override
 	public Direction handle(MovementContext context, GameState gameState, String playerId) {
-		if (gameState.getMap().getTreasurePosition().isPresent()) {
+		MapEntities entities = gameState.getMap().getEntities();
+		if (entities.getTreasure().isPresent()) {
 			System.out.println("Treasure located. Switching to moving to treasure state.");
 			context.setState(new MovingToTreasureState());
 			return context.getState().handle(context, gameState, playerId);
@@ -22,7 +23,7 @@ class SearchingForTreasureState implements MovementState {
 			return context.followPath(gameState);
 		}
 		System.out.println("Calculating exploration path to find treasure...");
-		Point currentPos = gameState.getMap().getPlayerPosition().get().getPosition();
+		Point currentPos = entities.getPlayer().get().getPosition();
 		List<Direction> explorationPath = context.calculateExplorationPath(gameState, currentPos);
 
 		if (!explorationPath.isEmpty()) {
@@ -36,22 +37,23 @@ class SearchingForTreasureState implements MovementState {
 class MovingToTreasureState implements MovementState {
 	@Override
 	public Direction handle(MovementContext context, GameState gameState, String playerId) {
+		MapEntities entities = gameState.getMap().getEntities();
 		if (gameState.hasCollectedTreasure(playerId)) {
 			System.out.println("Treasure collected. Switching to moving to fort state.");
 			context.setState(new MovingToEnemyFortState());
 			return context.getState().handle(context, gameState, playerId);
 		}
 
-		if (!gameState.getMap().getTreasurePosition().isPresent() || context.getCurrentPath().isEmpty()) {
-			if (!gameState.getMap().getTreasurePosition().isPresent()) {
+		if (!entities.getTreasure().isPresent() || context.getCurrentPath().isEmpty()) {
+			if (!entities.getTreasure().isPresent()) {
 				System.out.println("Lost sight of treasure. Switching back to searching state.");
 				context.setState(new SearchingForTreasureState());
 				return context.getState().handle(context, gameState, playerId);
 			}
 
 			System.out.println("Calculating path to treasure...");
-			Point currentPos = gameState.getMap().getPlayerPosition().get().getPosition();
-			Point treasurePos = gameState.getMap().getTreasurePosition().get().getPosition();
+			Point currentPos = entities.getPlayer().get().getPosition();
+			Point treasurePos = entities.getTreasurePosition();
 			List<Direction> pathToTreasure = context.calculateDirectPath(gameState, currentPos, treasurePos);
 
 			if (!pathToTreasure.isEmpty()) {
@@ -70,6 +72,7 @@ class MovingToTreasureState implements MovementState {
 class MovingToEnemyFortState implements MovementState {
 	@Override
 	public Direction handle(MovementContext context, GameState gameState, String playerId) {
+		MapEntities entities = gameState.getMap().getEntities();
 		if (!gameState.hasCollectedTreasure(playerId)) {
 			System.out.println("Lost treasure. Switching back to searching state.");
 			context.setState(new SearchingForTreasureState());
@@ -77,10 +80,10 @@ class MovingToEnemyFortState implements MovementState {
 		}
 
 		if (context.getCurrentPath().isEmpty()) {
-			if (gameState.getMap().getEnemyFortPosition().isPresent()) {
+			if (entities.getEnemyFort().isPresent()) {
 				System.out.println("Calculating path to enemy fort...");
-				Point currentPos = gameState.getMap().getPlayerPosition().get().getPosition();
-				Point fortPos = gameState.getMap().getEnemyFortPosition().get().getPosition();
+				Point currentPos = entities.getPlayer().get().getPosition();
+				Point fortPos = entities.getEnemyFortPosition();
 				List<Direction> pathToFort = context.calculateDirectPath(gameState, currentPos, fortPos);
 
 				if (!pathToFort.isEmpty()) {
@@ -92,7 +95,7 @@ class MovingToEnemyFortState implements MovementState {
 				}
 			} else {
 				System.out.println("Enemy fort not visible. Trying to locate it.");
-				Point currentPos = gameState.getMap().getPlayerPosition().get().getPosition();
+				Point currentPos = entities.getPlayer().get().getPosition();
 				Optional<Point> predictedFort = context.getPredictedFortPosition();
 				if (predictedFort.isPresent()) {
 					List<Direction> pathToPredictedFort = context.calculateDirectPath(gameState, currentPos,
@@ -5,11 +5,14 @@ import client.pathfinding.PathFinder;
 import client.pathfinding.FortBacktracker;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
 
 public class MovementStrategy {
+	private static final Logger logger = Logger.getLogger(MovementStrategy.class.getName());
 	private static final boolean DEBUG = false;
+	private static final boolean USE_INDEXED_ASTAR = true;
 
-	private final Random random = new Random();
+	private final RandomSource random;
 	private final PathFinder pathFinder;
 	private final ExplorationStrategy explorationStrategy;
 	private final FortBacktracker fortBacktracker;
@@ -23,6 +26,10 @@ public class MovementStrategy {
 	private Direction currentOngoingMove = null;
 	private int remainingActionsForMove = 0;
 	private Point targetPosition = null;
+	private Point highPriorityTarget = null;
+	private Point expectedPosition = null;
+	private Point expectedStepOrigin = null;
+	private Direction expectedStep = null;
 	private int stuckCounter = 0;
 	private int consecutiveRandomMoves = 0;
 	private boolean exploringRandomly = false;
@@ -33,17 +40,61 @@ public class MovementStrategy {
 	private static final int MAX_CONSECUTIVE_RANDOM = 3;
 	private static final int MAX_RANDOM_EXPLORATION = 5;
 	private static final int MAX_FAILED_ATTEMPTS = 2;
+	// Changes after which a stored high-priority path may no longer lead to
+	// the target; player and enemy moves leave terrain and target alone.
+	private static final Set<MapChange> PATH_INVALIDATING_CHANGES = EnumSet.of(MapChange.FULL_REFRESH,
+			MapChange.TREASURE_REVEALED, MapChange.TREASURE_COLLECTED, MapChange.ENEMY_FORT_REVEALED,
+			MapChange.FORT_CHANGED);
 	private long lastDrasticUnstuckTime = 0;
 	private static final long DRASTIC_UNSTUCK_COOLDOWN_MS = 5000;
 
-	private final MovementContext movementContext = new MovementContext();
+	private final MovementContext movementContext;
 
 	private int currentGameRound = 0;
 
 	public MovementStrategy() {
-		this.pathFinder = new PathFinder();
-		this.explorationStrategy = new ExplorationStrategy();
-		this.fortBacktracker = new FortBacktracker();
+		this(RandomSource.create());
+	}
+
+	public MovementStrategy(RandomSource random) {
+		this.random = random;
+		this.pathFinder = new PathFinder(USE_INDEXED_ASTAR);
+		this.explorationStrategy = new ExplorationStrategy(random.split());
+		this.movementContext = new MovementContext(random.split());
+		this.fortBacktracker = new FortBacktracker(pathFinder);
+	}
+
+	/**
+	 * Independent copy for speculative planning: calls on the copy leave this
+	 * instance untouched, so the copy may plan on another thread while this
+	 * instance keeps playing. The copy has its own path finder, which shares
+	 * only the immutable edge cost table and distance oracle.
+	 */
+	public MovementStrategy(MovementStrategy other) {
+		this.random = other.random.copy();
+		this.pathFinder = new PathFinder(other.pathFinder);
+		this.explorationStrategy = new ExplorationStrategy(other.explorationStrategy);
+		this.movementContext = new MovementContext(other.movementContext);
+		this.fortBacktracker = new FortBacktracker(other.fortBacktracker, pathFinder);
+		this.unreachablePositions.addAll(other.unreachablePositions);
+		this.recentlyVisited.addAll(other.recentlyVisited);
+		this.failedMoveAttempts.putAll(other.failedMoveAttempts);
+		this.currentPath = new ArrayList<>(other.currentPath);
+		this.lastPosition = other.lastPosition;
+		this.lastAttemptedDirection = other.lastAttemptedDirection;
+		this.currentOngoingMove = other.currentOngoingMove;
+		this.remainingActionsForMove = other.remainingActionsForMove;
+		this.targetPosition = other.targetPosition;
+		this.highPriorityTarget = other.highPriorityTarget;
+		this.expectedPosition = other.expectedPosition;
+		this.expectedStepOrigin = other.expectedStepOrigin;
+		this.expectedStep = other.expectedStep;
+		this.stuckCounter = other.stuckCounter;
+		this.consecutiveRandomMoves = other.consecutiveRandomMoves;
+		this.exploringRandomly = other.exploringRandomly;
+		this.randomExplorationMoves = other.randomExplorationMoves;
+		this.lastDrasticUnstuckTime = other.lastDrasticUnstuckTime;
+		this.currentGameRound = other.currentGameRound;
 	}
 
 	public Direction calculateNextMove(GameState gameState, String playerId, Long timeoutMillis) {
@@ -90,7 +141,7 @@ public class MovementStrategy {
 				return multiActionMove;
 			}
 
-			explorationStrategy.markVisited(currentPos);
+			explorationStrategy.markVisited(currentPos, gameState.getMap());
 
 			Optional<MapNode> enhancedVisibility = checkMountainVisibility(gameState, currentPos);
 
@@ -102,8 +153,23 @@ public class MovementStrategy {
 				pathBudget = Math.max(300, timeBudget - (System.currentTimeMillis() - startTime));
 				System.out.println("Allocated path budget (High Prio / Initial Target): " + pathBudget + "ms");
 
-				currentPath = pathFinder.findPath(gameState.getMap(), currentPos, targetPos, pathBudget,
-						explorationStrategy.getVisitedPositions(), explorationStrategy);
+				boolean stepLanded = currentPos.equals(expectedPosition);
+				boolean stepPending = !stepLanded && expectedStep != null && currentPos.equals(expectedStepOrigin);
+				boolean reusePath = targetPos.equals(highPriorityTarget) && (stepLanded || stepPending)
+						&& (stepPending || !currentPath.isEmpty()) && !invalidatesPath(gameState);
+				if (reusePath && stepPending) {
+					currentPath.add(0, expectedStep);
+				}
+				highPriorityTarget = targetPos;
+				expectedPosition = null;
+				expectedStepOrigin = null;
+				expectedStep = null;
+				if (reusePath) {
+					System.out.println("High-priority target unchanged, continuing current path.");
+				} else {
+					currentPath = pathFinder.findPath(gameState.getMap(), currentPos, targetPos, pathBudget,
+							explorationStrategy.getVisitedPositions(), explorationStrategy);
+				}
 
 				if (!currentPath.isEmpty()) {
 					System.out.println("Path found to high-priority target.");
@@ -120,6 +186,9 @@ public class MovementStrategy {
 							return explorationStrategy.getRandomValidDirection(gameState.getMap(), currentPos)
 									.orElse(Direction.UP);
 						}
+						expectedPosition = nextDirectionHP.move(currentPos);
+						expectedStepOrigin = currentPos;
+						expectedStep = nextDirectionHP;
 						return nextDirectionHP;
 					} else {
 						System.out.println("WARN: First step of high-priority path invalid!");
@@ -248,7 +317,7 @@ public class MovementStrategy {
 						.println("Pathfinding took: " + (timeAfterPathfinding - (startTime + (timeBudget - pathBudget)))
 								+ " ms. Path length: " + currentPath.size());
 			}
-			System.out.println("DEBUG: Before final path step. Path size: " + currentPath.size()); // Added logging
+			logger.fine(() -> "Before final path step. Path size: " + currentPath.size());
 			if (currentPath.isEmpty()) {
 				System.out.println("Path is empty before final step. Falling back to exploration move.");
 				Direction finalMove = getOptimizedExplorationMove(gameState, currentPos, playerId,
@@ -268,8 +337,7 @@ public class MovementStrategy {
 			}
 
 			Direction nextDirection = currentPath.remove(0);
-			System.out.println("DEBUG: After removing first step. Path size now: " + currentPath.size()); // Added
-																											// logging
+			logger.fine(() -> "After removing first step. Path size now: " + currentPath.size());
 
 			if (isValidMove(gameState.getMap(), currentPos, nextDirection)) {
 				lastAttemptedDirection = nextDirection;
@@ -487,9 +555,11 @@ public class MovementStrategy {
 
 	private Direction getOptimizedRandomMove(GameState gameState, Point currentPos, String playerId) {
 		List<Direction> directions = new ArrayList<>(Arrays.asList(Direction.values()));
-		if (gameState.hasCollectedTreasure(playerId) && gameState.getMap().getEnemyFortPosition().isPresent()) {
+		MapEntities entities = gameState.getMap().getEntities();
+		boolean hasCollectedTreasure = gameState.hasCollectedTreasure(playerId);
+		if (hasCollectedTreasure && entities.getEnemyFort().isPresent()) {
 
-			Point fortPos = gameState.getMap().getEnemyFortPosition().get().getPosition();
+			Point fortPos = entities.getEnemyFortPosition();
 			Collections.sort(directions, (d1, d2) -> {
 				Point p1 = d1.move(currentPos);
 				Point p2 = d2.move(currentPos);
@@ -497,20 +567,20 @@ public class MovementStrategy {
 			});
 
 			if (random.nextDouble() < 0.3) {
-				Collections.shuffle(directions, random);
+				random.shuffle(directions);
 			}
-		} else if (gameState.getMap().getTreasurePosition().isPresent()) {
-			Point treasurePos = gameState.getMap().getTreasurePosition().get().getPosition();
+		} else if (entities.getTreasure().isPresent()) {
+			Point treasurePos = entities.getTreasurePosition();
 			Collections.sort(directions, (d1, d2) -> {
 				Point p1 = d1.move(currentPos);
 				Point p2 = d2.move(currentPos);
 				return Integer.compare(p1.manhattanDistance(treasurePos), p2.manhattanDistance(treasurePos));
 			});
 			if (random.nextDouble() < 0.3) {
-				Collections.shuffle(directions, random);
+				random.shuffle(directions);
 			}
 		} else {
-			Collections.shuffle(directions, random);
+			random.shuffle(directions);
 		}
 
 		Direction bestDirection = null;
@@ -530,11 +600,9 @@ public class MovementStrategy {
 				if (!explorationStrategy.isInRelevantHalf(targetPos, gameState.getMap())) {
 					score -= 100.0;
 					if (explorationStrategy.hasTreasure) {
-						System.out.println(
-								"DEBUG: Penalizing move " + dir + " for returning to own half after treasure.");
+						logger.fine(() -> "Penalizing move " + dir + " for returning to own half after treasure.");
 					} else {
-						System.out.println(
-								"DEBUG: Penalizing move " + dir + " for crossing to enemy half before treasure.");
+						logger.fine(() -> "Penalizing move " + dir + " for crossing to enemy half before treasure.");
 					}
 				}
 
@@ -558,9 +626,9 @@ public class MovementStrategy {
 					score += 15.0;
 				}
 
-				if (gameState.hasCollectedTreasure(playerId) && gameState.getMap().getEnemyFortPosition().isPresent()) {
+				if (hasCollectedTreasure && entities.getEnemyFort().isPresent()) {
 
-					Point fortPos = gameState.getMap().getEnemyFortPosition().get().getPosition();
+					Point fortPos = entities.getEnemyFortPosition();
 					int currentDist = currentPos.manhattanDistance(fortPos);
 					int newDist = targetPos.manhattanDistance(fortPos);
 
@@ -569,8 +637,8 @@ public class MovementStrategy {
 					} else if (newDist > currentDist) {
 						score -= 15.0;
 					}
-				} else if (gameState.getMap().getTreasurePosition().isPresent()) {
-					Point treasurePos = gameState.getMap().getTreasurePosition().get().getPosition();
+				} else if (entities.getTreasure().isPresent()) {
+					Point treasurePos = entities.getTreasurePosition();
 					int currentDist = currentPos.manhattanDistance(treasurePos);
 					int newDist = targetPos.manhattanDistance(treasurePos);
 
@@ -582,11 +650,11 @@ public class MovementStrategy {
 				}
 
 				Point targetPoint = null;
-				if (gameState.hasCollectedTreasure(playerId)) {
-					targetPoint = gameState.getMap().getEnemyFortPosition().map(MapNode::getPosition)
+				if (hasCollectedTreasure) {
+					targetPoint = entities.getEnemyFort().map(MapNode::getPosition)
 							.orElse(calculateEnemyHalfCenter(gameState.getMap()));
 				} else {
-					targetPoint = gameState.getMap().getTreasurePosition().map(MapNode::getPosition)
+					targetPoint = entities.getTreasure().map(MapNode::getPosition)
 							.orElse(calculateOwnHalfCenter(gameState.getMap(), currentPos));
 				}
 
@@ -634,6 +702,19 @@ public class MovementStrategy {
 		return allDirections[random.nextInt(allDirections.length)];
 	}
 
+	/**
+	 * True if the map changed in a way that can make a stored path to the
+	 * high-priority target wrong or pointless.
+	 */
+	private static boolean invalidatesPath(GameState gameState) {
+		for (MapChange change : gameState.getMapChanges()) {
+			if (PATH_INVALIDATING_CHANGES.contains(change)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	private Direction handleMultiActionMove(GameState gameState, Point currentPos) {
 		if (currentOngoingMove != null && remainingActionsForMove > 0) {
 			if (gameState.isGameOver()) {
@@ -717,7 +798,7 @@ public class MovementStrategy {
 				System.out.println("Stuck: Trying perpendicular moves to " + lastAttemptedDirection);
 				Direction[] perpendicularMoves = { lastAttemptedDirection.turnClockwise(),
 						lastAttemptedDirection.turnCounterClockwise() };
-				Collections.shuffle(Arrays.asList(perpendicularMoves), random);
+				random.shuffle(perpendicularMoves);
 
 				for (Direction perpDir : perpendicularMoves) {
 					if (isValidMove(gameState.getMap(), currentPos, perpDir)) {
@@ -776,8 +857,9 @@ public class MovementStrategy {
 		}
 
 		boolean hasTreasure = gameState.hasCollectedTreasure(playerId);
-		Optional<MapNode> fortNodeOpt = gameState.getMap().getEnemyFortPosition();
-		Optional<MapNode> treasureNodeOpt = gameState.getMap().getTreasurePosition();
+		MapEntities entities = gameState.getMap().getEntities();
+		Optional<MapNode> fortNodeOpt = entities.getEnemyFort();
+		Optional<MapNode> treasureNodeOpt = entities.getTreasure();
 		Point targetPos = null;
 		String targetType = "exploration";
 		Optional<MapNode> nearbyMountain = findNearestUnvisitedMountain(gameState.getMap(), currentPos);
@@ -858,9 +940,9 @@ public class MovementStrategy {
 			}
 		}
 
-		Collections.shuffle(bestMoves, random);
-		Collections.shuffle(goodMoves, random);
-		Collections.shuffle(okMoves, random);
+		random.shuffle(bestMoves);
+		random.shuffle(goodMoves);
+		random.shuffle(okMoves);
 
 		if (!bestMoves.isEmpty()) {
 			System.out.println("Drastic Unstuck: Found 'best' move: " + bestMoves.get(0));
@@ -928,15 +1010,15 @@ public class MovementStrategy {
 
 		if (posCount >= 4 && positions[posCount - 1].equals(positions[posCount - 3])
 				&& positions[posCount - 2].equals(positions[posCount - 4])) {
-			System.out.println(
-					"Detected cycle of length 2: " + positions[posCount - 2] + " <-> " + positions[posCount - 1]);
+			logger.fine(() -> "Detected cycle of length 2: " + positions[posCount - 2] + " <-> "
+					+ positions[posCount - 1]);
 			return true;
 		}
 
 		if (posCount >= 6 && positions[posCount - 1].equals(positions[posCount - 4])
 				&& positions[posCount - 2].equals(positions[posCount - 5])
 				&& positions[posCount - 3].equals(positions[posCount - 6])) {
-			System.out.println("Detected cycle of length 3");
+			logger.fine("Detected cycle of length 3");
 			return true;
 		}
 
@@ -944,7 +1026,7 @@ public class MovementStrategy {
 				&& positions[posCount - 2].equals(positions[posCount - 6])
 				&& positions[posCount - 3].equals(positions[posCount - 7])
 				&& positions[posCount - 4].equals(positions[posCount - 8])) {
-			System.out.println("Detected cycle of length 4");
+			logger.fine("Detected cycle of length 4");
 			return true;
 		}
 
@@ -957,19 +1039,19 @@ public class MovementStrategy {
 
 		int uniquePositionsInRecent = visitCounts.size();
 		if (uniquePositionsInRecent <= 2 && checkLastN >= 4) {
-			System.out.println("Detected confinement: Visiting " + uniquePositionsInRecent
+			logger.fine(() -> "Detected confinement: Visiting " + uniquePositionsInRecent
 					+ " unique positions in last " + checkLastN + " moves.");
 			return true;
 		}
 		if (uniquePositionsInRecent <= 3 && checkLastN >= 6) {
-			System.out.println("Detected confinement: Visiting " + uniquePositionsInRecent
+			logger.fine(() -> "Detected confinement: Visiting " + uniquePositionsInRecent
 					+ " unique positions in last " + checkLastN + " moves.");
 			return true;
 		}
 
 		Point currentPos = positions[posCount - 1];
 		if (visitCounts.getOrDefault(currentPos, 0) >= 3 && checkLastN >= 4) {
-			System.out.println("Detected multiple recent visits to current position: " + currentPos);
+			logger.fine(() -> "Detected multiple recent visits to current position: " + currentPos);
 			return true;
 		}
 
@@ -1103,17 +1185,17 @@ public class MovementStrategy {
 		int centerX = (int) Math.round(sumX / points.size());
 		int centerY = (int) Math.round(sumY / points.size());
 
-		return new Point(centerX, centerY);
+		return Point.of(centerX, centerY);
 	}
 
 	private Optional<MapNode> checkForHighPriorityTarget(GameState gameState, String playerId) {
 		if (gameState.hasCollectedTreasure(playerId)) {
-			Optional<MapNode> enemyFort = gameState.getMap().getEnemyFortPosition();
+			Optional<MapNode> enemyFort = gameState.getMap().getEntities().getEnemyFort();
 			if (enemyFort.isPresent()) {
 				return enemyFort;
 			}
 		} else {
-			Optional<MapNode> treasure = gameState.getMap().getTreasurePosition();
+			Optional<MapNode> treasure = gameState.getMap().getEntities().getTreasure();
 			if (treasure.isPresent()) {
 				return treasure;
 			}
@@ -1130,17 +1212,17 @@ public class MovementStrategy {
 		int centerX = (ownZone.getXMin() + ownZone.getXMax()) / 2;
 		int centerY = (ownZone.getYMin() + ownZone.getYMax()) / 2;
 
-		return new Point(centerX, centerY);
+		return Point.of(centerX, centerY);
 	}
 
 	private Point calculateEnemyHalfCenter(GameMap map) {
 		if (!explorationStrategy.isHalfInfoInitialized())
-			return new Point(map.getMapWidth() / 2, map.getMapHeight() / 2); // Fallback to map center
+			return Point.of(map.getMapWidth() / 2, map.getMapHeight() / 2); // Fallback to map center
 
 		ZoneDimension enemyZone = explorationStrategy.getEnemyZone();
 		int centerX = (enemyZone.getXMin() + enemyZone.getXMax()) / 2;
 		int centerY = (enemyZone.getYMin() + enemyZone.getYMax()) / 2;
 
-		return new Point(centerX, centerY);
+		return Point.of(centerX, centerY);
 	}
 }
@@ -70,7 +70,7 @@ public class PathCoverageCalculator {
 					if (Math.abs(dx) + Math.abs(dy) > visibilityRange)
 						continue;
 
-					Point visiblePos = new Point(position.x + dx, position.y + dy);
+					Point visiblePos = Point.of(position.x + dx, position.y + dy);
 					Optional<MapNode> visibleNodeOpt = gameMap.getNode(visiblePos);
 
 					if (visibleNodeOpt.isPresent() && visibleNodeOpt.get().isTraversable()) {
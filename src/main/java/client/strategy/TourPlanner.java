@@ -0,0 +1,262 @@
+package client.strategy;
+
+import client.pathfinding.DistanceOracle;
+import java.util.*;
+
+/**
+ * Orders the stops of an open tour that starts at a fixed cell, minimising
+ * the summed terrain distance from a {@link DistanceOracle}. Up to
+ * {@value #EXACT_LIMIT} stops are ordered exactly by Held-Karp dynamic
+ * programming. Longer tours start from nearest neighbour and are improved
+ * with 2-opt segment reversals and Or-opt moves of up to three stops until
+ * no move helps or the deadline passes.
+ */
+final class TourPlanner {
+	static final int EXACT_LIMIT = 12;
+	private static final int MAX_SEGMENT = 3;
+	private static final int NONE = -1;
+
+	private final DistanceOracle oracle;
+	private final int start;
+	private final int[] stops;
+	private final long deadlineNanos;
+
+	private TourPlanner(DistanceOracle oracle, int start, int[] stops, long deadlineNanos) {
+		this.oracle = oracle;
+		this.start = start;
+		this.stops = stops;
+		this.deadlineNanos = deadlineNanos;
+	}
+
+	/**
+	 * The cells of {@code stops} in visiting order. All stops must be
+	 * reachable from {@code start}.
+	 */
+	static int[] plan(DistanceOracle oracle, int start, int[] stops, long deadlineNanos) {
+		if (stops.length <= 1) {
+			return stops.clone();
+		}
+		TourPlanner planner = new TourPlanner(oracle, start, stops, deadlineNanos);
+		int[] order = stops.length <= EXACT_LIMIT ? planner.heldKarp() : planner.improve(planner.nearestNeighbour());
+		int[] cells = new int[order.length];
+		for (int i = 0; i < order.length; i++) {
+			cells[i] = stops[order[i]];
+		}
+		return cells;
+	}
+
+	/**
+	 * Total distance of visiting {@code cells} in order from {@code start}.
+	 */
+	static long length(DistanceOracle oracle, int start, int[] cells) {
+		long total = 0;
+		int previous = start;
+		for (int cell : cells) {
+			total += oracle.distance(previous, cell);
+			previous = cell;
+		}
+		return total;
+	}
+
+	private int[] heldKarp() {
+		int n = stops.length;
+		int subsets = 1 << n;
+		int[][] cost = new int[subsets][n];
+		byte[][] previous = new byte[subsets][n];
+		for (int[] row : cost) {
+			Arrays.fill(row, Integer.MAX_VALUE);
+		}
+		for (int j = 0; j < n; j++) {
+			cost[1 << j][j] = oracle.distance(start, stops[j]);
+			previous[1 << j][j] = -1;
+		}
+
+		for (int mask = 1; mask < subsets; mask++) {
+			for (int last = 0; last < n; last++) {
+				int current = cost[mask][last];
+				if (current == Integer.MAX_VALUE) {
+					continue;
+				}
+				for (int next = 0; next < n; next++) {
+					if ((mask & (1 << next)) != 0) {
+						continue;
+					}
+					int extended = mask | (1 << next);
+					int candidate = current + oracle.distance(stops[last], stops[next]);
+					if (candidate < cost[extended][next]) {
+						cost[extended][next] = candidate;
+						previous[extended][next] = (byte) last;
+					}
+				}
+			}
+		}
+
+		int full = subsets - 1;
+		int last = 0;
+		for (int j = 1; j < n; j++) {
+			if (cost[full][j] < cost[full][last]) {
+				last = j;
+			}
+		}
+		int[] order = new int[n];
+		int mask = full;
+		for (int position = n - 1; position >= 0; position--) {
+			order[position] = last;
+			int before = previous[mask][last];
+			mask &= ~(1 << last);
+			last = before;
+		}
+		return order;
+	}
+
+	private int[] nearestNeighbour() {
+		int n = stops.length;
+		int[] order = new int[n];
+		boolean[] used = new boolean[n];
+		int current = start;
+		for (int position = 0; position < n; position++) {
+			int nearest = -1;
+			for (int j = 0; j < n; j++) {
+				if (!used[j] && (nearest < 0
+						|| oracle.distance(current, stops[j]) < oracle.distance(current, stops[nearest]))) {
+					nearest = j;
+				}
+			}
+			used[nearest] = true;
+			order[position] = nearest;
+			current = stops[nearest];
+		}
+		return order;
+	}
+
+	/**
+	 * Applies improving 2-opt and Or-opt moves until none is left. Each move
+	 * is scored in constant time: edges around the change come from the
+	 * oracle, and the cost of a reversed segment from prefix sums of the
+	 * backward edges, which differ from the forward ones if step costs are
+	 * asymmetric.
+	 */
+	private int[] improve(int[] order) {
+		int n = order.length;
+		int[] candidate = new int[n];
+		long[] forward = new long[n + 1];
+		long[] backward = new long[n + 1];
+		boolean improved = true;
+		while (improved && !pastDeadline()) {
+			improved = false;
+			prefixSums(order, forward, backward);
+
+			for (int i = 0; i < n - 1 && !improved && !pastDeadline(); i++) {
+				int before = node(order, i - 1);
+				for (int k = i + 1; k < n && !improved; k++) {
+					long oldCost = distance(before, node(order, i)) + forward[k + 1] - forward[i + 1];
+					long newCost = distance(before, node(order, k)) + backward[k + 1] - backward[i + 1];
+					if (k < n - 1) {
+						int after = node(order, k + 1);
+						oldCost += distance(node(order, k), after);
+						newCost += distance(node(order, i), after);
+					}
+					if (newCost < oldCost) {
+						reverseInto(order, i, k, candidate);
+						System.arraycopy(candidate, 0, order, 0, n);
+						improved = true;
+					}
+				}
+			}
+
+			for (int length = 1; length <= MAX_SEGMENT && length < n && !improved && !pastDeadline(); length++) {
+				for (int from = 0; from + length <= n && !improved; from++) {
+					int first = node(order, from);
+					int last = node(order, from + length - 1);
+					int before = node(order, from - 1);
+					int after = from + length < n ? node(order, from + length) : NONE;
+					long removalGain = distance(before, first) + distance(last, after) - distance(before, after);
+					for (int to = 0; to + length <= n && !improved; to++) {
+						if (to == from) {
+							continue;
+						}
+						int left = restNode(order, from, length, to - 1);
+						int right = to < n - length ? restNode(order, from, length, to) : NONE;
+						long insertionCost = distance(left, first) + distance(last, right) - distance(left, right);
+						if (insertionCost < removalGain) {
+							moveInto(order, from, length, to, candidate);
+							System.arraycopy(candidate, 0, order, 0, n);
+							improved = true;
+						}
+					}
+				}
+			}
+		}
+		return order;
+	}
+
+	/**
+	 * {@code forward[p + 1]} is the cost of the tour up to position
+	 * {@code p}; {@code backward} sums the same edges walked the other way.
+	 */
+	private void prefixSums(int[] order, long[] forward, long[] backward) {
+		for (int position = 0; position < order.length; position++) {
+			int previous = node(order, position - 1);
+			int current = node(order, position);
+			forward[position + 1] = forward[position] + distance(previous, current);
+			backward[position + 1] = backward[position] + distance(current, previous);
+		}
+	}
+
+	/**
+	 * Cell at tour position {@code position}, with position -1 the start.
+	 */
+	private int node(int[] order, int position) {
+		return position < 0 ? start : stops[order[position]];
+	}
+
+	/**
+	 * Cell at {@code position} of the tour with the segment taken out.
+	 */
+	private int restNode(int[] order, int from, int length, int position) {
+		return node(order, position < from ? position : position + length);
+	}
+
+	/**
+	 * Oracle distance, zero when either end is {@link #NONE} so that open tour
+	 * ends need no special case.
+	 */
+	private long distance(int from, int to) {
+		return from == NONE || to == NONE ? 0 : oracle.distance(from, to);
+	}
+
+	private boolean pastDeadline() {
+		return System.nanoTime() - deadlineNanos >= 0;
+	}
+
+	/**
+	 * {@code order} with positions {@code i..k} reversed.
+	 */
+	private static void reverseInto(int[] order, int i, int k, int[] target) {
+		System.arraycopy(order, 0, target, 0, order.length);
+		for (int left = i, right = k; left < right; left++, right--) {
+			int swap = target[left];
+			target[left] = target[right];
+			target[right] = swap;
+		}
+	}
+
+	/**
+	 * {@code order} with the {@code length} stops at {@code from} taken out
+	 * and reinserted so that they start at position {@code to}.
+	 */
+	private static void moveInto(int[] order, int from, int length, int to, int[] target) {
+		for (int position = 0; position < order.length; position++) {
+			int rest;
+			if (position < to) {
+				rest = position;
+			} else if (position < to + length) {
+				target[position] = order[from + position - to];
+				continue;
+			} else {
+				rest = position - length;
+			}
+			target[position] = order[rest < from ? rest : rest + length];
+		}
+	}
+}
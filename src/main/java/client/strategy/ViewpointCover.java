@@ -0,0 +1,349 @@
+package client.strategy;
+
+import client.model.*;
+import java.util.*;
+
+/**
+ * Chooses the fields to stand on so that every unseen grass field comes into
+ * sight: a grass field shows itself, a mountain the grass fields around it.
+ * Sight ranges are built once per map as 128-bit masks over cell indices
+ * (course maps have at most 100 cells), so the coverage of a candidate is
+ * two ANDs and a popcount. A greedy cover is always computed; within the
+ * deadline it is improved to a minimum cover by branch and bound. The last
+ * result is kept until the set of fields to cover changes.
+ */
+final class ViewpointCover {
+	private static final int MAX_CELLS = 128;
+	private static final int DEADLINE_CHECK_MASK = 255;
+	private static final byte NO_TERRAIN = -1;
+
+	private final int cellCount;
+	private final int gridWidth;
+	private final byte[] terrainSignature;
+	private final long[] sightLo;
+	private final long[] sightHi;
+	private final long grassLo;
+	private final long grassHi;
+
+	private long cachedTargetLo = 0;
+	private long cachedTargetHi = 0;
+	private long cachedAllowedLo = 0;
+	private long cachedAllowedHi = 0;
+	private int[] cachedCover = null;
+	private boolean cachedOptimal = false;
+
+	// Branch-and-bound state, valid during one search.
+	private long[] maskLo;
+	private long[] maskHi;
+	private int candidateCount;
+	private int[] chosen;
+	private int[] best;
+	private int bestSize;
+	private long deadlineNanos;
+	private long searchNodes;
+	private boolean timedOut;
+
+	private ViewpointCover(GameMap map) {
+		this.cellCount = map.getCellCount();
+		this.gridWidth = map.getGridWidth();
+		this.terrainSignature = new byte[cellCount];
+		this.sightLo = new long[cellCount];
+		this.sightHi = new long[cellCount];
+		long lo = 0;
+		long hi = 0;
+		for (int cell = 0; cell < cellCount; cell++) {
+			Terrain terrain = map.getTerrainAt(cell);
+			terrainSignature[cell] = terrain == null ? NO_TERRAIN : (byte) terrain.ordinal();
+			if (terrain == Terrain.GRASS) {
+				if (cell < 64) {
+					lo |= 1L << cell;
+				} else {
+					hi |= 1L << cell;
+				}
+			}
+		}
+		this.grassLo = lo;
+		this.grassHi = hi;
+	}
+
+	static ViewpointCover build(GameMap map) {
+		if (map.getCellCount() > MAX_CELLS) {
+			throw new IllegalArgumentException("Map has more than " + MAX_CELLS + " cells: " + map.getCellCount());
+		}
+		ViewpointCover cover = new ViewpointCover(map);
+		for (int cell = 0; cell < cover.cellCount; cell++) {
+			Terrain terrain = map.getTerrainAt(cell);
+			if (terrain == Terrain.GRASS) {
+				cover.addSight(cell, cell);
+			} else if (terrain == Terrain.MOUNTAIN) {
+				int x = map.getCellX(cell);
+				int y = map.getCellY(cell);
+				for (int dx = -1; dx <= 1; dx++) {
+					for (int dy = -1; dy <= 1; dy++) {
+						int visible = map.indexOf(x + dx, y + dy);
+						if (visible != GameMap.NO_CELL && map.getTerrainAt(visible) == Terrain.GRASS) {
+							cover.addSight(cell, visible);
+						}
+					}
+				}
+			}
+		}
+		return cover;
+	}
+
+	/**
+	 * True if the cover was built for a map with the same layout and terrain.
+	 */
+	boolean matches(GameMap map) {
+		if (map.getCellCount() != cellCount || map.getGridWidth() != gridWidth) {
+			return false;
+		}
+		for (int cell = 0; cell < cellCount; cell++) {
+			Terrain terrain = map.getTerrainAt(cell);
+			if (terrainSignature[cell] != (terrain == null ? NO_TERRAIN : (byte) terrain.ordinal())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Cell indices of viewpoints that bring every grass field in {@code zone}
+	 * that is not in {@code seen} into sight; {@code zone} null means the whole
+	 * map. Viewpoints are taken from {@code zone} as well. {@code map} must be
+	 * one this cover {@link #matches}.
+	 */
+	int[] cover(GameMap map, PositionSet seen, PositionSet zone, long deadlineNanos) {
+		long targetLo = grassLo;
+		long targetHi = grassHi;
+		long allowedLo = -1L;
+		long allowedHi = -1L;
+		for (int cell = 0; cell < cellCount; cell++) {
+			int x = map.getCellX(cell);
+			int y = map.getCellY(cell);
+			boolean outside = zone != null && !zone.contains(x, y);
+			if (outside || seen.contains(x, y)) {
+				long bit = 1L << cell;
+				if (cell < 64) {
+					targetLo &= ~bit;
+				} else {
+					targetHi &= ~bit;
+				}
+				if (outside) {
+					if (cell < 64) {
+						allowedLo &= ~bit;
+					} else {
+						allowedHi &= ~bit;
+					}
+				}
+			}
+		}
+
+		if (cachedCover != null && targetLo == cachedTargetLo && targetHi == cachedTargetHi
+				&& allowedLo == cachedAllowedLo && allowedHi == cachedAllowedHi) {
+			return cachedCover.clone();
+		}
+
+		int[] result = solve(targetLo, targetHi, allowedLo, allowedHi, deadlineNanos);
+		cachedTargetLo = targetLo;
+		cachedTargetHi = targetHi;
+		cachedAllowedLo = allowedLo;
+		cachedAllowedHi = allowedHi;
+		cachedCover = result;
+		cachedOptimal = !timedOut;
+		return result.clone();
+	}
+
+	/**
+	 * Whether the last cover returned is known to be a minimum cover, rather
+	 * than the greedy one kept after the deadline passed.
+	 */
+	boolean isLastCoverOptimal() {
+		return cachedOptimal;
+	}
+
+	private int[] solve(long targetLo, long targetHi, long allowedLo, long allowedHi, long deadlineNanos) {
+		int[] candidates = reduceCandidates(targetLo, targetHi, allowedLo, allowedHi);
+		candidateCount = candidates.length;
+		maskLo = new long[candidateCount];
+		maskHi = new long[candidateCount];
+		for (int i = 0; i < candidateCount; i++) {
+			maskLo[i] = sightLo[candidates[i]] & targetLo;
+			maskHi[i] = sightHi[candidates[i]] & targetHi;
+		}
+
+		best = greedy(targetLo, targetHi);
+		bestSize = best.length;
+		chosen = new int[bestSize];
+		this.deadlineNanos = deadlineNanos;
+		searchNodes = 0;
+		timedOut = false;
+		if (bestSize > 1) {
+			search(targetLo, targetHi, 0);
+		}
+
+		int[] cells = new int[bestSize];
+		for (int i = 0; i < bestSize; i++) {
+			cells[i] = candidates[best[i]];
+		}
+		maskLo = null;
+		maskHi = null;
+		return cells;
+	}
+
+	/**
+	 * Allowed cells that see at least one target, without those whose view of
+	 * the targets is contained in another candidate's. A minimum cover never
+	 * needs a dominated candidate.
+	 */
+	private int[] reduceCandidates(long targetLo, long targetHi, long allowedLo, long allowedHi) {
+		int[] useful = new int[cellCount];
+		int count = 0;
+		for (int cell = 0; cell < cellCount; cell++) {
+			boolean allowed = ((cell < 64 ? allowedLo : allowedHi) & (1L << cell)) != 0;
+			if (allowed && ((sightLo[cell] & targetLo) | (sightHi[cell] & targetHi)) != 0) {
+				useful[count++] = cell;
+			}
+		}
+
+		int[] kept = new int[count];
+		int keptCount = 0;
+		for (int i = 0; i < count; i++) {
+			long lo = sightLo[useful[i]] & targetLo;
+			long hi = sightHi[useful[i]] & targetHi;
+			boolean dominated = false;
+			for (int j = 0; j < count && !dominated; j++) {
+				if (j == i) {
+					continue;
+				}
+				long otherLo = sightLo[useful[j]] & targetLo;
+				long otherHi = sightHi[useful[j]] & targetHi;
+				boolean subset = (lo & ~otherLo) == 0 && (hi & ~otherHi) == 0;
+				boolean equal = lo == otherLo && hi == otherHi;
+				dominated = subset && (!equal || j < i);
+			}
+			if (!dominated) {
+				kept[keptCount++] = useful[i];
+			}
+		}
+		return Arrays.copyOf(kept, keptCount);
+	}
+
+	private int[] greedy(long uncoveredLo, long uncoveredHi) {
+		int[] picked = new int[candidateCount];
+		int count = 0;
+		while ((uncoveredLo | uncoveredHi) != 0) {
+			int bestCandidate = -1;
+			int bestGain = 0;
+			for (int i = 0; i < candidateCount; i++) {
+				int gain = Long.bitCount(maskLo[i] & uncoveredLo) + Long.bitCount(maskHi[i] & uncoveredHi);
+				if (gain > bestGain) {
+					bestGain = gain;
+					bestCandidate = i;
+				}
+			}
+			picked[count++] = bestCandidate;
+			uncoveredLo &= ~maskLo[bestCandidate];
+			uncoveredHi &= ~maskHi[bestCandidate];
+		}
+		return Arrays.copyOf(picked, count);
+	}
+
+	/**
+	 * Depth-first search over the candidates seeing the uncovered field with
+	 * the fewest such candidates. A branch is cut when even picking the
+	 * largest remaining coverage every time could not beat the best cover.
+	 */
+	private void search(long uncoveredLo, long uncoveredHi, int depth) {
+		if ((uncoveredLo | uncoveredHi) == 0) {
+			if (depth < bestSize) {
+				bestSize = depth;
+				best = Arrays.copyOf(chosen, depth);
+			}
+			return;
+		}
+		if ((++searchNodes & DEADLINE_CHECK_MASK) == 0 && System.nanoTime() - deadlineNanos >= 0) {
+			timedOut = true;
+		}
+		if (timedOut || depth + 1 >= bestSize) {
+			return;
+		}
+
+		int maxGain = 0;
+		for (int i = 0; i < candidateCount; i++) {
+			int gain = Long.bitCount(maskLo[i] & uncoveredLo) + Long.bitCount(maskHi[i] & uncoveredHi);
+			maxGain = Math.max(maxGain, gain);
+		}
+		int remaining = Long.bitCount(uncoveredLo) + Long.bitCount(uncoveredHi);
+		if (depth + (remaining + maxGain - 1) / maxGain >= bestSize) {
+			return;
+		}
+
+		int field = hardestField(uncoveredLo, uncoveredHi);
+		long fieldLo = field < 64 ? 1L << field : 0;
+		long fieldHi = field < 64 ? 0 : 1L << field;
+		int[] branches = new int[candidateCount];
+		int[] gains = new int[candidateCount];
+		int branchCount = 0;
+		for (int i = 0; i < candidateCount; i++) {
+			if (((maskLo[i] & fieldLo) | (maskHi[i] & fieldHi)) != 0) {
+				gains[branchCount] = Long.bitCount(maskLo[i] & uncoveredLo) + Long.bitCount(maskHi[i] & uncoveredHi);
+				branches[branchCount++] = i;
+			}
+		}
+		sortByGainDescending(branches, gains, branchCount);
+
+		for (int b = 0; b < branchCount && !timedOut; b++) {
+			int candidate = branches[b];
+			chosen[depth] = candidate;
+			search(uncoveredLo & ~maskLo[candidate], uncoveredHi & ~maskHi[candidate], depth + 1);
+		}
+	}
+
+	private int hardestField(long uncoveredLo, long uncoveredHi) {
+		int hardest = -1;
+		int fewest = Integer.MAX_VALUE;
+		for (int word = 0; word < 2; word++) {
+			long bits = word == 0 ? uncoveredLo : uncoveredHi;
+			while (bits != 0) {
+				int bit = Long.numberOfTrailingZeros(bits);
+				bits &= bits - 1;
+				int field = word * 64 + bit;
+				int seenBy = 0;
+				for (int i = 0; i < candidateCount && seenBy < fewest; i++) {
+					if (((word == 0 ? maskLo[i] : maskHi[i]) & (1L << bit)) != 0) {
+						seenBy++;
+					}
+				}
+				if (seenBy < fewest) {
+					fewest = seenBy;
+					hardest = field;
+				}
+			}
+		}
+		return hardest;
+	}
+
+	private static void sortByGainDescending(int[] items, int[] gains, int count) {
+		for (int i = 1; i < count; i++) {
+			int item = items[i];
+			int gain = gains[i];
+			int j = i - 1;
+			while (j >= 0 && gains[j] < gain) {
+				items[j + 1] = items[j];
+				gains[j + 1] = gains[j];
+				j--;
+			}
+			items[j + 1] = item;
+			gains[j + 1] = gain;
+		}
+	}
+
+	private void addSight(int viewpoint, int visible) {
+		if (visible < 64) {
+			sightLo[viewpoint] |= 1L << visible;
+		} else {
+			sightHi[viewpoint] |= 1L << visible;
+		}
+	}
+}
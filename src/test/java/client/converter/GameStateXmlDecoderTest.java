@@ -0,0 +1,117 @@
+package client.converter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import client.model.PlayerState;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import messagesbase.ResponseEnvelope;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.xml.Jaxb2XmlDecoder;
+
+/**
+ * Checks that the streaming decoder reads every response in
+ * {@code client/converter/states} exactly as JAXB binding followed by
+ * {@link DecodedGameState#of(ResponseEnvelope)} does. The responses there
+ * are written in the JAXB default layout of the messagesbase classes; no
+ * response captured from the course server is included yet. Responses
+ * captured from the server can be dropped into the directory as
+ * {@code *.xml} files and are picked up without code changes.
+ */
+class GameStateXmlDecoderTest {
+    private static final String STATES = "states";
+    private static final ResolvableType GAME_STATE_ENVELOPE = ResolvableType.forType(
+            new ParameterizedTypeReference<ResponseEnvelope<messagesbase.messagesfromserver.GameState>>() {
+            });
+
+    static List<Path> responses() throws IOException, URISyntaxException {
+        URL directory = GameStateXmlDecoderTest.class.getResource(STATES);
+        assertNotNull(directory, "missing test resource directory " + STATES);
+        try (Stream<Path> files = Files.list(Paths.get(directory.toURI()))) {
+            return files.filter(file -> file.toString().endsWith(".xml")).sorted().collect(Collectors.toList());
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("responses")
+    void streamingDecoderMatchesJaxb(Path response) throws IOException {
+        byte[] xml = Files.readAllBytes(response);
+
+        DecodedGameState expected = DecodedGameState.of(bindJaxb(xml));
+        DecodedGameState actual = GameStateXmlDecoder.decode(new ByteArrayInputStream(xml), null);
+
+        assertNotNull(expected, "JAXB did not bind a game state");
+        assertNotNull(actual, "streaming decoder did not recognise the response");
+        assertSameState(expected, actual);
+    }
+
+    @ParameterizedTest
+    @MethodSource("responses")
+    void knownStateIdIsReportedUnchanged(Path response) throws IOException {
+        byte[] xml = Files.readAllBytes(response);
+        DecodedGameState full = GameStateXmlDecoder.decode(new ByteArrayInputStream(xml), null);
+        assertNotNull(full);
+        if (full.isError()) {
+            return;
+        }
+
+        DecodedGameState again = GameStateXmlDecoder.decode(new ByteArrayInputStream(xml), full.getGameStateId());
+        assertSame(DecodedGameState.UNCHANGED, again);
+
+        DecodedGameState other = GameStateXmlDecoder.decode(new ByteArrayInputStream(xml), "some-other-state");
+        assertNotNull(other);
+        assertFalse(other.isUnchanged());
+        assertSameState(full, other);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ResponseEnvelope<messagesbase.messagesfromserver.GameState> bindJaxb(byte[] xml) {
+        return (ResponseEnvelope<messagesbase.messagesfromserver.GameState>) new Jaxb2XmlDecoder().decode(
+                DefaultDataBufferFactory.sharedInstance.wrap(xml), GAME_STATE_ENVELOPE, MediaType.APPLICATION_XML,
+                null);
+    }
+
+    private static void assertSameState(DecodedGameState expected, DecodedGameState actual) {
+        assertEquals(expected.isError(), actual.isError(), "error");
+        assertEquals(expected.getExceptionMessage(), actual.getExceptionMessage(), "exception message");
+        assertEquals(expected.getGameStateId(), actual.getGameStateId(), "game state id");
+
+        assertEquals(expected.getPlayers().size(), actual.getPlayers().size(), "player count");
+        for (int i = 0; i < expected.getPlayers().size(); i++) {
+            PlayerState expectedPlayer = expected.getPlayers().get(i);
+            PlayerState actualPlayer = actual.getPlayers().get(i);
+            assertEquals(expectedPlayer.getPlayerId(), actualPlayer.getPlayerId(), "player " + i + " id");
+            assertEquals(expectedPlayer.getState(), actualPlayer.getState(), "player " + i + " state");
+            assertEquals(expectedPlayer.hasCollectedTreasure(), actualPlayer.hasCollectedTreasure(),
+                    "player " + i + " treasure");
+        }
+
+        assertEquals(expected.getNodeCount(), actual.getNodeCount(), "node count");
+        for (int node = 0; node < expected.getNodeCount(); node++) {
+            String at = "node " + node;
+            assertEquals(expected.getX(node), actual.getX(node), at + " x");
+            assertEquals(expected.getY(node), actual.getY(node), at + " y");
+            assertEquals(expected.getTerrain(node), actual.getTerrain(node), at + " terrain");
+            assertEquals(expected.getFortState(node), actual.getFortState(node), at + " fort");
+            assertEquals(expected.getTreasureState(node), actual.getTreasureState(node), at + " treasure");
+            assertEquals(expected.getPlayerPositionState(node), actual.getPlayerPositionState(node),
+                    at + " player position");
+        }
+    }
+}
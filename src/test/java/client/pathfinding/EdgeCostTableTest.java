@@ -0,0 +1,86 @@
+package client.pathfinding;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import client.model.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Edge tables on a map whose grid was allocated wider than the nodes added so
+ * far, so {@link GameMap#getMapWidth()} is less than the row length of the
+ * cell index.
+ */
+class EdgeCostTableTest {
+    private static final int GRID_WIDTH = 20;
+    private static final int GRID_HEIGHT = 10;
+    private static final int NODES_WIDE = 10;
+    private static final int NODES_HIGH = 5;
+
+    private static GameMap partialMap() {
+        GameMap map = new GameMap(GRID_WIDTH, GRID_HEIGHT);
+        for (int y = 0; y < NODES_HIGH; y++) {
+            for (int x = 0; x < NODES_WIDE; x++) {
+                Terrain terrain = (x + y) % 7 == 3 ? Terrain.MOUNTAIN : Terrain.GRASS;
+                map.addNode(new MapNode(Point.of(x, y), terrain, TreasureState.NO_TREASURE, FortState.NO_FORT,
+                        PlayerPositionState.NO_PLAYER));
+            }
+        }
+        return map;
+    }
+
+    @Test
+    void neighborsFollowTheGridWidth() {
+        GameMap map = partialMap();
+        assertTrue(map.getGridWidth() > map.getMapWidth());
+        EdgeCostTable table = EdgeCostTable.build(map, MovementCosts.DEFAULT);
+
+        int edges = 0;
+        for (int cell = 0; cell < table.getCellCount(); cell++) {
+            for (Direction direction : Direction.values()) {
+                if (table.baseCost(cell, direction) != EdgeCostTable.BLOCKED) {
+                    assertEquals(map.neighborIndex(cell, direction), table.neighbor(cell, direction.ordinal()),
+                            "step " + direction + " from " + map.getCellPosition(cell));
+                    edges++;
+                }
+            }
+        }
+        assertEquals(2 * (NODES_WIDE - 1) * NODES_HIGH + 2 * NODES_WIDE * (NODES_HIGH - 1), edges);
+    }
+
+    @Test
+    void cellMaskUsesCellPositions() {
+        GameMap map = partialMap();
+        EdgeCostTable table = EdgeCostTable.build(map, MovementCosts.DEFAULT);
+        PositionSet positions = new PositionSet();
+        positions.add(3, 2);
+        positions.add(9, 4);
+
+        long[] expected = new long[(table.getCellCount() + 63) >>> 6];
+        for (int cell : new int[] { map.indexOf(3, 2), map.indexOf(9, 4) }) {
+            expected[cell >>> 6] |= 1L << cell;
+        }
+        assertArrayEquals(expected, table.cellMask(positions));
+    }
+
+    @Test
+    void oracleDistancesMatchTheMap() {
+        GameMap map = partialMap();
+        DistanceOracle oracle = DistanceOracle.build(map);
+        Point from = Point.of(0, 0);
+        Point to = Point.of(NODES_WIDE - 1, NODES_HIGH - 1);
+
+        assertEquals(NODES_WIDE - 1 + NODES_HIGH - 1, oracle.hopCount(map, from, to));
+        int cost = 0;
+        Point current = from;
+        for (Direction step : oracle.path(map, from, to)) {
+            Point next = step.move(current);
+            cost += MovementCosts.DEFAULT.baseCost(map.getNode(current).get().getTerrain(),
+                    map.getNode(next).get().getTerrain());
+            current = next;
+        }
+        assertEquals(to, current);
+        assertEquals(oracle.distance(map, from, to), cost);
+    }
+}
@@ -0,0 +1,241 @@
+package client.strategy;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import client.model.*;
+import client.pathfinding.DistanceOracle;
+import client.pathfinding.EdgeCostTable;
+import client.pathfinding.MovementCosts;
+import java.util.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares {@link TourPlanner} with exhaustive orderings on small seeded maps,
+ * with the default costs and with costs where climbing a mountain is much
+ * dearer than coming down, so that a leg and its reverse differ.
+ */
+class TourPlannerTest {
+	private static final MovementCosts ASYMMETRIC = new MovementCosts(1, 9, 2, 4, 0, 0);
+	private static final long DEADLINE_NANOS = 5_000_000_000L;
+
+	@Test
+	void exactToursMatchEveryPermutation() {
+		for (MovementCosts costs : List.of(MovementCosts.DEFAULT, ASYMMETRIC)) {
+			for (long seed = 0; seed < 30; seed++) {
+				Random random = new Random(seed);
+				DistanceOracle oracle = oracle(random, costs);
+				int start = bestConnectedCell(oracle);
+				int[] stops = randomStops(oracle, start, random, 7);
+
+				int[] tour = TourPlanner.plan(oracle, start, stops, System.nanoTime() + DEADLINE_NANOS);
+
+				assertPermutation(stops, tour);
+				assertEquals(bestPermutationLength(oracle, start, stops), TourPlanner.length(oracle, start, tour),
+						costs + ", seed " + seed);
+			}
+		}
+	}
+
+	@Test
+	void longToursAreLocalOptimaNoWorseThanNearestNeighbour() {
+		for (MovementCosts costs : List.of(MovementCosts.DEFAULT, ASYMMETRIC)) {
+			for (long seed = 0; seed < 20; seed++) {
+				Random random = new Random(seed);
+				DistanceOracle oracle = oracle(random, costs);
+				int start = bestConnectedCell(oracle);
+				int stopCount = TourPlanner.EXACT_LIMIT + 1 + random.nextInt(4);
+				int[] stops = randomStops(oracle, start, random, stopCount);
+
+				int[] tour = TourPlanner.plan(oracle, start, stops, System.nanoTime() + DEADLINE_NANOS);
+
+				String context = costs + ", seed " + seed;
+				assertPermutation(stops, tour);
+				long length = TourPlanner.length(oracle, start, tour);
+				assertTrue(length <= TourPlanner.length(oracle, start, nearestNeighbour(oracle, start, stops)), context);
+				assertTrue(length >= exactLength(oracle, start, stops), context);
+				assertNoImprovingMove(oracle, start, tour, context);
+			}
+		}
+	}
+
+	@Test
+	void shortToursAreReturnedAsGiven() {
+		DistanceOracle oracle = oracle(new Random(1), MovementCosts.DEFAULT);
+		int start = bestConnectedCell(oracle);
+		int[] single = { reachableCells(oracle, start).get(4) };
+
+		assertArrayEquals(new int[0], TourPlanner.plan(oracle, start, new int[0], System.nanoTime()));
+		assertArrayEquals(single, TourPlanner.plan(oracle, start, single, System.nanoTime()));
+	}
+
+	/**
+	 * Oracle over a seeded 10x10 map of grass, mountains and some water.
+	 */
+	private static DistanceOracle oracle(Random random, MovementCosts costs) {
+		GameMap map = new GameMap(10, 10);
+		for (int y = 0; y < 10; y++) {
+			for (int x = 0; x < 10; x++) {
+				double roll = random.nextDouble();
+				Terrain terrain = roll < 0.6 ? Terrain.GRASS : roll < 0.9 ? Terrain.MOUNTAIN : Terrain.WATER;
+				map.addNode(new MapNode(Point.of(x, y), terrain, TreasureState.NO_TREASURE, FortState.NO_FORT,
+						PlayerPositionState.NO_PLAYER));
+			}
+		}
+		return DistanceOracle.build(EdgeCostTable.build(map, costs));
+	}
+
+	/**
+	 * The cell from which the most other cells can be reached.
+	 */
+	private static int bestConnectedCell(DistanceOracle oracle) {
+		int best = 0;
+		for (int cell = 1; cell < oracle.getCellCount(); cell++) {
+			if (reachableCells(oracle, cell).size() > reachableCells(oracle, best).size()) {
+				best = cell;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Cells other than {@code origin} that can be reached from it, in index
+	 * order.
+	 */
+	private static List<Integer> reachableCells(DistanceOracle oracle, int origin) {
+		List<Integer> cells = new ArrayList<>();
+		for (int cell = 0; cell < oracle.getCellCount(); cell++) {
+			if (cell != origin && oracle.isReachable(origin, cell)) {
+				cells.add(cell);
+			}
+		}
+		return cells;
+	}
+
+	private static int[] randomStops(DistanceOracle oracle, int start, Random random, int count) {
+		List<Integer> cells = reachableCells(oracle, start);
+		Collections.shuffle(cells, random);
+		return cells.subList(0, count).stream().mapToInt(Integer::intValue).toArray();
+	}
+
+	private static void assertPermutation(int[] stops, int[] tour) {
+		int[] expected = stops.clone();
+		int[] actual = tour.clone();
+		Arrays.sort(expected);
+		Arrays.sort(actual);
+		assertArrayEquals(expected, actual);
+	}
+
+	private static long bestPermutationLength(DistanceOracle oracle, int start, int[] stops) {
+		return bestPermutationLength(oracle, start, stops.clone(), 0);
+	}
+
+	private static long bestPermutationLength(DistanceOracle oracle, int start, int[] order, int fixed) {
+		if (fixed == order.length) {
+			return TourPlanner.length(oracle, start, order);
+		}
+		long best = Long.MAX_VALUE;
+		for (int i = fixed; i < order.length; i++) {
+			swap(order, fixed, i);
+			best = Math.min(best, bestPermutationLength(oracle, start, order, fixed + 1));
+			swap(order, fixed, i);
+		}
+		return best;
+	}
+
+	/**
+	 * Shortest open tour by dynamic programming over subsets, for tours too
+	 * long to enumerate.
+	 */
+	private static long exactLength(DistanceOracle oracle, int start, int[] stops) {
+		int n = stops.length;
+		long[][] cost = new long[1 << n][n];
+		for (long[] row : cost) {
+			Arrays.fill(row, Long.MAX_VALUE);
+		}
+		for (int j = 0; j < n; j++) {
+			cost[1 << j][j] = oracle.distance(start, stops[j]);
+		}
+		for (int mask = 1; mask < 1 << n; mask++) {
+			for (int last = 0; last < n; last++) {
+				if (cost[mask][last] == Long.MAX_VALUE) {
+					continue;
+				}
+				for (int next = 0; next < n; next++) {
+					if ((mask & 1 << next) == 0) {
+						long candidate = cost[mask][last] + oracle.distance(stops[last], stops[next]);
+						cost[mask | 1 << next][next] = Math.min(cost[mask | 1 << next][next], candidate);
+					}
+				}
+			}
+		}
+		return Arrays.stream(cost[(1 << n) - 1]).min().getAsLong();
+	}
+
+	private static int[] nearestNeighbour(DistanceOracle oracle, int start, int[] stops) {
+		List<Integer> left = new ArrayList<>();
+		for (int stop : stops) {
+			left.add(stop);
+		}
+		int[] tour = new int[stops.length];
+		int current = start;
+		for (int position = 0; position < tour.length; position++) {
+			int nearest = left.get(0);
+			for (int stop : left) {
+				if (oracle.distance(current, stop) < oracle.distance(current, nearest)) {
+					nearest = stop;
+				}
+			}
+			left.remove(Integer.valueOf(nearest));
+			tour[position] = nearest;
+			current = nearest;
+		}
+		return tour;
+	}
+
+	/**
+	 * Evaluates every 2-opt reversal and every move of one to three
+	 * consecutive stops by full tour length, independently of the planner's
+	 * incremental scoring.
+	 */
+	private static void assertNoImprovingMove(DistanceOracle oracle, int start, int[] tour, String context) {
+		long length = TourPlanner.length(oracle, start, tour);
+		int n = tour.length;
+		for (int i = 0; i < n - 1; i++) {
+			for (int k = i + 1; k < n; k++) {
+				int[] reversed = tour.clone();
+				for (int left = i, right = k; left < right; left++, right--) {
+					swap(reversed, left, right);
+				}
+				assertTrue(TourPlanner.length(oracle, start, reversed) >= length,
+						context + ": reversing " + i + ".." + k + " improves the tour");
+			}
+		}
+		for (int segment = 1; segment <= 3; segment++) {
+			for (int from = 0; from + segment <= n; from++) {
+				List<Integer> rest = new ArrayList<>();
+				for (int position = 0; position < n; position++) {
+					if (position < from || position >= from + segment) {
+						rest.add(tour[position]);
+					}
+				}
+				for (int to = 0; to <= rest.size(); to++) {
+					List<Integer> moved = new ArrayList<>(rest);
+					for (int j = 0; j < segment; j++) {
+						moved.add(to + j, tour[from + j]);
+					}
+					int[] candidate = moved.stream().mapToInt(Integer::intValue).toArray();
+					assertTrue(TourPlanner.length(oracle, start, candidate) >= length,
+							context + ": moving " + segment + " stops from " + from + " to " + to + " improves the tour");
+				}
+			}
+		}
+	}
+
+	private static void swap(int[] values, int i, int j) {
+		int swap = values[i];
+		values[i] = values[j];
+		values[j] = swap;
+	}
+}
@@ -0,0 +1,185 @@
+package client.strategy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import client.model.*;
+import java.util.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares {@link ViewpointCover} with an exhaustive search for the smallest
+ * cover on small seeded maps.
+ */
+class ViewpointCoverTest {
+	private static final int BRUTE_FORCE_LIMIT = 14;
+	private static final long DEADLINE_NANOS = 1_000_000_000L;
+
+	@Test
+	void coverIsMinimumOnRandomMaps() {
+		int compared = 0;
+		for (long seed = 0; seed < 40; seed++) {
+			Random random = new Random(seed);
+			GameMap map = randomMap(random, 10, 10, 10, 10);
+			ViewpointCover cover = ViewpointCover.build(map);
+			for (int round = 0; round < 4; round++) {
+				PositionSet seen = randomSeen(map, random, 0.6 + random.nextDouble() * 0.35);
+				PositionSet zone = round % 2 == 0 ? null : PositionSet.of(new ZoneDimension(0, 9, 0, 4));
+				int[] viewpoints = cover.cover(map, seen, zone, System.nanoTime() + DEADLINE_NANOS);
+
+				Set<Integer> targets = targets(map, seen, zone);
+				assertCovers(map, viewpoints, targets, zone);
+				if (targets.size() <= BRUTE_FORCE_LIMIT) {
+					assertTrue(cover.isLastCoverOptimal(), "seed " + seed);
+					assertEquals(minimumCoverSize(map, targets, zone), viewpoints.length, "seed " + seed);
+					compared++;
+				}
+			}
+		}
+		assertTrue(compared > 50, "too few cases small enough to brute-force: " + compared);
+	}
+
+	@Test
+	void coverUsesCellPositionsOnWiderGrid() {
+		Random random = new Random(7);
+		GameMap map = randomMap(random, 12, 10, 10, 5);
+		assertTrue(map.getGridWidth() > map.getMapWidth());
+		ViewpointCover cover = ViewpointCover.build(map);
+		PositionSet zone = PositionSet.of(new ZoneDimension(0, 4, 0, 4));
+
+		int[] viewpoints = cover.cover(map, new PositionSet(), zone, System.nanoTime() + DEADLINE_NANOS);
+
+		Set<Integer> targets = targets(map, new PositionSet(), zone);
+		assertTrue(!targets.isEmpty());
+		assertCovers(map, viewpoints, targets, zone);
+		assertEquals(minimumCoverSize(map, targets, zone), viewpoints.length);
+	}
+
+	@Test
+	void repeatedQueryReturnsTheCachedCover() {
+		GameMap map = randomMap(new Random(3), 10, 10, 10, 10);
+		ViewpointCover cover = ViewpointCover.build(map);
+		PositionSet seen = randomSeen(map, new Random(4), 0.8);
+
+		int[] first = cover.cover(map, seen, null, System.nanoTime() + DEADLINE_NANOS);
+		int[] second = cover.cover(map, new PositionSet(seen), null, System.nanoTime());
+
+		assertEquals(Arrays.toString(first), Arrays.toString(second));
+	}
+
+	private static GameMap randomMap(Random random, int gridWidth, int gridHeight, int width, int height) {
+		GameMap map = new GameMap(gridWidth, gridHeight);
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				double roll = random.nextDouble();
+				Terrain terrain = roll < 0.55 ? Terrain.GRASS : roll < 0.85 ? Terrain.MOUNTAIN : Terrain.WATER;
+				map.addNode(new MapNode(Point.of(x, y), terrain, TreasureState.NO_TREASURE, FortState.NO_FORT,
+						PlayerPositionState.NO_PLAYER));
+			}
+		}
+		return map;
+	}
+
+	private static PositionSet randomSeen(GameMap map, Random random, double probability) {
+		PositionSet seen = new PositionSet();
+		for (int cell = 0; cell < map.getCellCount(); cell++) {
+			if (map.hasNode(cell) && random.nextDouble() < probability) {
+				seen.add(map.getCellX(cell), map.getCellY(cell));
+			}
+		}
+		return seen;
+	}
+
+	private static boolean inZone(GameMap map, PositionSet zone, int cell) {
+		return zone == null || zone.contains(map.getCellX(cell), map.getCellY(cell));
+	}
+
+	private static Set<Integer> targets(GameMap map, PositionSet seen, PositionSet zone) {
+		Set<Integer> targets = new HashSet<>();
+		for (int cell = 0; cell < map.getCellCount(); cell++) {
+			if (map.getTerrainAt(cell) == Terrain.GRASS && inZone(map, zone, cell)
+					&& !seen.contains(map.getCellX(cell), map.getCellY(cell))) {
+				targets.add(cell);
+			}
+		}
+		return targets;
+	}
+
+	/**
+	 * Grass fields visible from {@code cell}: itself if grass, the grass
+	 * fields of the surrounding 3x3 block if mountain.
+	 */
+	private static Set<Integer> sight(GameMap map, int cell) {
+		Set<Integer> visible = new HashSet<>();
+		Terrain terrain = map.getTerrainAt(cell);
+		if (terrain == Terrain.GRASS) {
+			visible.add(cell);
+		} else if (terrain == Terrain.MOUNTAIN) {
+			for (int dx = -1; dx <= 1; dx++) {
+				for (int dy = -1; dy <= 1; dy++) {
+					int other = map.indexOf(map.getCellX(cell) + dx, map.getCellY(cell) + dy);
+					if (other != GameMap.NO_CELL && map.getTerrainAt(other) == Terrain.GRASS) {
+						visible.add(other);
+					}
+				}
+			}
+		}
+		return visible;
+	}
+
+	private static void assertCovers(GameMap map, int[] viewpoints, Set<Integer> targets, PositionSet zone) {
+		Set<Integer> uncovered = new HashSet<>(targets);
+		for (int viewpoint : viewpoints) {
+			assertTrue(inZone(map, zone, viewpoint), "viewpoint outside zone: " + map.getCellPosition(viewpoint));
+			uncovered.removeAll(sight(map, viewpoint));
+		}
+		assertTrue(uncovered.isEmpty(), "uncovered fields: " + uncovered);
+	}
+
+	/**
+	 * Smallest number of viewpoints covering {@code targets}, by trying every
+	 * combination of 0, 1, 2, ... candidates. Coverage is kept as a bitmask
+	 * over the targets.
+	 */
+	private static int minimumCoverSize(GameMap map, Set<Integer> targets, PositionSet zone) {
+		List<Integer> targetList = new ArrayList<>(targets);
+		List<Integer> candidates = new ArrayList<>();
+		for (int cell = 0; cell < map.getCellCount(); cell++) {
+			if (!inZone(map, zone, cell)) {
+				continue;
+			}
+			int mask = 0;
+			for (int visible : sight(map, cell)) {
+				int target = targetList.indexOf(visible);
+				if (target >= 0) {
+					mask |= 1 << target;
+				}
+			}
+			if (mask != 0) {
+				candidates.add(mask);
+			}
+		}
+		int all = (1 << targetList.size()) - 1;
+		int size = 0;
+		while (!coverExists(candidates, 0, size, all)) {
+			size++;
+		}
+		return size;
+	}
+
+	private static boolean coverExists(List<Integer> candidates, int from, int picks, int uncovered) {
+		if (uncovered == 0) {
+			return true;
+		}
+		if (picks == 0) {
+			return false;
+		}
+		for (int i = from; i < candidates.size(); i++) {
+			int rest = uncovered & ~candidates.get(i);
+			if (rest != uncovered && coverExists(candidates, i + 1, picks - 1, rest)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}